@@ -0,0 +1,64 @@
+package app.quickcase.spring.oidc.claims;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the extraction of an organisations claim carrying hundreds of organisation profiles, when held by the JWT as
+ * a {@link Map} and as a JSON string.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClaimsParserBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CLAIM = "app.quickcase.claims/organisations";
+
+    @Param({"100", "500"})
+    public int organisations;
+
+    private Map<String, Object> mapClaims;
+    private Map<String, Object> stringClaims;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final Map<String, Object> profiles = new LinkedHashMap<>();
+        for (int i = 0; i < organisations; i++) {
+            profiles.put("org-" + i, Map.of("access", "group",
+                                            "classification", "private",
+                                            "group", "group-" + i));
+        }
+
+        mapClaims = Map.of("sub", "user-1", CLAIM, profiles);
+        stringClaims = Map.of("sub", "user-1", CLAIM, MAPPER.writeValueAsString(profiles));
+    }
+
+    @Benchmark
+    public ObjectNode jwtMapClaim() {
+        return new JwtClaimsParser(mapClaims).getObject(CLAIM).orElseThrow();
+    }
+
+    @Benchmark
+    public ObjectNode jwtStringClaim() {
+        return new JwtClaimsParser(stringClaims).getObject(CLAIM).orElseThrow();
+    }
+}
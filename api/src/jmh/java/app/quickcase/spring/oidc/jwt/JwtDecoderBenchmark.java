@@ -0,0 +1,119 @@
+package app.quickcase.spring.oidc.jwt;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+/**
+ * Compare {@link QuickcaseJwtDecoder} with {@link NimbusJwtDecoder}, as configured by default, decoding a typical
+ * QuickCase access token signed with RS256 and ES256.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtDecoderBenchmark {
+    private String rs256Token;
+    private String es256Token;
+    private JwtDecoder nimbusRs256;
+    private JwtDecoder nimbusEs256;
+    private JwtDecoder quickcase;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        final RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        final ECKey ecKey = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+        final JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(
+                new JWKSet(List.of(rsaKey.toPublicJWK(), ecKey.toPublicJWK())));
+
+        rs256Token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey));
+        es256Token = sign(JWSAlgorithm.ES256, ecKey, new ECDSASigner(ecKey));
+        nimbusRs256 = nimbusDecoder(JWSAlgorithm.RS256, jwkSource);
+        nimbusEs256 = nimbusDecoder(JWSAlgorithm.ES256, jwkSource);
+        quickcase = new QuickcaseJwtDecoder(jwkSource);
+    }
+
+    @Benchmark
+    public Jwt nimbusRs256() {
+        return nimbusRs256.decode(rs256Token);
+    }
+
+    @Benchmark
+    public Jwt quickcaseRs256() {
+        return quickcase.decode(rs256Token);
+    }
+
+    @Benchmark
+    public Jwt nimbusEs256() {
+        return nimbusEs256.decode(es256Token);
+    }
+
+    @Benchmark
+    public Jwt quickcaseEs256() {
+        return quickcase.decode(es256Token);
+    }
+
+    private static JwtDecoder nimbusDecoder(JWSAlgorithm algorithm, JWKSource<SecurityContext> jwkSource) {
+        final DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static String sign(JWSAlgorithm algorithm, JWK key, JWSSigner signer) throws JOSEException {
+        final JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("0d7b8a2e-6f4c-4a4e-9d4b-3c2a1f0e9d8c")
+                .issuer("https://oidc.provider")
+                .audience("quickcase")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(86400)))
+                .claim("scope", "openid profile email")
+                .claim("client_id", "quickcase-ui")
+                .claim("name", "Jane Doe")
+                .claim("email", "jane.doe@quickcase.app")
+                .claim("app.quickcase.claims/roles", "caseworker,caseworker-jurisdiction-1,caseworker-admin")
+                .claim("app.quickcase.claims/default_jurisdiction", "jurisdiction-1")
+                .build();
+        final SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+}
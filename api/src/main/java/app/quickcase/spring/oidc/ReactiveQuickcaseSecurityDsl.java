@@ -0,0 +1,7 @@
+package app.quickcase.spring.oidc;
+
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+
+public interface ReactiveQuickcaseSecurityDsl {
+    ServerHttpSecurity withQuickcaseSecurity(ServerHttpSecurity http);
+}
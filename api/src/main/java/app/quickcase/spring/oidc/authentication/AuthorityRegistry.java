@@ -0,0 +1,72 @@
+package app.quickcase.spring.oidc.authentication;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of canonical {@link GrantedAuthority} instances, shared by all authentications, so that the authorities of
+ * recurring scopes and roles are not allocated again on every request.
+ *
+ * <p>
+ * Scopes, roles and unprefixed authorities are registered separately, keyed by their raw name. Each kind retains at
+ * most <code>maxSize</code> names; once full, authorities for new names are still returned but not retained.
+ */
+public final class AuthorityRegistry {
+    public static final String SCOPE_PREFIX = "SCOPE_";
+    public static final String ROLE_PREFIX = "ROLE_";
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private static final AuthorityRegistry SHARED = new AuthorityRegistry(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    private final Map<String, GrantedAuthority> scopes = new ConcurrentHashMap<>();
+    private final Map<String, GrantedAuthority> roles = new ConcurrentHashMap<>();
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    public AuthorityRegistry(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return Registry shared by the converters and user info extraction
+     */
+    public static AuthorityRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return Authority <code>SCOPE_{scope}</code>
+     */
+    public GrantedAuthority scope(String scope) {
+        final GrantedAuthority authority = scopes.get(scope);
+        return authority != null ? authority : register(scopes, scope, SCOPE_PREFIX + scope);
+    }
+
+    /**
+     * @return Authority <code>ROLE_{role}</code>
+     */
+    public GrantedAuthority role(String role) {
+        final GrantedAuthority authority = roles.get(role);
+        return authority != null ? authority : register(roles, role, ROLE_PREFIX + role);
+    }
+
+    /**
+     * @return Authority named as given, without prefix
+     */
+    public GrantedAuthority authority(String name) {
+        final GrantedAuthority authority = authorities.get(name);
+        return authority != null ? authority : register(authorities, name, name);
+    }
+
+    private GrantedAuthority register(Map<String, GrantedAuthority> registry, String name, String authorityName) {
+        final GrantedAuthority authority = new SimpleGrantedAuthority(authorityName);
+        if (registry.size() >= maxSize) {
+            return authority;
+        }
+        final GrantedAuthority registered = registry.putIfAbsent(name, authority);
+        return registered != null ? registered : authority;
+    }
+}
@@ -0,0 +1,37 @@
+package app.quickcase.spring.oidc.authentication;
+
+import app.quickcase.spring.oidc.SecurityClassification;
+
+/**
+ * Attributes of a case which determine whether it is visible to an authentication, see
+ * {@link CaseVisibilityEvaluator}. May be implemented directly by case summaries to avoid copying them.
+ */
+public interface CaseAccess {
+    String getOrganisationId();
+
+    SecurityClassification getSecurityClassification();
+
+    /**
+     * @return Optional, group the case belongs to
+     */
+    String getGroup();
+
+    static CaseAccess of(String organisationId, SecurityClassification classification, String group) {
+        return new CaseAccess() {
+            @Override
+            public String getOrganisationId() {
+                return organisationId;
+            }
+
+            @Override
+            public SecurityClassification getSecurityClassification() {
+                return classification;
+            }
+
+            @Override
+            public String getGroup() {
+                return group;
+            }
+        };
+    }
+}
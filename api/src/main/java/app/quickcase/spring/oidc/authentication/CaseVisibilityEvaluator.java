@@ -0,0 +1,151 @@
+package app.quickcase.spring.oidc.authentication;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collector;
+
+import app.quickcase.spring.oidc.AccessLevel;
+import app.quickcase.spring.oidc.SecurityClassification;
+import app.quickcase.spring.oidc.organisation.OrganisationProfile;
+
+/**
+ * Evaluate the visibility of many cases for an authentication at once, based on its organisation profiles, eg: to
+ * filter search results.
+ *
+ * <p>
+ * A case is visible when:
+ * <ul>
+ *     <li>its classification is the same as or less restrictive than the classification of the profile, eg: a
+ *     <code>PRIVATE</code> profile sees <code>PRIVATE</code> and <code>PUBLIC</code> cases</li>
+ *     <li>and the access level of the profile is <code>ORGANISATION</code>, or <code>GROUP</code> with the group of
+ *     the case matching the group of the profile, ignoring case</li>
+ * </ul>
+ * Cases are never visible through access level <code>INDIVIDUAL</code>, which relies on case-level grants unknown
+ * here. Cases without organisation or classification are never visible.
+ *
+ * <p>
+ * The decision table of each organisation is computed from its profile once, on first use, and retained for the
+ * lifetime of the evaluator. Evaluators are thread-safe and can be used from parallel streams, for example with
+ * {@link #isVisible(CaseAccess)} as a filter or {@link #toVisibility()} as a collector.
+ */
+public class CaseVisibilityEvaluator {
+    private final QuickcaseAuthentication authentication;
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+
+    public CaseVisibilityEvaluator(QuickcaseAuthentication authentication) {
+        this.authentication = authentication;
+    }
+
+    public boolean isVisible(String organisationId, SecurityClassification classification, String group) {
+        if (organisationId == null || classification == null) {
+            return false;
+        }
+        return decision(organisationId).isVisible(classification, group);
+    }
+
+    public boolean isVisible(CaseAccess caseAccess) {
+        return isVisible(caseAccess.getOrganisationId(), caseAccess.getSecurityClassification(), caseAccess.getGroup());
+    }
+
+    /**
+     * @return Bitmap where bit <code>i</code> is set when case <code>i</code> is visible
+     */
+    public BitSet evaluate(List<? extends CaseAccess> cases) {
+        final BitSet visibility = new BitSet(cases.size());
+        int i = 0;
+        for (CaseAccess caseAccess : cases) {
+            if (isVisible(caseAccess)) {
+                visibility.set(i);
+            }
+            i++;
+        }
+        return visibility;
+    }
+
+    /**
+     * @return Collector of the visibility bitmap of a stream of cases, in encounter order. Parallel streams are
+     * evaluated in chunks which are merged by offset.
+     */
+    public Collector<CaseAccess, ?, BitSet> toVisibility() {
+        return Collector.of(Chunk::new,
+                            (chunk, caseAccess) -> chunk.add(isVisible(caseAccess)),
+                            Chunk::append,
+                            chunk -> chunk.bits);
+    }
+
+    // Visibility is derived from organisation profiles, until they are phased out along with this evaluator
+    @SuppressWarnings("deprecation")
+    private Decision decision(String organisationId) {
+        final Decision decision = decisions.get(organisationId);
+        if (decision != null) {
+            return decision;
+        }
+        return decisions.computeIfAbsent(organisationId,
+                                         id -> Decision.of(authentication.getOrganisationProfile(id)));
+    }
+
+    private static final class Decision {
+        private static final Decision NONE = new Decision(new boolean[SecurityClassification.values().length],
+                                                          AccessLevel.INDIVIDUAL,
+                                                          null);
+
+        /** Indexed by ordinal of the case classification */
+        private final boolean[] classifications;
+        private final AccessLevel accessLevel;
+        private final String group;
+
+        private Decision(boolean[] classifications, AccessLevel accessLevel, String group) {
+            this.classifications = classifications;
+            this.accessLevel = accessLevel;
+            this.group = group;
+        }
+
+        private static Decision of(OrganisationProfile profile) {
+            if (profile == null || AccessLevel.INDIVIDUAL == profile.getAccessLevel()) {
+                return NONE;
+            }
+
+            final SecurityClassification[] values = SecurityClassification.values();
+            final boolean[] classifications = new boolean[values.length];
+            for (SecurityClassification classification : values) {
+                classifications[classification.ordinal()] = !classification.lowestPrecedenceThan(
+                        profile.getSecurityClassification());
+            }
+
+            return new Decision(classifications, profile.getAccessLevel(), profile.getGroup().orElse(null));
+        }
+
+        private boolean isVisible(SecurityClassification classification, String caseGroup) {
+            if (!classifications[classification.ordinal()]) {
+                return false;
+            }
+            return switch (accessLevel) {
+                case ORGANISATION -> true;
+                case GROUP -> group != null && group.equalsIgnoreCase(caseGroup);
+                case INDIVIDUAL -> false;
+            };
+        }
+    }
+
+    private static final class Chunk {
+        private final BitSet bits = new BitSet();
+        private int size;
+
+        private void add(boolean visible) {
+            if (visible) {
+                bits.set(size);
+            }
+            size++;
+        }
+
+        private Chunk append(Chunk next) {
+            for (int i = next.bits.nextSetBit(0); i >= 0; i = next.bits.nextSetBit(i + 1)) {
+                bits.set(size + i);
+            }
+            size += next.size;
+            return this;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package app.quickcase.spring.oidc.authentication;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -16,6 +17,8 @@ import org.springframework.security.core.GrantedAuthority;
 public abstract class QuickcaseAuthentication extends AbstractAuthenticationToken {
 
     private final String accessToken;
+    private transient volatile RoleIndex.Membership roleMembership;
+    private transient volatile RoleIndex.Membership groupMembership;
 
     /**
      * Creates a token with the supplied array of authorities.
@@ -30,6 +33,17 @@ public abstract class QuickcaseAuthentication extends AbstractAuthenticationToke
         this.accessToken = accessToken;
     }
 
+    /**
+     * Copy of the source authentication, sharing its authorities and memberships, without its details.
+     */
+    protected QuickcaseAuthentication(QuickcaseAuthentication source) {
+        super(source.getAuthorities());
+        this.accessToken = source.accessToken;
+        this.roleMembership = source.roleMembership;
+        this.groupMembership = source.groupMembership;
+        setAuthenticated(source.isAuthenticated());
+    }
+
     public String getAccessToken() {
         return accessToken;
     }
@@ -42,13 +56,111 @@ public abstract class QuickcaseAuthentication extends AbstractAuthenticationToke
 
     public abstract Set<String> getGroups();
 
+    /**
+     * Equivalent to <code>getRoles().contains(role)</code>, checked against {@link RoleIndex#shared()}.
+     */
+    public boolean hasRole(String role) {
+        return roleMembership().contains(role);
+    }
+
+    public boolean hasAnyRole(String... roles) {
+        final RoleIndex.Membership membership = roleMembership();
+        for (String role : roles) {
+            if (membership.contains(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAllRoles(String... roles) {
+        final RoleIndex.Membership membership = roleMembership();
+        for (String role : roles) {
+            if (!membership.contains(role)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param roles Compiled with {@link RoleIndex#shared()}
+     */
+    public boolean hasAnyRole(RoleIndex.Mask roles) {
+        return roleMembership().containsAny(roles);
+    }
+
+    /**
+     * @param roles Compiled with {@link RoleIndex#shared()}
+     */
+    public boolean hasAllRoles(RoleIndex.Mask roles) {
+        return roleMembership().containsAll(roles);
+    }
+
+    /**
+     * Equivalent to <code>getGroups().contains(group)</code>, checked against {@link RoleIndex#shared()}.
+     */
+    public boolean hasGroup(String group) {
+        return groupMembership().contains(group);
+    }
+
+    /**
+     * @param groups Compiled with {@link RoleIndex#shared()}
+     */
+    public boolean hasAnyGroup(RoleIndex.Mask groups) {
+        return groupMembership().containsAny(groups);
+    }
+
+    private RoleIndex.Membership roleMembership() {
+        RoleIndex.Membership membership = roleMembership;
+        if (membership == null) {
+            membership = RoleIndex.shared().membership(getRoles());
+            roleMembership = membership;
+        }
+        return membership;
+    }
+
+    private RoleIndex.Membership groupMembership() {
+        RoleIndex.Membership membership = groupMembership;
+        if (membership == null) {
+            membership = RoleIndex.shared().membership(getGroups());
+            groupMembership = membership;
+        }
+        return membership;
+    }
+
     /**
      * @deprecated Organisation profiles are being phased out in favour of fully role-driven authorisation.
      */
     @Deprecated
     public abstract OrganisationProfile getOrganisationProfile(String organisationId);
 
+    /**
+     * Bulk variant of {@link #getOrganisationProfile(String)}, eg: to filter many cases at once.
+     *
+     * @return Profiles in the order of the identifiers
+     * @deprecated Organisation profiles are being phased out in favour of fully role-driven authorisation.
+     */
+    @Deprecated
+    public OrganisationProfile[] getOrganisationProfiles(List<String> organisationIds) {
+        final OrganisationProfile[] profiles = new OrganisationProfile[organisationIds.size()];
+        int i = 0;
+        for (String organisationId : organisationIds) {
+            profiles[i++] = getOrganisationProfile(organisationId);
+        }
+        return profiles;
+    }
+
     public abstract Optional<UserInfo> getUserInfo();
 
+    /**
+     * Copy of this authentication carrying the given details, so that an authentication shared across requests can be
+     * handed to each request with its own details.
+     * Subclasses should override; by default, this authentication is returned as is, without the details.
+     */
+    public QuickcaseAuthentication withDetails(Object details) {
+        return this;
+    }
+
     public abstract Boolean isClientOnly();
 }
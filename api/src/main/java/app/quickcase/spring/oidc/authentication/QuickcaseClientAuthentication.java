@@ -36,6 +36,13 @@ public class QuickcaseClientAuthentication extends QuickcaseAuthentication {
         this.setAuthenticated(true);
     }
 
+    private QuickcaseClientAuthentication(QuickcaseClientAuthentication source, Object details) {
+        super(source);
+        this.clientId = source.clientId;
+        this.roles = source.roles;
+        setDetails(details);
+    }
+
     @Override
     public Object getCredentials() {
         return getAccessToken();
@@ -89,4 +96,9 @@ public class QuickcaseClientAuthentication extends QuickcaseAuthentication {
     public Boolean isClientOnly() {
         return true;
     }
+
+    @Override
+    public QuickcaseClientAuthentication withDetails(Object details) {
+        return new QuickcaseClientAuthentication(this, details);
+    }
 }
@@ -1,5 +1,6 @@
 package app.quickcase.spring.oidc.authentication;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,6 +30,12 @@ public class QuickcaseUserAuthentication extends QuickcaseAuthentication {
         this.setAuthenticated(true);
     }
 
+    private QuickcaseUserAuthentication(QuickcaseUserAuthentication source, Object details) {
+        super(source);
+        this.userInfo = source.userInfo;
+        setDetails(details);
+    }
+
     @Override
     public Object getCredentials() {
         return getAccessToken();
@@ -76,6 +83,21 @@ public class QuickcaseUserAuthentication extends QuickcaseAuthentication {
                        });
     }
 
+    /**
+     * @deprecated Organisation profiles are being phased out in favour of fully role-driven authorisation.
+     */
+    @Deprecated
+    @Override
+    public OrganisationProfile[] getOrganisationProfiles(List<String> organisationIds) {
+        final OrganisationProfile[] profiles = userInfo.getOrganisationProfileIndex().getAll(organisationIds);
+        for (int i = 0; i < profiles.length; i++) {
+            if (profiles[i] == null) {
+                profiles[i] = DEFAULT_PROFILE;
+            }
+        }
+        return profiles;
+    }
+
     @Override
     public Object getPrincipal() {
         return getId();
@@ -90,4 +112,9 @@ public class QuickcaseUserAuthentication extends QuickcaseAuthentication {
     public Boolean isClientOnly() {
         return false;
     }
+
+    @Override
+    public QuickcaseUserAuthentication withDetails(Object details) {
+        return new QuickcaseUserAuthentication(this, details);
+    }
 }
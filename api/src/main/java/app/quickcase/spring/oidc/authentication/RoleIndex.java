@@ -0,0 +1,174 @@
+package app.quickcase.spring.oidc.authentication;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index of role and group names to bit positions, so that membership checks against the roles and groups of an
+ * authentication are bitset lookups rather than string hashing.
+ *
+ * <p>
+ * Known names are registered at startup, and names first seen in authentications are learned until
+ * <code>capacity</code> names are indexed. Positions never change once assigned. Names outside the index are still
+ * checked correctly, against the original set of names.
+ *
+ * <p>
+ * For hot paths, the names checked can be compiled once into a {@link Mask}, eg:
+ * <pre>
+ * private static final RoleIndex.Mask ADMINS = RoleIndex.shared().compile("admin", "superuser");
+ * ...
+ * authentication.hasAnyRole(ADMINS);
+ * </pre>
+ */
+public final class RoleIndex {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final RoleIndex SHARED = new RoleIndex(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final Map<String, Integer> positions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextPosition = new AtomicInteger();
+
+    public RoleIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return Index used by {@link QuickcaseAuthentication}
+     */
+    public static RoleIndex shared() {
+        return SHARED;
+    }
+
+    /**
+     * Index names ahead of their first use.
+     */
+    public void register(Collection<String> names) {
+        names.forEach(this::learn);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public Mask compile(String... names) {
+        return compile(Arrays.asList(names));
+    }
+
+    public Mask compile(Collection<String> names) {
+        final BitSet bits = new BitSet();
+        final Set<String> unindexed = new HashSet<>();
+        for (String name : names) {
+            final int position = learn(name);
+            if (position >= 0) {
+                bits.set(position);
+            } else {
+                unindexed.add(name);
+            }
+        }
+        return new Mask(bits, Set.copyOf(unindexed));
+    }
+
+    Membership membership(Set<String> names) {
+        final BitSet bits = new BitSet();
+        boolean complete = true;
+        for (String name : names) {
+            final int position = learn(name);
+            if (position >= 0) {
+                bits.set(position);
+            } else {
+                complete = false;
+            }
+        }
+        return new Membership(this, bits, names, complete);
+    }
+
+    private int position(String name) {
+        final Integer position = positions.get(name);
+        return position != null ? position : -1;
+    }
+
+    private int learn(String name) {
+        final Integer position = positions.get(name);
+        if (position != null) {
+            return position;
+        }
+        if (positions.size() >= capacity) {
+            return -1;
+        }
+        return positions.computeIfAbsent(name, n -> nextPosition.getAndIncrement());
+    }
+
+    /**
+     * Names compiled into bit positions, to check in a single operation.
+     */
+    public static final class Mask {
+        private final BitSet bits;
+        private final Set<String> unindexed;
+
+        private Mask(BitSet bits, Set<String> unindexed) {
+            this.bits = bits;
+            this.unindexed = unindexed;
+        }
+    }
+
+    /**
+     * Names held by an authentication, as indexed when the membership was first checked.
+     * Since positions never change, names not indexed at that time can never be indexed later: they are only looked
+     * up in the original names when the membership is incomplete.
+     */
+    static final class Membership {
+        private final RoleIndex index;
+        private final BitSet bits;
+        private final Set<String> names;
+        private final boolean complete;
+
+        private Membership(RoleIndex index, BitSet bits, Set<String> names, boolean complete) {
+            this.index = index;
+            this.bits = bits;
+            this.names = names;
+            this.complete = complete;
+        }
+
+        boolean contains(String name) {
+            final int position = index.position(name);
+            if (position >= 0) {
+                return bits.get(position);
+            }
+            return !complete && names.contains(name);
+        }
+
+        boolean containsAny(Mask mask) {
+            if (bits.intersects(mask.bits)) {
+                return true;
+            }
+            if (complete) {
+                return false;
+            }
+            for (String name : mask.unindexed) {
+                if (names.contains(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean containsAll(Mask mask) {
+            for (int i = mask.bits.nextSetBit(0); i >= 0; i = mask.bits.nextSetBit(i + 1)) {
+                if (!bits.get(i)) {
+                    return false;
+                }
+            }
+            if (mask.unindexed.isEmpty()) {
+                return true;
+            }
+            return !complete && names.containsAll(mask.unindexed);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package app.quickcase.spring.oidc.authentication.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counters of an authentication cache.
+ */
+public class AuthenticationCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of entries removed from the cache, either to make room for a more frequently used token or
+     * because they expired.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Number of authentications not cached because their token was used less frequently than the entry they
+     * would have evicted.
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordRejection() {
+        rejections.increment();
+    }
+}
@@ -0,0 +1,198 @@
+package app.quickcase.spring.oidc.authentication.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.utils.TokenDigest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.ProviderNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+/**
+ * Authenticate bearer tokens by decoding them and converting them into a {@link QuickcaseAuthentication}, caching the
+ * result so that repeated tokens skip signature verification and conversion altogether.
+ *
+ * <p>
+ * Entries are keyed on a digest of the token and expire after the configured time-to-live or when the token expires,
+ * whichever comes first. Tokens without expiry are never cached.
+ *
+ * <p>
+ * The cache is bounded: once full, a new token is only admitted when it has been presented more frequently than the
+ * entry it would evict, so that a stream of one-off tokens cannot flush frequently used ones. The entry to evict is
+ * the least recently used of a small sample, or any expired entry found in the sample. As entries are keyed on token
+ * digests, the sample is effectively random. Lookups take no lock; the size may briefly exceed its maximum by the
+ * number of tokens being stored concurrently.
+ *
+ * <p>
+ * Cached authentications are shared across requests: each request is given its own copy, carrying the details of its
+ * bearer token.
+ */
+public class CachingAuthenticationManager implements AuthenticationManager {
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final JwtDecoder jwtDecoder;
+    private final QuickcaseAuthenticationConverter authenticationConverter;
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final AuthenticationCacheStats stats = new AuthenticationCacheStats();
+
+    public CachingAuthenticationManager(JwtDecoder jwtDecoder,
+                                        QuickcaseAuthenticationConverter authenticationConverter,
+                                        int maxSize,
+                                        Duration ttl) {
+        this(jwtDecoder, authenticationConverter, maxSize, ttl, Clock.systemUTC());
+    }
+
+    public CachingAuthenticationManager(JwtDecoder jwtDecoder,
+                                        QuickcaseAuthenticationConverter authenticationConverter,
+                                        int maxSize,
+                                        Duration ttl,
+                                        Clock clock) {
+        this.jwtDecoder = jwtDecoder;
+        this.authenticationConverter = authenticationConverter;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            throw new ProviderNotFoundException("Unsupported authentication: " + authentication.getClass().getName());
+        }
+
+        final String key = TokenDigest.sha256(bearer.getToken());
+        final QuickcaseAuthentication cached = lookup(key);
+
+        if (cached != null) {
+            stats.recordHit();
+            return cached.withDetails(bearer.getDetails());
+        }
+
+        stats.recordMiss();
+        final Jwt jwt = decode(bearer.getToken());
+        final QuickcaseAuthentication result = authenticationConverter.convert(jwt);
+        if (result == null) {
+            return null;
+        }
+        store(key, result, jwt.getExpiresAt());
+        return result.withDetails(bearer.getDetails());
+    }
+
+    public AuthenticationCacheStats getStats() {
+        return stats;
+    }
+
+    private Jwt decode(String token) {
+        try {
+            return jwtDecoder.decode(token);
+        } catch (BadJwtException e) {
+            throw new InvalidBearerTokenException(e.getMessage(), e);
+        } catch (JwtException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+    }
+
+    private QuickcaseAuthentication lookup(String key) {
+        sketch.increment(key);
+        final Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (!clock.instant().isBefore(entry.expiresAt)) {
+            if (entries.remove(key, entry)) {
+                stats.recordEviction();
+            }
+            return null;
+        }
+
+        entry.accessedAt = System.nanoTime();
+        return entry.authentication;
+    }
+
+    private void store(String key, QuickcaseAuthentication authentication, Instant tokenExpiresAt) {
+        if (tokenExpiresAt == null) {
+            return;
+        }
+
+        final Instant now = clock.instant();
+        final Instant ttlExpiresAt = now.plus(ttl);
+        final Instant expiresAt = tokenExpiresAt.isBefore(ttlExpiresAt) ? tokenExpiresAt : ttlExpiresAt;
+
+        if (!now.isBefore(expiresAt)) {
+            return;
+        }
+
+        if (!entries.containsKey(key) && entries.size() >= maxSize && !admit(key, now)) {
+            stats.recordRejection();
+            return;
+        }
+
+        entries.put(key, new Entry(authentication, expiresAt, System.nanoTime()));
+    }
+
+    /**
+     * Evict an expired entry from a sample, or its least recently used entry if the candidate is used more frequently.
+     */
+    private boolean admit(String candidateKey, Instant now) {
+        final Iterator<Map.Entry<String, Entry>> sample = entries.entrySet().iterator();
+        Map.Entry<String, Entry> victim = null;
+
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && sample.hasNext(); i++) {
+            final Map.Entry<String, Entry> candidate = sample.next();
+            if (!now.isBefore(candidate.getValue().expiresAt)) {
+                victim = candidate;
+                break;
+            }
+            if (victim == null || candidate.getValue().accessedAt - victim.getValue().accessedAt < 0) {
+                victim = candidate;
+            }
+        }
+
+        if (victim == null) {
+            return true;
+        }
+
+        final boolean expired = !now.isBefore(victim.getValue().expiresAt);
+        if (!expired && sketch.frequency(candidateKey) <= sketch.frequency(victim.getKey())) {
+            return false;
+        }
+
+        if (entries.remove(victim.getKey(), victim.getValue())) {
+            stats.recordEviction();
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        private final QuickcaseAuthentication authentication;
+        private final Instant expiresAt;
+        private volatile long accessedAt;
+
+        private Entry(QuickcaseAuthentication authentication, Instant expiresAt, long accessedAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+            this.accessedAt = accessedAt;
+        }
+    }
+}
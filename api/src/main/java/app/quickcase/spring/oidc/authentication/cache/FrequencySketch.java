@@ -0,0 +1,80 @@
+package app.quickcase.spring.oidc.authentication.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Approximate, aging access frequency of keys, as a count-min sketch of 4-bit counters.
+ *
+ * <p>
+ * Counters are halved once the number of increments reaches ten times the width of the sketch, so that keys
+ * which stop being accessed are eventually forgotten.
+ *
+ * <p>
+ * Safe to share between threads without locking: updates are not atomic, so concurrent increments of the same counter
+ * may be lost, which only makes the estimates slightly lower. Counters never exceed their maximum and only one thread
+ * halves them at a time.
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MAX_WIDTH = 1 << 24;
+    private static final int[] SEEDS = {0x97cb3127, 0xb4b82e39, 0x1e3a7c4f, 0x6d2b79f5};
+
+    private final byte[] counters;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicBoolean resetting = new AtomicBoolean();
+    private int additions;
+
+    FrequencySketch(int expectedSize) {
+        final int width = Integer.highestOneBit(Math.min(MAX_WIDTH, Math.max(16, expectedSize - 1)) << 1);
+        this.counters = new byte[DEPTH * width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    void increment(Object key) {
+        final int hash = key.hashCode();
+        boolean incremented = false;
+
+        for (int row = 0; row < DEPTH; row++) {
+            final int index = index(hash, row);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++additions >= sampleSize && resetting.compareAndSet(false, true)) {
+            try {
+                reset();
+            } finally {
+                resetting.set(false);
+            }
+        }
+    }
+
+    int frequency(Object key) {
+        final int hash = key.hashCode();
+        int frequency = MAX_COUNT;
+
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[index(hash, row)]);
+        }
+
+        return frequency;
+    }
+
+    private int index(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (byte) (counters[i] >>> 1);
+        }
+        additions /= 2;
+    }
+}
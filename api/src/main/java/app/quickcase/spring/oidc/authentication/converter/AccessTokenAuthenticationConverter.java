@@ -11,9 +11,6 @@ import app.quickcase.spring.oidc.userinfo.UserInfo;
 import app.quickcase.spring.oidc.userinfo.UserInfoExtractor;
 import org.springframework.security.oauth2.jwt.Jwt;
 
-import static app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter.authorities;
-import static app.quickcase.spring.oidc.utils.StringUtils.fromSpaceSeparated;
-
 /**
  * Extract all QuickCase user claims from the access token. Does not call /userinfo endpoint.
  * For client authentication, follows the behaviour of {@link UserInfoAuthenticationConverter}.
@@ -35,26 +32,30 @@ public class AccessTokenAuthenticationConverter implements QuickcaseAuthenticati
 
     @Override
     public QuickcaseAuthentication convert(Jwt source) {
-        final Set<String> scopes = fromSpaceSeparated(source.getClaimAsString("scope"));
+        final String scopeClaim = source.getClaimAsString("scope");
+        final Set<String> scopes = AuthoritySetCache.SHARED.scopes(scopeClaim);
 
         if (scopes.contains(openidScope)) {
-            return userAuthentication(source);
+            return userAuthentication(source, scopeClaim);
         }
 
-        return clientAuthentication(source);
+        return clientAuthentication(source, scopeClaim, scopes);
     }
 
-    private QuickcaseAuthentication clientAuthentication(Jwt source) {
+    private QuickcaseAuthentication clientAuthentication(Jwt source, String scopeClaim, Set<String> scopes) {
         final String accessToken = source.getTokenValue();
         final String subject = source.getSubject();
-        final Set<String> scopes = fromSpaceSeparated(source.getClaimAsString("scope"));
-        return new QuickcaseClientAuthentication(accessToken, subject, authorities(scopes), scopes);
+        return new QuickcaseClientAuthentication(accessToken,
+                                                 subject,
+                                                 AuthoritySetCache.SHARED.authorities(scopeClaim, Set.of()),
+                                                 scopes);
     }
 
-    private QuickcaseAuthentication userAuthentication(Jwt source) {
+    private QuickcaseAuthentication userAuthentication(Jwt source, String scopeClaim) {
         final ClaimsParser claims = new JwtClaimsParser(source.getClaims());
-        final Set<String> scopes = fromSpaceSeparated(source.getClaimAsString("scope"));
         final UserInfo userInfo = userInfoExtractor.extract(claims);
-        return new QuickcaseUserAuthentication(source.getTokenValue(), authorities(scopes, userInfo.getRoles()), userInfo);
+        return new QuickcaseUserAuthentication(source.getTokenValue(),
+                                               AuthoritySetCache.SHARED.authorities(scopeClaim, userInfo.getRoles()),
+                                               userInfo);
     }
 }
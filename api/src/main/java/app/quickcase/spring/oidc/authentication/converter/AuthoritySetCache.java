@@ -0,0 +1,66 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import static app.quickcase.spring.oidc.utils.StringUtils.fromSpaceSeparated;
+
+/**
+ * Bounded cache of parsed scopes, and of the authorities derived from a scope claim and a set of roles, as the
+ * combinations of scopes and roles are few compared to the number of requests.
+ * Cached sets are immutable and shared between authentications. Once full, the cache is cleared and refilled with the
+ * combinations in current use.
+ */
+final class AuthoritySetCache {
+    static final int MAX_SIZE = 1024;
+    static final AuthoritySetCache SHARED = new AuthoritySetCache(MAX_SIZE);
+
+    private final int maxSize;
+    private final Map<String, Set<String>> scopes = new ConcurrentHashMap<>();
+    private final Map<Key, Set<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
+
+    AuthoritySetCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param scopeClaim Space-separated scopes, as per `scope` claim
+     */
+    Set<String> scopes(String scopeClaim) {
+        final Set<String> cached = scopes.get(scopeClaim);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Set<String> parsed = Set.copyOf(fromSpaceSeparated(scopeClaim));
+        bound(scopes);
+        scopes.put(scopeClaim, parsed);
+        return parsed;
+    }
+
+    Set<GrantedAuthority> authorities(String scopeClaim, Set<String> roles) {
+        final Set<GrantedAuthority> cached = authorities.get(new Key(scopeClaim, roles));
+        if (cached != null) {
+            return cached;
+        }
+
+        final Set<String> cachedRoles = Set.copyOf(roles);
+        final Set<GrantedAuthority> derived = Set.copyOf(
+                QuickcaseAuthenticationConverter.authorities(scopes(scopeClaim), cachedRoles));
+        bound(authorities);
+        authorities.put(new Key(scopeClaim, cachedRoles), derived);
+        return derived;
+    }
+
+    private void bound(Map<?, ?> cache) {
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+    }
+
+    private record Key(String scopeClaim, Set<String> roles) {
+    }
+}
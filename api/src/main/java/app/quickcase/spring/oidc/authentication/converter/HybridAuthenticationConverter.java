@@ -0,0 +1,47 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.Set;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Extract QuickCase user claims from the access token when it carries all the required claims, as per
+ * {@link AccessTokenAuthenticationConverter}. Otherwise, falls back to retrieving user claims from /userinfo endpoint,
+ * as per {@link UserInfoAuthenticationConverter}.
+ */
+public class HybridAuthenticationConverter implements QuickcaseAuthenticationConverter {
+    private final AccessTokenAuthenticationConverter accessTokenConverter;
+    private final UserInfoAuthenticationConverter userInfoConverter;
+    private final Set<String> requiredClaims;
+
+    /**
+     * @param requiredClaims Names of the claims which must all be present in the access token for /userinfo endpoint
+     *                       not to be called
+     */
+    public HybridAuthenticationConverter(AccessTokenAuthenticationConverter accessTokenConverter,
+                                         UserInfoAuthenticationConverter userInfoConverter,
+                                         Set<String> requiredClaims) {
+        this.accessTokenConverter = accessTokenConverter;
+        this.userInfoConverter = userInfoConverter;
+        this.requiredClaims = Set.copyOf(requiredClaims);
+    }
+
+    @Override
+    public QuickcaseAuthentication convert(Jwt source) {
+        if (hasClaims(source, requiredClaims)) {
+            return accessTokenConverter.convert(source);
+        }
+
+        return userInfoConverter.convert(source);
+    }
+
+    static boolean hasClaims(Jwt source, Set<String> claimNames) {
+        for (String claimName : claimNames) {
+            if (source.getClaims().get(claimName) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,21 +3,21 @@ package app.quickcase.spring.oidc.authentication.converter;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import app.quickcase.spring.oidc.authentication.AuthorityRegistry;
 import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import static java.util.stream.Collectors.toSet;
 
 public interface QuickcaseAuthenticationConverter extends Converter<Jwt, QuickcaseAuthentication> {
     static String prefixScope(String scope) {
-        return "SCOPE_" + scope;
+        return AuthorityRegistry.SCOPE_PREFIX + scope;
     }
 
     static String prefixRole(String role) {
-        return "ROLE_" + role;
+        return AuthorityRegistry.ROLE_PREFIX + role;
     }
 
     static Set<GrantedAuthority> authorities(Set<String> scopes) {
@@ -25,11 +25,11 @@ public interface QuickcaseAuthenticationConverter extends Converter<Jwt, Quickca
     }
 
     static Set<GrantedAuthority> authorities(Set<String> scopes, Set<String> roles) {
+        final AuthorityRegistry registry = AuthorityRegistry.shared();
         return Stream.concat(
-                             scopes.stream().map(QuickcaseAuthenticationConverter::prefixScope),
-                             roles.stream().map(QuickcaseAuthenticationConverter::prefixRole)
+                             scopes.stream().map(registry::scope),
+                             roles.stream().map(registry::role)
                      )
-                     .map(SimpleGrantedAuthority::new)
                      .collect(toSet());
     }
 }
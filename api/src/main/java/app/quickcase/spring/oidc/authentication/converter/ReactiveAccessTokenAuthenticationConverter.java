@@ -0,0 +1,27 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import app.quickcase.spring.oidc.userinfo.UserInfoExtractor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive adapter of {@link AccessTokenAuthenticationConverter}. As all claims are extracted from the access token,
+ * conversion involves no I/O and is performed on the subscribing thread.
+ */
+public class ReactiveAccessTokenAuthenticationConverter implements ReactiveQuickcaseAuthenticationConverter {
+    private final AccessTokenAuthenticationConverter converter;
+
+    public ReactiveAccessTokenAuthenticationConverter(UserInfoExtractor userInfoExtractor) {
+        this(userInfoExtractor, AccessTokenAuthenticationConverter.OPENID_SCOPE);
+    }
+
+    public ReactiveAccessTokenAuthenticationConverter(UserInfoExtractor userInfoExtractor, String openidScope) {
+        this.converter = new AccessTokenAuthenticationConverter(userInfoExtractor, openidScope);
+    }
+
+    @Override
+    public Mono<QuickcaseAuthentication> convert(Jwt source) {
+        return Mono.fromSupplier(() -> converter.convert(source));
+    }
+}
@@ -0,0 +1,35 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.Set;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+import static app.quickcase.spring.oidc.authentication.converter.HybridAuthenticationConverter.hasClaims;
+
+/**
+ * Non-blocking counterpart of {@link HybridAuthenticationConverter}.
+ */
+public class ReactiveHybridAuthenticationConverter implements ReactiveQuickcaseAuthenticationConverter {
+    private final ReactiveAccessTokenAuthenticationConverter accessTokenConverter;
+    private final ReactiveUserInfoAuthenticationConverter userInfoConverter;
+    private final Set<String> requiredClaims;
+
+    public ReactiveHybridAuthenticationConverter(ReactiveAccessTokenAuthenticationConverter accessTokenConverter,
+                                                 ReactiveUserInfoAuthenticationConverter userInfoConverter,
+                                                 Set<String> requiredClaims) {
+        this.accessTokenConverter = accessTokenConverter;
+        this.userInfoConverter = userInfoConverter;
+        this.requiredClaims = Set.copyOf(requiredClaims);
+    }
+
+    @Override
+    public Mono<QuickcaseAuthentication> convert(Jwt source) {
+        if (hasClaims(source, requiredClaims)) {
+            return accessTokenConverter.convert(source);
+        }
+
+        return userInfoConverter.convert(source);
+    }
+}
@@ -0,0 +1,12 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link QuickcaseAuthenticationConverter}, for WebFlux resource servers.
+ */
+public interface ReactiveQuickcaseAuthenticationConverter extends Converter<Jwt, Mono<QuickcaseAuthentication>> {
+}
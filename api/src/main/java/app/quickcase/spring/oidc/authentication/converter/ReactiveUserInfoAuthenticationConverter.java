@@ -0,0 +1,59 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.Set;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseClientAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseUserAuthentication;
+import app.quickcase.spring.oidc.userinfo.ReactiveUserInfoService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserInfoAuthenticationConverter}: user info is retrieved from /userinfo endpoint
+ * without blocking the calling thread.
+ */
+public class ReactiveUserInfoAuthenticationConverter implements ReactiveQuickcaseAuthenticationConverter {
+    public static final String OPENID_SCOPE = "openid";
+
+    private final ReactiveUserInfoService userInfoService;
+    private final String openidScope;
+
+    public ReactiveUserInfoAuthenticationConverter(ReactiveUserInfoService userInfoService) {
+        this(userInfoService, OPENID_SCOPE);
+    }
+
+    public ReactiveUserInfoAuthenticationConverter(ReactiveUserInfoService userInfoService, String openidScope) {
+        this.userInfoService = userInfoService;
+        this.openidScope = openidScope;
+    }
+
+    @Override
+    public Mono<QuickcaseAuthentication> convert(Jwt source) {
+        final String scopeClaim = source.getClaimAsString("scope");
+        final Set<String> scopes = AuthoritySetCache.SHARED.scopes(scopeClaim);
+
+        if (scopes.contains(openidScope)) {
+            return userAuthentication(source, scopeClaim);
+        }
+
+        return Mono.just(clientAuthentication(source, scopeClaim, scopes));
+    }
+
+    private QuickcaseAuthentication clientAuthentication(Jwt source, String scopeClaim, Set<String> scopes) {
+        return new QuickcaseClientAuthentication(source.getTokenValue(),
+                                                 source.getSubject(),
+                                                 AuthoritySetCache.SHARED.authorities(scopeClaim, Set.of()),
+                                                 scopes);
+    }
+
+    private Mono<QuickcaseAuthentication> userAuthentication(Jwt source, String scopeClaim) {
+        final String accessToken = source.getTokenValue();
+
+        return userInfoService.loadUserInfo(source.getSubject(), accessToken)
+                              .map(userInfo -> new QuickcaseUserAuthentication(
+                                      accessToken,
+                                      AuthoritySetCache.SHARED.authorities(scopeClaim, userInfo.getRoles()),
+                                      userInfo));
+    }
+}
@@ -9,9 +9,6 @@ import app.quickcase.spring.oidc.userinfo.UserInfo;
 import app.quickcase.spring.oidc.userinfo.UserInfoService;
 import org.springframework.security.oauth2.jwt.Jwt;
 
-import static app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter.authorities;
-import static app.quickcase.spring.oidc.utils.StringUtils.fromSpaceSeparated;
-
 public class UserInfoAuthenticationConverter implements QuickcaseAuthenticationConverter {
     public static final String OPENID_SCOPE = "openid";
 
@@ -29,28 +26,32 @@ public class UserInfoAuthenticationConverter implements QuickcaseAuthenticationC
 
     @Override
     public QuickcaseAuthentication convert(Jwt source) {
-        final Set<String> scopes = fromSpaceSeparated(source.getClaimAsString("scope"));
+        final String scopeClaim = source.getClaimAsString("scope");
+        final Set<String> scopes = AuthoritySetCache.SHARED.scopes(scopeClaim);
 
         if (scopes.contains(openidScope)) {
-            return userAuthentication(source);
+            return userAuthentication(source, scopeClaim);
         }
 
-        return clientAuthentication(source);
+        return clientAuthentication(source, scopeClaim, scopes);
     }
 
-    private QuickcaseAuthentication clientAuthentication(Jwt source) {
+    private QuickcaseAuthentication clientAuthentication(Jwt source, String scopeClaim, Set<String> scopes) {
         final String accessToken = source.getTokenValue();
         final String subject = source.getSubject();
-        final Set<String> scopes = fromSpaceSeparated(source.getClaimAsString("scope"));
-        return new QuickcaseClientAuthentication(accessToken, subject, authorities(scopes), scopes);
+        return new QuickcaseClientAuthentication(accessToken,
+                                                 subject,
+                                                 AuthoritySetCache.SHARED.authorities(scopeClaim, Set.of()),
+                                                 scopes);
     }
 
-    private QuickcaseUserAuthentication userAuthentication(Jwt source) {
+    private QuickcaseUserAuthentication userAuthentication(Jwt source, String scopeClaim) {
         final String subject = source.getSubject();
         final String accessToken = source.getTokenValue();
-        final Set<String> scopes = fromSpaceSeparated(source.getClaimAsString("scope"));
-        final UserInfo userInfo = userInfoService.loadUserInfo(subject, accessToken);
+        final UserInfo userInfo = userInfoService.loadUserInfo(subject, accessToken, source.getExpiresAt());
 
-        return new QuickcaseUserAuthentication(accessToken, authorities(scopes, userInfo.getRoles()), userInfo);
+        return new QuickcaseUserAuthentication(accessToken,
+                                               AuthoritySetCache.SHARED.authorities(scopeClaim, userInfo.getRoles()),
+                                               userInfo);
     }
 }
@@ -1,5 +1,9 @@
 package app.quickcase.spring.oidc.claims;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Dynamic provider of names for OIDC claims retrieved from /userinfo endpoint.
  *
@@ -25,4 +29,40 @@ public interface ClaimNamesProvider {
     String defaultJurisdiction();
     String defaultCaseType();
     String defaultState();
+
+    /**
+     * @return Names of all the claims provided
+     */
+    default Set<String> all() {
+        return Stream.of(sub(),
+                         name(),
+                         email(),
+                         roles(),
+                         groups(),
+                         organisations(),
+                         defaultJurisdiction(),
+                         defaultCaseType(),
+                         defaultState())
+                     .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param logicalName Logical name of a claim, as used to configure claim names, eg: `roles` or `default-state`
+     * @return Name of the claim provided for the given logical name
+     * @throws IllegalArgumentException when the logical name is unknown
+     */
+    default String resolve(String logicalName) {
+        return switch (logicalName) {
+            case "sub" -> sub();
+            case "name" -> name();
+            case "email" -> email();
+            case "roles" -> roles();
+            case "groups" -> groups();
+            case "organisations" -> organisations();
+            case "default-jurisdiction" -> defaultJurisdiction();
+            case "default-case-type" -> defaultCaseType();
+            case "default-state" -> defaultState();
+            default -> throw new IllegalArgumentException("Unknown claim: " + logicalName);
+        };
+    }
 }
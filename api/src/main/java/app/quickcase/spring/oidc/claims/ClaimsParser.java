@@ -7,5 +7,17 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 public interface ClaimsParser {
     Optional<String> getString(String claim);
 
+    /**
+     * @return Read-only view of the claim when it is a JSON object, see {@link ReadOnlyJsonNodes}
+     */
     Optional<ObjectNode> getObject(String claim);
+
+    /**
+     * Same as {@link #getString(String)}, without wrapping the value, for extraction hot paths.
+     *
+     * @return Value of the claim as a String, null when the claim is missing
+     */
+    default String getStringOrNull(String claim) {
+        return getString(claim).orElse(null);
+    }
 }
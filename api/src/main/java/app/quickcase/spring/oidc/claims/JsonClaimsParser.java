@@ -25,6 +25,12 @@ public class JsonClaimsParser implements ClaimsParser {
         return getNode(claim).map(JsonNode::textValue);
     }
 
+    @Override
+    public String getStringOrNull(String claim) {
+        final JsonNode node = claims.get(claim);
+        return node != null ? node.textValue() : null;
+    }
+
     public Optional<JsonNode> getNode(String claim) {
         return Optional.ofNullable(claims.get(claim));
     }
@@ -34,7 +40,8 @@ public class JsonClaimsParser implements ClaimsParser {
         log.debug("Extracting claim `{}` as JSON object", claim);
         return getNode(claim).flatMap(jsonNode -> parseTextNode(claim, jsonNode))
                              .filter(JsonNode::isObject)
-                             .map(JsonNode::deepCopy);
+                             .map(ObjectNode.class::cast)
+                             .map(ReadOnlyJsonNodes::view);
     }
 
     private Optional<JsonNode> parseTextNode(String claim, JsonNode node) {
@@ -1,17 +1,21 @@
 package app.quickcase.spring.oidc.claims;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class JwtClaimsParser implements ClaimsParser {
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
 
     private final Map<String, Object> claims;
 
@@ -25,12 +29,74 @@ public class JwtClaimsParser implements ClaimsParser {
                        .map(Object::toString);
     }
 
+    @Override
+    public String getStringOrNull(String claim) {
+        final Object value = claims.get(claim);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Object claims decoded by the JWT decoder are held as {@link Map}s and converted straight to a tree; claims held as
+     * strings are parsed as JSON.
+     */
     @Override
     public Optional<ObjectNode> getObject(String claim) {
         log.debug("Extracting claim `{}` as JSON object", claim);
-        return getString(claim).flatMap(jsonNode -> parseJsonClaim(claim, jsonNode))
-                             .filter(JsonNode::isObject)
-                             .map(JsonNode::deepCopy);
+        final Object value = claims.get(claim);
+
+        if (value instanceof Map<?, ?> map) {
+            return convertMapClaim(claim, map);
+        }
+
+        if (value instanceof String json) {
+            return parseJsonClaim(claim, json).filter(JsonNode::isObject)
+                                              .map(ObjectNode.class::cast)
+                                              .map(ReadOnlyJsonNodes::view);
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<ObjectNode> convertMapClaim(String claim, Map<?, ?> value) {
+        try {
+            return Optional.of(ReadOnlyJsonNodes.view(toObjectNode(value)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to convert claim `{}` to JSON object", claim);
+            return Optional.empty();
+        }
+    }
+
+    /*
+     * Claims decoded from JSON only hold maps, lists, strings, numbers, booleans and nulls. Building the nodes directly
+     * is several times cheaper than ObjectMapper.valueToTree, which serialises the values to a buffer first.
+     */
+    private static ObjectNode toObjectNode(Map<?, ?> map) {
+        final ObjectNode node = NODES.objectNode();
+        map.forEach((key, value) -> node.set(String.valueOf(key), toNode(value)));
+        return node;
+    }
+
+    private static JsonNode toNode(Object value) {
+        if (value == null) {
+            return NODES.nullNode();
+        } else if (value instanceof String string) {
+            return NODES.textNode(string);
+        } else if (value instanceof Map<?, ?> map) {
+            return toObjectNode(map);
+        } else if (value instanceof Collection<?> collection) {
+            final ArrayNode array = NODES.arrayNode(collection.size());
+            collection.forEach(item -> array.add(toNode(item)));
+            return array;
+        } else if (value instanceof Boolean bool) {
+            return NODES.booleanNode(bool);
+        } else if (value instanceof Integer number) {
+            return NODES.numberNode(number);
+        } else if (value instanceof Long number) {
+            return NODES.numberNode(number);
+        } else if (value instanceof Double number) {
+            return NODES.numberNode(number);
+        }
+        return MAPPER.valueToTree(value);
     }
 
     private Optional<JsonNode> parseJsonClaim(String claim, String value) {
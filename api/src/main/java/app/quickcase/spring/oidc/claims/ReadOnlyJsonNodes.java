@@ -0,0 +1,185 @@
+package app.quickcase.spring.oidc.claims;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Read-only views over JSON trees, so that claims can be handed out without copying them.
+ *
+ * <p>
+ * Views are backed by the original tree: no node is copied, nested objects and arrays are wrapped as they are
+ * accessed. Any attempt to mutate a view throws an {@link UnsupportedOperationException}. A mutable copy can still be
+ * obtained with {@link JsonNode#deepCopy()}.
+ */
+public final class ReadOnlyJsonNodes {
+    private ReadOnlyJsonNodes() {
+    }
+
+    public static ObjectNode view(ObjectNode node) {
+        if (node instanceof ReadOnlyObjectNode) {
+            return node;
+        }
+        return new ReadOnlyObjectNode(node);
+    }
+
+    public static ArrayNode view(ArrayNode node) {
+        if (node instanceof ReadOnlyArrayNode) {
+            return node;
+        }
+        return new ReadOnlyArrayNode(node);
+    }
+
+    /**
+     * @return Read-only view of objects and arrays, other nodes as is since they are immutable
+     */
+    public static JsonNode view(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            return view(object);
+        }
+        if (node instanceof ArrayNode array) {
+            return view(array);
+        }
+        return node;
+    }
+
+    // deepCopy() is generic in JsonNode, narrowed in ObjectNode and its subclasses
+    @SuppressWarnings("unchecked")
+    private static final class ReadOnlyObjectNode extends ObjectNode {
+        private final ObjectNode source;
+
+        private ReadOnlyObjectNode(ObjectNode source) {
+            super(JsonNodeFactory.instance, new FieldsView(source));
+            this.source = source;
+        }
+
+        /**
+         * @return Mutable copy of the source, copied directly rather than through views
+         */
+        @Override
+        public ObjectNode deepCopy() {
+            return source.deepCopy();
+        }
+    }
+
+    // deepCopy() is generic in JsonNode, narrowed in ArrayNode and its subclasses
+    @SuppressWarnings("unchecked")
+    private static final class ReadOnlyArrayNode extends ArrayNode {
+        private final ArrayNode source;
+
+        private ReadOnlyArrayNode(ArrayNode source) {
+            super(JsonNodeFactory.instance, new ElementsView(source));
+            this.source = source;
+        }
+
+        /**
+         * @return Mutable copy of the source, copied directly rather than through views
+         */
+        @Override
+        public ArrayNode deepCopy() {
+            return source.deepCopy();
+        }
+    }
+
+    private static final class FieldsView extends AbstractMap<String, JsonNode> {
+        private final ObjectNode source;
+
+        private FieldsView(ObjectNode source) {
+            this.source = source;
+        }
+
+        @Override
+        public JsonNode get(Object key) {
+            return key instanceof String name ? view(source.get(name)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && source.has(name);
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<String> iterator() {
+                    final Iterator<String> names = source.fieldNames();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public String next() {
+                            return names.next();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return source.size();
+                }
+            };
+        }
+
+        @Override
+        public Set<Map.Entry<String, JsonNode>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, JsonNode>> iterator() {
+                    final Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return fields.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, JsonNode> next() {
+                            final Map.Entry<String, JsonNode> field = fields.next();
+                            return new SimpleImmutableEntry<>(field.getKey(), view(field.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return source.size();
+                }
+            };
+        }
+    }
+
+    private static final class ElementsView extends AbstractList<JsonNode> {
+        private final ArrayNode source;
+
+        private ElementsView(ArrayNode source) {
+            this.source = source;
+        }
+
+        @Override
+        public JsonNode get(int index) {
+            return view(source.get(index));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package app.quickcase.spring.oidc.claims;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import app.quickcase.spring.oidc.OidcException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read claims from a JSON object streamed from an input, such as the body of a /userinfo response.
+ *
+ * <p>
+ * Only the claims named are decoded, all other claims are skipped without being materialised. Reading fails when the
+ * input exceeds the maximum size, so that an oversized response cannot exhaust memory.
+ */
+@Slf4j
+public class StreamingClaimsReader {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Set<String> claimNames;
+    private final long maxSize;
+
+    public StreamingClaimsReader(Set<String> claimNames, long maxSize) {
+        this.claimNames = Set.copyOf(claimNames);
+        this.maxSize = maxSize;
+    }
+
+    public Map<String, JsonNode> read(InputStream input) throws IOException {
+        try (JsonParser parser = MAPPER.createParser(new BoundedInputStream(input, maxSize))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new OidcException("Expected claims to be a JSON object");
+            }
+
+            final Map<String, JsonNode> claims = new HashMap<>();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String claim = parser.currentName();
+                parser.nextToken();
+
+                if (claimNames.contains(claim)) {
+                    claims.put(claim, parser.readValueAsTree());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            log.debug("Read {} claims", claims.size());
+            return claims;
+        } catch (SizeExceededException e) {
+            throw new OidcException("Claims exceed maximum size of " + maxSize + " bytes");
+        }
+    }
+
+    private static class SizeExceededException extends IOException {
+    }
+
+    private static class BoundedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private long count;
+
+        BoundedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read != -1) {
+                count(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long read) throws SizeExceededException {
+            count += read;
+            if (count > maxSize) {
+                throw new SizeExceededException();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package app.quickcase.spring.oidc.jwk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.ResourceRetriever;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+
+/**
+ * JWK source serving keys from an in-memory JWK set, seeded from a persisted snapshot so that tokens can be verified
+ * from startup, even while the OIDC provider is unreachable.
+ *
+ * <p>
+ * The JWK set is refreshed from the provider:
+ * <ul>
+ *     <li>on a schedule, by calling {@link #refresh()}</li>
+ *     <li>when a token is signed with an unknown key, at most once per {@code unknownKeyRefreshInterval}; concurrent
+ *     lookups of unknown keys wait for and share a single call to the provider</li>
+ * </ul>
+ * When the snapshot is a {@link WritableResource}, eg: a <code>file:</code> location, refreshed JWK sets are written
+ * back to a temporary file first and atomically moved in place. Classpath snapshots are only read.
+ */
+@Slf4j
+public class SnapshotJwkSource implements JWKSource<SecurityContext> {
+    private final URL jwkSetUrl;
+    private final ResourceRetriever retriever;
+    private final Resource snapshot;
+    private final Duration unknownKeyRefreshInterval;
+    private final Clock clock;
+    private final Object refreshLock = new Object();
+
+    private volatile JWKSet jwkSet;
+    private Instant lastRefresh = Instant.MIN;
+
+    /**
+     * @param snapshot Optional, persisted JWK set loaded at construction and updated on refresh when writable
+     */
+    public SnapshotJwkSource(URL jwkSetUrl,
+                             ResourceRetriever retriever,
+                             Resource snapshot,
+                             Duration unknownKeyRefreshInterval) {
+        this(jwkSetUrl, retriever, snapshot, unknownKeyRefreshInterval, Clock.systemUTC());
+    }
+
+    public SnapshotJwkSource(URL jwkSetUrl,
+                             ResourceRetriever retriever,
+                             Resource snapshot,
+                             Duration unknownKeyRefreshInterval,
+                             Clock clock) {
+        this.jwkSetUrl = jwkSetUrl;
+        this.retriever = retriever;
+        this.snapshot = snapshot;
+        this.unknownKeyRefreshInterval = unknownKeyRefreshInterval;
+        this.clock = clock;
+        this.jwkSet = loadSnapshot();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        final JWKSet observed = jwkSet;
+
+        if (observed != null) {
+            final List<JWK> keys = jwkSelector.select(observed);
+            if (!keys.isEmpty()) {
+                return keys;
+            }
+        }
+
+        final JWKSet refreshed = refreshUnknownKey(observed);
+        if (refreshed == null) {
+            throw new KeySourceException("JWK set not available from snapshot nor " + jwkSetUrl);
+        }
+
+        return jwkSelector.select(refreshed);
+    }
+
+    /**
+     * Retrieve the JWK set from the OIDC provider, regardless of when it was last refreshed.
+     * Failures are logged and the current JWK set retained.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            try {
+                fetch();
+            } catch (IOException | ParseException e) {
+                log.warn("Failed to refresh JWK set from {}, keeping current keys", jwkSetUrl, e);
+            }
+        }
+    }
+
+    /**
+     * @return The JWK set currently in use, null when neither loaded from snapshot nor retrieved yet
+     */
+    public JWKSet getJwkSet() {
+        return jwkSet;
+    }
+
+    private JWKSet refreshUnknownKey(JWKSet observed) throws KeySourceException {
+        synchronized (refreshLock) {
+            if (jwkSet != observed) {
+                // Refreshed while waiting for the lock
+                return jwkSet;
+            }
+
+            if (clock.instant().isBefore(lastRefresh.plus(unknownKeyRefreshInterval))) {
+                return jwkSet;
+            }
+
+            try {
+                return fetch();
+            } catch (IOException | ParseException e) {
+                if (jwkSet == null) {
+                    throw new KeySourceException("Failed to retrieve JWK set from " + jwkSetUrl, e);
+                }
+                log.warn("Failed to refresh JWK set from {} for unknown key", jwkSetUrl, e);
+                return jwkSet;
+            }
+        }
+    }
+
+    private JWKSet fetch() throws IOException, ParseException {
+        lastRefresh = clock.instant();
+
+        final String content = retriever.retrieveResource(jwkSetUrl).getContent();
+        final JWKSet fetched = JWKSet.parse(content);
+        final JWKSet current = jwkSet;
+
+        if (current == null || !current.toJSONObject().equals(fetched.toJSONObject())) {
+            jwkSet = fetched;
+            writeSnapshot(fetched);
+        }
+
+        return jwkSet;
+    }
+
+    private JWKSet loadSnapshot() {
+        if (snapshot == null || !snapshot.exists()) {
+            return null;
+        }
+
+        try (InputStream in = snapshot.getInputStream()) {
+            final JWKSet loaded = JWKSet.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            log.info("Loaded {} keys from JWK set snapshot {}", loaded.size(), snapshot);
+            return loaded;
+        } catch (IOException | ParseException e) {
+            log.warn("Failed to load JWK set snapshot {}, ignoring snapshot", snapshot, e);
+            return null;
+        }
+    }
+
+    private void writeSnapshot(JWKSet fetched) {
+        if (!(snapshot instanceof WritableResource)) {
+            return;
+        }
+
+        try {
+            final Path target = snapshot.getFile().toPath().toAbsolutePath();
+            Files.createDirectories(target.getParent());
+            final Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(tmp, fetched.toString(true));
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write JWK set snapshot {}", snapshot, e);
+        }
+    }
+}
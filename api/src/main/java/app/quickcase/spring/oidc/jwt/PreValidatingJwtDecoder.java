@@ -0,0 +1,173 @@
+package app.quickcase.spring.oidc.jwt;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import app.quickcase.spring.oidc.jwt.TokenRejectedException.Reason;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Decoder rejecting access tokens which cannot possibly be valid before delegating to a decoder verifying their
+ * signature, so that expired, not yet valid and malformed tokens do not cost any cryptographic operation.
+ *
+ * <p>
+ * Only the header's <code>alg</code> and the payload's <code>exp</code>, <code>nbf</code> and <code>iss</code> are
+ * read, by streaming through the decoded JSON. Tokens passing these checks are fully validated by the delegate.
+ * Rejections throw a {@link TokenRejectedException} and are counted per {@link Reason}.
+ */
+public class PreValidatingJwtDecoder implements JwtDecoder {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Base64.Decoder BASE64 = Base64.getUrlDecoder();
+
+    private final JwtDecoder delegate;
+    private final Set<String> algorithms;
+    private final String issuer;
+    private final Duration clockSkew;
+    private final Clock clock;
+    private final Map<Reason, LongAdder> rejections;
+
+    /**
+     * @param algorithms JWS algorithms accepted by the delegate
+     * @param issuer     Optional, expected issuer. Issuer not checked when null
+     * @param clockSkew  Tolerance applied to <code>exp</code> and <code>nbf</code>
+     */
+    public PreValidatingJwtDecoder(JwtDecoder delegate, Set<String> algorithms, String issuer, Duration clockSkew) {
+        this(delegate, algorithms, issuer, clockSkew, Clock.systemUTC());
+    }
+
+    public PreValidatingJwtDecoder(JwtDecoder delegate,
+                                   Set<String> algorithms,
+                                   String issuer,
+                                   Duration clockSkew,
+                                   Clock clock) {
+        this.delegate = delegate;
+        this.algorithms = Set.copyOf(algorithms);
+        this.issuer = issuer;
+        this.clockSkew = clockSkew;
+        this.clock = clock;
+
+        final Map<Reason, LongAdder> counters = new EnumMap<>(Reason.class);
+        for (Reason reason : Reason.values()) {
+            counters.put(reason, new LongAdder());
+        }
+        this.rejections = Collections.unmodifiableMap(counters);
+    }
+
+    @Override
+    public Jwt decode(String token) {
+        preValidate(token);
+        return delegate.decode(token);
+    }
+
+    /**
+     * @return Number of tokens rejected for the given reason since creation
+     */
+    public long getRejectionCount(Reason reason) {
+        return rejections.get(reason).sum();
+    }
+
+    private void preValidate(String token) {
+        if (token == null) {
+            throw reject(Reason.MALFORMED, "Missing token");
+        }
+
+        final int headerEnd = token.indexOf('.');
+        final int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw reject(Reason.MALFORMED, "Token is not a signed JWT");
+        }
+
+        validateHeader(decodeSegment(token.substring(0, headerEnd)));
+        validatePayload(decodeSegment(token.substring(headerEnd + 1, payloadEnd)));
+    }
+
+    private void validateHeader(byte[] header) {
+        String algorithm = null;
+        try (JsonParser parser = objectParser(header)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                if ("alg".equals(name) && value == JsonToken.VALUE_STRING) {
+                    algorithm = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw reject(Reason.MALFORMED, "Token header is not valid JSON");
+        }
+
+        if (algorithm == null || !algorithms.contains(algorithm)) {
+            throw reject(Reason.UNSUPPORTED_ALGORITHM, "Unsupported algorithm: " + algorithm);
+        }
+    }
+
+    private void validatePayload(byte[] payload) {
+        Long expiresAt = null;
+        Long notBefore = null;
+        String tokenIssuer = null;
+        try (JsonParser parser = objectParser(payload)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                if ("exp".equals(name) && value.isNumeric()) {
+                    expiresAt = parser.getLongValue();
+                } else if ("nbf".equals(name) && value.isNumeric()) {
+                    notBefore = parser.getLongValue();
+                } else if ("iss".equals(name) && value == JsonToken.VALUE_STRING) {
+                    tokenIssuer = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw reject(Reason.MALFORMED, "Token payload is not valid JSON");
+        }
+
+        // Compared in epoch seconds, the precision of the claims
+        final Instant now = clock.instant();
+        if (expiresAt != null && now.minus(clockSkew).getEpochSecond() > expiresAt) {
+            throw reject(Reason.EXPIRED, "Token expired");
+        }
+        if (notBefore != null && now.plus(clockSkew).getEpochSecond() < notBefore) {
+            throw reject(Reason.NOT_YET_VALID, "Token not yet valid");
+        }
+        if (issuer != null && !issuer.equals(tokenIssuer)) {
+            throw reject(Reason.INVALID_ISSUER, "Unexpected issuer: " + tokenIssuer);
+        }
+    }
+
+    private byte[] decodeSegment(String segment) {
+        try {
+            return BASE64.decode(segment);
+        } catch (IllegalArgumentException e) {
+            throw reject(Reason.MALFORMED, "Token is not base64url encoded");
+        }
+    }
+
+    private static JsonParser objectParser(byte[] json) throws IOException {
+        final JsonParser parser = JSON.createParser(json);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new IOException("Expected JSON object");
+        }
+        return parser;
+    }
+
+    private TokenRejectedException reject(Reason reason, String message) {
+        rejections.get(reason).increment();
+        return new TokenRejectedException(reason, message);
+    }
+}
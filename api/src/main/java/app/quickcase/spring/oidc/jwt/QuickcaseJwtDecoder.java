@@ -0,0 +1,353 @@
+package app.quickcase.spring.oidc.jwt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithms;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+import org.springframework.util.Assert;
+
+/**
+ * Decoder of access tokens signed with RS256 or ES256 only, trading the generality of
+ * {@link org.springframework.security.oauth2.jwt.NimbusJwtDecoder} for fewer allocations on the hot path.
+ *
+ * <p>
+ * Verification keys are resolved from the JWK source once per <code>kid</code> and algorithm, and re-resolved every 5
+ * minutes so that revoked keys stop being accepted. Each <code>kid</code> and algorithm holds one {@link Signature} per
+ * thread, initialised again only when its key is rotated. Header, payload and signature are decoded straight from the
+ * bytes of the token, and the signature verified over these same bytes.
+ *
+ * <p>
+ * Decoded tokens carry the same headers and claims as with {@code NimbusJwtDecoder}, converted with
+ * {@link MappedJwtClaimSetConverter} and validated with {@link JwtValidators#createDefault()} unless overridden.
+ * Tokens must identify their key with a <code>kid</code> header, unless a single key of the JWK set matches their
+ * algorithm. Tokens with a <code>crit</code> header, or a <code>typ</code> header other than <code>JWT</code>, are
+ * rejected.
+ */
+public class QuickcaseJwtDecoder implements JwtDecoder {
+    public static final Set<String> ALGORITHMS = Set.of(JwsAlgorithms.RS256, JwsAlgorithms.ES256);
+
+    private static final String DECODING_ERROR_MESSAGE_TEMPLATE =
+            "An error occurred while attempting to decode the Jwt: %s";
+    private static final String JWT_TYPE = "JWT";
+    private static final Duration KEY_REFRESH_INTERVAL = Duration.ofMinutes(5);
+    private static final Base64.Decoder BASE64 = Base64.getUrlDecoder();
+    // Integers as Long, as parsed by Nimbus
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_LONG_FOR_INTS)
+            .readerFor(new TypeReference<Map<String, Object>>() {
+            });
+
+    private final JWKSource<SecurityContext> jwkSource;
+    private final Clock clock;
+    private final Map<String, KeyVerifier> verifiers = new ConcurrentHashMap<>();
+
+    private Converter<Map<String, Object>, Map<String, Object>> claimSetConverter = MappedJwtClaimSetConverter
+            .withDefaults(Collections.emptyMap());
+    private OAuth2TokenValidator<Jwt> jwtValidator = JwtValidators.createDefault();
+
+    public QuickcaseJwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        this(jwkSource, Clock.systemUTC());
+    }
+
+    public QuickcaseJwtDecoder(JWKSource<SecurityContext> jwkSource, Clock clock) {
+        this.jwkSource = jwkSource;
+        this.clock = clock;
+    }
+
+    public void setClaimSetConverter(Converter<Map<String, Object>, Map<String, Object>> claimSetConverter) {
+        Assert.notNull(claimSetConverter, "claimSetConverter cannot be null");
+        this.claimSetConverter = claimSetConverter;
+    }
+
+    public void setJwtValidator(OAuth2TokenValidator<Jwt> jwtValidator) {
+        Assert.notNull(jwtValidator, "jwtValidator cannot be null");
+        this.jwtValidator = jwtValidator;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            throw malformed("Missing token");
+        }
+
+        final byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+        final int headerEnd = indexOfDot(bytes, 0);
+        final int payloadEnd = headerEnd < 0 ? -1 : indexOfDot(bytes, headerEnd + 1);
+        if (payloadEnd < 0 || indexOfDot(bytes, payloadEnd + 1) >= 0) {
+            throw malformed("Token is not a signed JWT");
+        }
+
+        final Map<String, Object> headers = readJson(bytes, 0, headerEnd);
+        final Object algorithm = headers.get("alg");
+        if (!(algorithm instanceof String) || !ALGORITHMS.contains(algorithm)) {
+            throw malformed("Unsupported algorithm: " + algorithm);
+        }
+        if (headers.containsKey("crit")) {
+            throw malformed("Critical header parameters not supported");
+        }
+        // As Nimbus's default type verifier
+        final Object type = headers.get("typ");
+        if (type != null && !(type instanceof String && JWT_TYPE.equalsIgnoreCase((String) type))) {
+            throw malformed("Unsupported type: " + type);
+        }
+        final Object keyId = headers.get("kid");
+
+        final KeyVerifier verifier = verifier(keyId instanceof String ? (String) keyId : null, (String) algorithm);
+        final ByteBuffer signature = base64Decode(bytes, payloadEnd + 1, bytes.length);
+        if (!verifier.verify(bytes, payloadEnd, signature)) {
+            throw malformed("Invalid signature");
+        }
+
+        final Map<String, Object> claims = readJson(bytes, headerEnd + 1, payloadEnd);
+
+        return validate(createJwt(token, headers, claims));
+    }
+
+    private Jwt createJwt(String token, Map<String, Object> headers, Map<String, Object> claims) {
+        try {
+            final Map<String, Object> convertedClaims = claimSetConverter.convert(claims);
+            return Jwt.withTokenValue(token)
+                      .headers(h -> h.putAll(headers))
+                      .claims(c -> c.putAll(convertedClaims))
+                      .build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new BadJwtException(String.format(DECODING_ERROR_MESSAGE_TEMPLATE, e.getMessage()), e);
+        }
+    }
+
+    private Jwt validate(Jwt jwt) {
+        final OAuth2TokenValidatorResult result = jwtValidator.validate(jwt);
+        if (result.hasErrors()) {
+            final Collection<OAuth2Error> errors = result.getErrors();
+            final String description = errors.stream()
+                                             .map(OAuth2Error::getDescription)
+                                             .filter(d -> d != null && !d.isEmpty())
+                                             .findFirst()
+                                             .orElse("Unable to validate Jwt");
+            throw new JwtValidationException(String.format(DECODING_ERROR_MESSAGE_TEMPLATE, description), errors);
+        }
+        return jwt;
+    }
+
+    private KeyVerifier verifier(String keyId, String algorithm) {
+        final String cacheKey = keyId == null ? algorithm : algorithm + ":" + keyId;
+        final Instant now = clock.instant();
+        final KeyVerifier cached = verifiers.get(cacheKey);
+
+        if (cached != null && now.isBefore(cached.resolvedAt.plus(KEY_REFRESH_INTERVAL))) {
+            return cached;
+        }
+
+        final JWK jwk;
+        try {
+            jwk = selectKey(keyId, algorithm);
+        } catch (BadJwtException e) {
+            verifiers.remove(cacheKey);
+            throw e;
+        }
+
+        final KeyVerifier verifier;
+        if (cached == null) {
+            verifier = KeyVerifier.create(jwk, algorithm, now);
+        } else if (cached.jwk.equals(jwk)) {
+            verifier = cached.resolved(now);
+        } else {
+            verifier = cached.rotated(jwk, now);
+        }
+        verifiers.put(cacheKey, verifier);
+        return verifier;
+    }
+
+    private JWK selectKey(String keyId, String algorithm) {
+        final boolean rsa = JwsAlgorithms.RS256.equals(algorithm);
+        final JWKMatcher.Builder matcher = new JWKMatcher.Builder()
+                .keyType(rsa ? KeyType.RSA : KeyType.EC)
+                .keyUses(KeyUse.SIGNATURE, null)
+                .algorithms(JWSAlgorithm.parse(algorithm), null);
+        if (!rsa) {
+            matcher.curve(Curve.P_256);
+        }
+        if (keyId != null) {
+            matcher.keyID(keyId);
+        }
+
+        final List<JWK> keys;
+        try {
+            keys = jwkSource.get(new JWKSelector(matcher.build()), null);
+        } catch (KeySourceException e) {
+            throw new JwtException(String.format(DECODING_ERROR_MESSAGE_TEMPLATE, e.getMessage()), e);
+        }
+
+        if (keys.isEmpty()) {
+            throw malformed("No matching key found");
+        }
+        if (keys.size() > 1 && keyId == null) {
+            throw malformed("Token must identify its key with a kid");
+        }
+        return keys.get(0);
+    }
+
+    private static Map<String, Object> readJson(byte[] bytes, int from, int to) {
+        final ByteBuffer json = base64Decode(bytes, from, to);
+        try {
+            return JSON_READER.readValue(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        } catch (IOException e) {
+            throw malformed("Token is not valid JSON");
+        }
+    }
+
+    private static ByteBuffer base64Decode(byte[] bytes, int from, int to) {
+        try {
+            return BASE64.decode(ByteBuffer.wrap(bytes, from, to - from));
+        } catch (IllegalArgumentException e) {
+            throw malformed("Token is not base64url encoded");
+        }
+    }
+
+    private static int indexOfDot(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static BadJwtException malformed(String message) {
+        return new BadJwtException(String.format(DECODING_ERROR_MESSAGE_TEMPLATE, message));
+    }
+
+    private static final class KeyVerifier {
+        private final JWK jwk;
+        private final PublicKey publicKey;
+        private final Instant resolvedAt;
+        private final ThreadLocal<ThreadSignature> signatures;
+
+        private KeyVerifier(JWK jwk, Instant resolvedAt, ThreadLocal<ThreadSignature> signatures) {
+            this.jwk = jwk;
+            this.publicKey = publicKey(jwk);
+            this.resolvedAt = resolvedAt;
+            this.signatures = signatures;
+        }
+
+        private KeyVerifier(KeyVerifier source, Instant resolvedAt) {
+            this.jwk = source.jwk;
+            this.publicKey = source.publicKey;
+            this.resolvedAt = resolvedAt;
+            this.signatures = source.signatures;
+        }
+
+        static KeyVerifier create(JWK jwk, String algorithm, Instant resolvedAt) {
+            // ES256 signatures are the concatenation of R and S, rather than DER encoded
+            final String jcaAlgorithm = JwsAlgorithms.RS256.equals(algorithm)
+                    ? "SHA256withRSA"
+                    : "SHA256withECDSAinP1363Format";
+
+            return new KeyVerifier(jwk, resolvedAt, ThreadLocal.withInitial(() -> {
+                try {
+                    return new ThreadSignature(Signature.getInstance(jcaAlgorithm));
+                } catch (GeneralSecurityException e) {
+                    throw new JwtException("Failed to initialise " + jcaAlgorithm + " verification", e);
+                }
+            }));
+        }
+
+        KeyVerifier resolved(Instant now) {
+            return new KeyVerifier(this, now);
+        }
+
+        /**
+         * Signatures of the same <code>kid</code> and algorithm are kept, rather than left to the garbage collector
+         * with a new thread local, and initialised with the new key on next use.
+         */
+        KeyVerifier rotated(JWK rotatedJwk, Instant now) {
+            return new KeyVerifier(rotatedJwk, now, signatures);
+        }
+
+        boolean verify(byte[] signingInput, int length, ByteBuffer signature) {
+            // Signature is reset to its initialised state after each verification
+            final ThreadSignature current = signatures.get();
+            try {
+                final Signature verifier = current.initialisedFor(publicKey);
+                verifier.update(signingInput, 0, length);
+                return verifier.verify(signature.array(), signature.arrayOffset() + signature.position(),
+                                       signature.remaining());
+            } catch (InvalidKeyException e) {
+                throw malformed("Invalid key " + jwk.getKeyID());
+            } catch (SignatureException e) {
+                // State undefined after failure
+                signatures.remove();
+                return false;
+            }
+        }
+
+        private static PublicKey publicKey(JWK jwk) {
+            try {
+                return jwk instanceof RSAKey ? ((RSAKey) jwk).toPublicKey() : ((ECKey) jwk).toPublicKey();
+            } catch (JOSEException e) {
+                throw malformed("Invalid key " + jwk.getKeyID());
+            }
+        }
+    }
+
+    private static final class ThreadSignature {
+        private final Signature signature;
+        private PublicKey publicKey;
+
+        private ThreadSignature(Signature signature) {
+            this.signature = signature;
+        }
+
+        Signature initialisedFor(PublicKey key) throws InvalidKeyException {
+            if (publicKey != key) {
+                signature.initVerify(key);
+                publicKey = key;
+            }
+            return signature;
+        }
+    }
+}
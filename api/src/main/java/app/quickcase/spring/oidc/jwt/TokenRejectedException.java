@@ -0,0 +1,36 @@
+package app.quickcase.spring.oidc.jwt;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+
+/**
+ * Access token rejected before its signature was verified.
+ * As a {@link BadJwtException}, rejections are reported to clients as <code>invalid_token</code> bearer errors, like
+ * any other invalid token.
+ * Instances are stackless as they are expected in large numbers from misbehaving clients, and their reason is enough
+ * to diagnose them.
+ */
+public class TokenRejectedException extends BadJwtException {
+    public enum Reason {
+        MALFORMED,
+        UNSUPPORTED_ALGORITHM,
+        EXPIRED,
+        NOT_YET_VALID,
+        INVALID_ISSUER
+    }
+
+    private final Reason reason;
+
+    public TokenRejectedException(Reason reason, String msg) {
+        super(msg);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -5,10 +5,13 @@ import app.quickcase.spring.oidc.SecurityClassification;
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Parse JSON objects like:
@@ -30,6 +33,12 @@ public class JsonOrganisationProfilesParser implements OrganisationProfilesParse
     private static final String NODE_ACCESS = "access";
     private static final String NODE_CLASSIFICATION = "classification";
     private static final String NODE_GROUP = "group";
+    private static final AccessLevel[] ACCESS_LEVELS = AccessLevel.values();
+    private static final SecurityClassification[] CLASSIFICATIONS = SecurityClassification.values();
+    private static final Duration WARNING_INTERVAL = Duration.ofMinutes(1);
+
+    private static final AtomicLong NEXT_WARNING = new AtomicLong(System.nanoTime());
+    private static final LongAdder SUPPRESSED_WARNINGS = new LongAdder();
 
     @Override
     public Map<String, OrganisationProfile> parse(JsonNode tree) {
@@ -40,88 +49,89 @@ public class JsonOrganisationProfilesParser implements OrganisationProfilesParse
 
         final Map<String, OrganisationProfile> profiles = new HashMap<>();
         tree.fieldNames()
-            .forEachRemaining(orgId -> toOrganisationProfile(orgId, tree.get(orgId))
+            .forEachRemaining(orgId -> parseProfile(orgId, tree.get(orgId))
                     .ifPresent(profile -> profiles.put(orgId, profile)));
 
         log.debug("Parsed {} organisation profiles", profiles.size());
         return profiles;
     }
 
-    private Optional<OrganisationProfile> toOrganisationProfile(String orgId, JsonNode node) {
+    /**
+     * @param node Profile of a single organisation, ie: a value of the object parsed by {@link #parse(JsonNode)}
+     * @return Shared profile parsed, empty when the node is not an object
+     */
+    public Optional<OrganisationProfile> parseProfile(String orgId, JsonNode node) {
         if (node == null || !node.isObject()) {
-            log.warn("Failed to parse organisation `{}`: expected object but was {}", orgId, node);
+            warnMalformed("Failed to parse organisation `{}`: expected object but was {}", orgId, node);
             return Optional.empty();
         }
 
-        final OrganisationProfile.OrganisationProfileBuilder builder = OrganisationProfile.builder();
-
-        final Optional<AccessLevel> accessLevel = extractAccessLevel(node);
-        final Boolean groupEnabled = Optional.of(AccessLevel.GROUP).equals(accessLevel);
-        accessLevel.ifPresent(builder::accessLevel);
-
-        extractSecurityClassification(node)
-                .ifPresent(builder::securityClassification);
-        extractGroup(node, groupEnabled)
-                .ifPresent(builder::group);
+        final AccessLevel accessLevel = decode(ACCESS_LEVELS, node.get(NODE_ACCESS), "access level");
+        final SecurityClassification classification = decode(CLASSIFICATIONS, node.get(NODE_CLASSIFICATION),
+                                                              "security classification");
+        final String group = extractGroup(node, AccessLevel.GROUP == accessLevel);
 
-        return Optional.of(builder.build());
+        return Optional.of(OrganisationProfile.of(classification, accessLevel, group));
     }
 
-    private Optional<AccessLevel> extractAccessLevel(JsonNode node) {
-        final JsonNode accessNode = node.get(NODE_ACCESS);
-
-        if (accessNode == null) {
-            log.debug("Access level is null, using default instead");
-            return Optional.empty();
-        }
-
-        final String rawAccessLevel = accessNode.asText().toUpperCase();
-
-        try {
-            return Optional.of(AccessLevel.valueOf(rawAccessLevel));
-        } catch (IllegalArgumentException ex) {
-            log.warn("Failed to extract malformed access level `" + rawAccessLevel + "`, using default instead", ex);
+    /**
+     * Case-insensitive lookup of the enum constant named by the node, over constants listed once.
+     *
+     * @return Constant named, null when the node is missing or the value is malformed
+     */
+    private static <E extends Enum<E>> E decode(E[] constants, JsonNode node, String description) {
+        if (node == null) {
+            log.debug("{} is null, using default instead", description);
+            return null;
         }
 
-        return Optional.empty();
-    }
-
-    private Optional<SecurityClassification> extractSecurityClassification(JsonNode node) {
-        final JsonNode accessNode = node.get(NODE_CLASSIFICATION);
-
-        if (accessNode == null) {
-            log.debug("Security classification is null, using default instead");
-            return Optional.empty();
-        }
-
-        final String rawClassification = accessNode.asText().toUpperCase();
-
-        try {
-            return Optional.of(SecurityClassification.valueOf(rawClassification));
-        } catch (IllegalArgumentException ex) {
-            log.warn("Failed to extract malformed security classification `" + rawClassification + "`, using default instead", ex);
+        final String raw = node.asText();
+        for (E constant : constants) {
+            if (constant.name().equalsIgnoreCase(raw)) {
+                return constant;
+            }
         }
 
-        return Optional.empty();
+        warnMalformed("Failed to extract malformed {} `{}`, using default instead", description, raw);
+        return null;
     }
 
-    private Optional<String> extractGroup(JsonNode node, Boolean groupEnabled) {
+    private static String extractGroup(JsonNode node, boolean groupEnabled) {
         final JsonNode groupNode = node.get(NODE_GROUP);
 
         if (groupNode == null) {
             if (groupEnabled) {
-                log.warn("Group expected but was null");
+                warnMalformed("Group expected but was null");
             }
-            return Optional.empty();
+            return null;
         }
 
         final String group = groupNode.asText().toLowerCase();
 
         if (!groupEnabled) {
-            log.warn("Group not expected but was `{}`, ignoring", group);
-            return Optional.empty();
+            warnMalformed("Group not expected but was `{}`, ignoring", group);
+            return null;
         }
 
-        return Optional.of(group);
+        return group;
+    }
+
+    /**
+     * Malformed profiles tend to be repeated on every request of the same users: warnings are logged at most once
+     * per {@link #WARNING_INTERVAL}, with the number of warnings suppressed since the last one.
+     */
+    private static void warnMalformed(String format, Object... arguments) {
+        final long now = System.nanoTime();
+        final long next = NEXT_WARNING.get();
+        if (now - next < 0 || !NEXT_WARNING.compareAndSet(next, now + WARNING_INTERVAL.toNanos())) {
+            SUPPRESSED_WARNINGS.increment();
+            return;
+        }
+
+        final long suppressed = SUPPRESSED_WARNINGS.sumThenReset();
+        if (suppressed > 0) {
+            log.warn("{} similar organisation profile warnings suppressed", suppressed);
+        }
+        log.warn(format, arguments);
     }
 }
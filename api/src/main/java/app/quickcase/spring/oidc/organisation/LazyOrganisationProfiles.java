@@ -0,0 +1,131 @@
+package app.quickcase.spring.oidc.organisation;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Read-only organisation profiles backed by the raw organisations claim, for users belonging to many organisations
+ * while requests typically look up one or two of them.
+ *
+ * <p>
+ * Organisation identifiers are indexed on first access, without decoding any profile. Each profile is then decoded
+ * from the claim when first looked up and retained. Lookups are case-insensitive and constant time, as for
+ * {@link OrganisationProfileIndex}. Entries which are not JSON objects are ignored, as by
+ * {@link JsonOrganisationProfilesParser}.
+ */
+public class LazyOrganisationProfiles extends AbstractMap<String, OrganisationProfile>
+        implements OrganisationProfiles {
+    private static final JsonOrganisationProfilesParser PARSER = new JsonOrganisationProfilesParser();
+
+    private final ObjectNode organisations;
+    private volatile Map<String, Slot> index;
+
+    /**
+     * @param organisations Organisations claim, as parsed by {@link JsonOrganisationProfilesParser}. Must not be mutated
+     *                      afterwards, see {@link app.quickcase.spring.oidc.claims.ReadOnlyJsonNodes}
+     */
+    public LazyOrganisationProfiles(ObjectNode organisations) {
+        this.organisations = organisations;
+    }
+
+    @Override
+    public OrganisationProfile get(Object organisationId) {
+        if (!(organisationId instanceof String id)) {
+            return null;
+        }
+        final Slot slot = index().get(OrganisationProfileIndex.key(id));
+        return slot != null ? slot.profile() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object organisationId) {
+        return organisationId instanceof String id && index().containsKey(OrganisationProfileIndex.key(id));
+    }
+
+    @Override
+    public int size() {
+        return index().size();
+    }
+
+    @Override
+    public Set<Entry<String, OrganisationProfile>> entrySet() {
+        final Map<String, Slot> slots = index();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, OrganisationProfile>> iterator() {
+                final Iterator<Slot> entries = slots.values().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, OrganisationProfile> next() {
+                        final Slot slot = entries.next();
+                        return new SimpleImmutableEntry<>(slot.organisationId, slot.profile());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return slots.size();
+            }
+        };
+    }
+
+    /**
+     * @return Number of profiles decoded so far
+     */
+    int decodedCount() {
+        return (int) index().values().stream().filter(slot -> slot.profile != null).count();
+    }
+
+    private Map<String, Slot> index() {
+        Map<String, Slot> slots = index;
+        if (slots == null) {
+            // Racing threads may each build an index, all equivalent
+            slots = new LinkedHashMap<>();
+            final Iterator<Entry<String, JsonNode>> fields = organisations.fields();
+            while (fields.hasNext()) {
+                final Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isObject()) {
+                    final String key = OrganisationProfileIndex.key(field.getKey());
+                    final Slot existing = slots.get(key);
+                    final String organisationId = existing != null ? existing.organisationId : field.getKey();
+                    slots.put(key, new Slot(organisationId, field.getValue()));
+                }
+            }
+            index = slots;
+        }
+        return slots;
+    }
+
+    private static final class Slot {
+        private final String organisationId;
+        private final JsonNode node;
+        private volatile OrganisationProfile profile;
+
+        private Slot(String organisationId, JsonNode node) {
+            this.organisationId = organisationId;
+            this.node = node;
+        }
+
+        private OrganisationProfile profile() {
+            OrganisationProfile decoded = profile;
+            if (decoded == null) {
+                decoded = PARSER.parseProfile(organisationId, node).orElseThrow();
+                profile = decoded;
+            }
+            return decoded;
+        }
+    }
+}
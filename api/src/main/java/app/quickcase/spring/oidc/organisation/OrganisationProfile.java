@@ -6,12 +6,42 @@ import lombok.Builder;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+/**
+ * Profile of a user for an organisation.
+ *
+ * <p>
+ * Profiles are immutable and shared: {@link #of(SecurityClassification, AccessLevel, String)} and the builder return
+ * one canonical instance per combination of classification and access level, and intern profiles with a group, up to
+ * {@link #MAX_INTERNED_GROUPS} groups per combination.
+ */
 @Value
 @Builder
 @Slf4j
 public class OrganisationProfile {
+    public static final int MAX_INTERNED_GROUPS = 10_000;
+
+    private static final SecurityClassification[] CLASSIFICATIONS = SecurityClassification.values();
+    private static final AccessLevel[] ACCESS_LEVELS = AccessLevel.values();
+    private static final OrganisationProfile[] CANONICAL = new OrganisationProfile[CLASSIFICATIONS.length * ACCESS_LEVELS.length];
+    private static final List<Map<String, OrganisationProfile>> INTERNED = Stream
+            .<Map<String, OrganisationProfile>>generate(ConcurrentHashMap::new)
+            .limit(CANONICAL.length)
+            .toList();
+
+    static {
+        for (SecurityClassification classification : CLASSIFICATIONS) {
+            for (AccessLevel accessLevel : ACCESS_LEVELS) {
+                CANONICAL[index(classification, accessLevel)] = new OrganisationProfile(classification, accessLevel, null);
+            }
+        }
+    }
+
     /**
      * Classification of a user for an organisation. Defaults to PUBLIC, the lowest classification.
      */
@@ -32,6 +62,44 @@ public class OrganisationProfile {
         return Optional.ofNullable(group);
     }
 
+    /**
+     * Same as the builder, without warning when access level <code>GROUP</code> is used without group.
+     *
+     * @param classification Optional, defaults to <code>PUBLIC</code>
+     * @param accessLevel    Optional, defaults to <code>INDIVIDUAL</code>
+     * @param group          Optional
+     * @return Shared profile
+     */
+    public static OrganisationProfile of(SecurityClassification classification, AccessLevel accessLevel, String group) {
+        final SecurityClassification actualClassification = classification != null ? classification : SecurityClassification.PUBLIC;
+        AccessLevel actualAccessLevel = accessLevel != null ? accessLevel : AccessLevel.INDIVIDUAL;
+        if (AccessLevel.GROUP.equals(actualAccessLevel) && group == null) {
+            actualAccessLevel = AccessLevel.INDIVIDUAL;
+        }
+
+        final int index = index(actualClassification, actualAccessLevel);
+        if (group == null) {
+            return CANONICAL[index];
+        }
+
+        final Map<String, OrganisationProfile> interned = INTERNED.get(index);
+        final OrganisationProfile profile = interned.get(group);
+        if (profile != null) {
+            return profile;
+        }
+
+        final OrganisationProfile created = new OrganisationProfile(actualClassification, actualAccessLevel, group);
+        if (interned.size() >= MAX_INTERNED_GROUPS) {
+            return created;
+        }
+        final OrganisationProfile registered = interned.putIfAbsent(group, created);
+        return registered != null ? registered : created;
+    }
+
+    private static int index(SecurityClassification classification, AccessLevel accessLevel) {
+        return classification.ordinal() * ACCESS_LEVELS.length + accessLevel.ordinal();
+    }
+
     public static class OrganisationProfileBuilder {
         private SecurityClassification securityClassification = SecurityClassification.PUBLIC;
         private AccessLevel accessLevel = AccessLevel.INDIVIDUAL;
@@ -55,7 +123,7 @@ public class OrganisationProfile {
                 log.warn("Usage of Access Level GROUP without group is forbidden, defaulting to INDIVIDUAL");
             }
 
-            return new OrganisationProfile(securityClassification, accessLevel, group);
+            return OrganisationProfile.of(securityClassification, accessLevel, group);
         }
     }
 }
@@ -0,0 +1,105 @@
+package app.quickcase.spring.oidc.organisation;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable organisation profiles, hashed by case-folded organisation identifier so that lookups are constant time.
+ *
+ * <p>
+ * Identifiers match when equal ignoring case, as for {@link String#CASE_INSENSITIVE_ORDER}. When several identifiers
+ * match, the first identifier is kept with the last profile. Iteration follows the order profiles were given in.
+ */
+public final class OrganisationProfileIndex extends AbstractMap<String, OrganisationProfile>
+        implements OrganisationProfiles {
+    private static final OrganisationProfileIndex EMPTY = new OrganisationProfileIndex(Collections.emptyMap());
+
+    private final Map<String, Entry<String, OrganisationProfile>> entries;
+
+    private OrganisationProfileIndex(Map<String, Entry<String, OrganisationProfile>> entries) {
+        this.entries = entries;
+    }
+
+    public static OrganisationProfileIndex of(Map<String, OrganisationProfile> profiles) {
+        if (profiles instanceof OrganisationProfileIndex index) {
+            return index;
+        }
+        if (profiles.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Map<String, Entry<String, OrganisationProfile>> entries = new LinkedHashMap<>();
+        profiles.forEach((organisationId, profile) -> {
+            final String key = key(organisationId);
+            final Entry<String, OrganisationProfile> existing = entries.get(key);
+            final String identifier = existing != null ? existing.getKey() : organisationId;
+            entries.put(key, new SimpleImmutableEntry<>(identifier, profile));
+        });
+        return new OrganisationProfileIndex(entries);
+    }
+
+    /**
+     * Fold case the same way as {@link String#compareToIgnoreCase(String)}, so that identifiers equal ignoring case
+     * have the same key. Identifiers without upper case nor non-ASCII characters are their own key.
+     */
+    static String key(String organisationId) {
+        final int length = organisationId.length();
+        for (int i = 0; i < length; i++) {
+            final char c = organisationId.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                return fold(organisationId, i);
+            }
+        }
+        return organisationId;
+    }
+
+    private static String fold(String organisationId, int from) {
+        final int length = organisationId.length();
+        final StringBuilder folded = new StringBuilder(length).append(organisationId, 0, from);
+        for (int i = from; i < length; ) {
+            final int codePoint = organisationId.codePointAt(i);
+            folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+        return folded.toString();
+    }
+
+    @Override
+    public OrganisationProfile get(Object organisationId) {
+        if (!(organisationId instanceof String id)) {
+            return null;
+        }
+        final Entry<String, OrganisationProfile> entry = entries.get(key(id));
+        return entry != null ? entry.getValue() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object organisationId) {
+        return organisationId instanceof String id && entries.containsKey(key(id));
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Set<Entry<String, OrganisationProfile>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, OrganisationProfile>> iterator() {
+                return Collections.unmodifiableCollection(entries.values()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+}
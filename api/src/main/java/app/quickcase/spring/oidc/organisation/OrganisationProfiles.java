@@ -0,0 +1,31 @@
+package app.quickcase.spring.oidc.organisation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only organisation profiles of a user, keyed by organisation identifier and looked up case-insensitively.
+ */
+public interface OrganisationProfiles extends Map<String, OrganisationProfile> {
+
+    /**
+     * Look up the profiles of many organisations at once, eg: when filtering search results. Consecutive identical
+     * identifiers are only looked up once.
+     *
+     * @return Profiles in the order of the identifiers, null for organisations without profile
+     */
+    default OrganisationProfile[] getAll(List<String> organisationIds) {
+        final OrganisationProfile[] profiles = new OrganisationProfile[organisationIds.size()];
+        String previousId = null;
+        OrganisationProfile previous = null;
+        int i = 0;
+        for (String organisationId : organisationIds) {
+            if (organisationId == null || !organisationId.equals(previousId)) {
+                previous = get(organisationId);
+                previousId = organisationId;
+            }
+            profiles[i++] = previous;
+        }
+        return profiles;
+    }
+}
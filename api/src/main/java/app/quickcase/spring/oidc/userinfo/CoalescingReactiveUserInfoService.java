@@ -0,0 +1,53 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import app.quickcase.spring.oidc.utils.TokenDigest;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link CoalescingUserInfoService}: concurrent loads of user info for the same access
+ * token share a single subscription to the delegate.
+ *
+ * <p>
+ * The first subscriber for a token triggers the load, concurrent subscribers for the same token receive the same user
+ * info, or the same error, once it completes.
+ */
+public class CoalescingReactiveUserInfoService implements ReactiveUserInfoService {
+    private final ReactiveUserInfoService delegate;
+    private final ConcurrentMap<String, Mono<UserInfo>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingReactiveUserInfoService(ReactiveUserInfoService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<UserInfo> loadUserInfo(String expectedSubject, String accessToken) {
+        return Mono.defer(() -> {
+            final String key = expectedSubject + ":" + TokenDigest.sha256(accessToken);
+            final boolean[] created = {false};
+            final Mono<UserInfo> call = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return delegate.loadUserInfo(expectedSubject, accessToken)
+                               .doFinally(signal -> inFlight.remove(k))
+                               .cache();
+            });
+
+            if (!created[0]) {
+                coalesced.increment();
+            }
+
+            return call;
+        });
+    }
+
+    /**
+     * @return Number of loads which were served by joining a call already in flight.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import app.quickcase.spring.oidc.utils.TokenDigest;
+
+/**
+ * Decorate a {@link UserInfoService} so that concurrent loads of user info for the same access token share a single
+ * call to the delegate.
+ *
+ * <p>
+ * The first caller for a token performs the load, concurrent callers for the same token wait for and receive the same
+ * user info, or the same exception.
+ */
+public class CoalescingUserInfoService implements UserInfoService {
+    private final UserInfoService delegate;
+    private final ConcurrentMap<String, CompletableFuture<UserInfo>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingUserInfoService(UserInfoService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public UserInfo loadUserInfo(String expectedSubject, String accessToken) {
+        return loadUserInfo(expectedSubject, accessToken, null);
+    }
+
+    @Override
+    public UserInfo loadUserInfo(String expectedSubject, String accessToken, Instant expiresAt) {
+        final String key = expectedSubject + ":" + TokenDigest.sha256(accessToken);
+        final CompletableFuture<UserInfo> call = new CompletableFuture<>();
+        final CompletableFuture<UserInfo> pendingCall = inFlight.putIfAbsent(key, call);
+
+        if (pendingCall != null) {
+            coalesced.increment();
+            return await(pendingCall);
+        }
+
+        try {
+            final UserInfo userInfo = delegate.loadUserInfo(expectedSubject, accessToken, expiresAt);
+            call.complete(userInfo);
+            return userInfo;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return Number of loads which were served by joining a call already in flight.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private UserInfo await(CompletableFuture<UserInfo> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
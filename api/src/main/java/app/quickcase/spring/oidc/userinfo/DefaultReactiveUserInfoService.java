@@ -0,0 +1,31 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import app.quickcase.spring.oidc.OidcException;
+import app.quickcase.spring.oidc.claims.ClaimsParser;
+import app.quickcase.spring.oidc.claims.JsonClaimsParser;
+import reactor.core.publisher.Mono;
+
+import static app.quickcase.spring.oidc.userinfo.DefaultUserInfoService.validateSubject;
+
+public class DefaultReactiveUserInfoService implements ReactiveUserInfoService {
+    private final ReactiveUserInfoGateway gateway;
+    private final UserInfoExtractor extractor;
+
+    public DefaultReactiveUserInfoService(ReactiveUserInfoGateway gateway, UserInfoExtractor extractor) {
+        this.gateway = gateway;
+        this.extractor = extractor;
+    }
+
+    @Override
+    public Mono<UserInfo> loadUserInfo(String expectedSubject, String accessToken) {
+        return gateway.getClaims(accessToken)
+                      .switchIfEmpty(Mono.error(() -> new OidcException("User info response has no claims")))
+                      .map(rawClaims -> {
+                          final ClaimsParser claims = new JsonClaimsParser(rawClaims);
+
+                          validateSubject(expectedSubject, claims);
+
+                          return extractor.extract(claims);
+                      });
+    }
+}
@@ -2,7 +2,6 @@ package app.quickcase.spring.oidc.userinfo;
 
 import java.util.Optional;
 
-import app.quickcase.spring.oidc.OidcException;
 import app.quickcase.spring.oidc.claims.ClaimsParser;
 import app.quickcase.spring.oidc.claims.JsonClaimsParser;
 
@@ -35,11 +34,11 @@ public class DefaultUserInfoService implements UserInfoService {
      * @param claims Claims received from userInfo endpoint
      * @throws AuthenticationException When subjects cannot be compared or do not match.
      */
-    private void validateSubject(String expectedSubject, ClaimsParser claims) {
+    static void validateSubject(String expectedSubject, ClaimsParser claims) {
         final Optional<String> actualSubject = claims.getString(CLAIM_SUB);
 
         if(actualSubject.isEmpty() || !expectedSubject.equals(actualSubject.get())) {
-            throw new OidcException("User info subject does match expected subject");
+            throw new SubjectMismatchException("User info subject does match expected subject");
         }
     }
 }
@@ -0,0 +1,14 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserInfoGateway}.
+ * Callers not using Reactor can bridge with {@link Mono#toFuture()}.
+ */
+public interface ReactiveUserInfoGateway {
+    Mono<Map<String, JsonNode>> getClaims(String accessToken);
+}
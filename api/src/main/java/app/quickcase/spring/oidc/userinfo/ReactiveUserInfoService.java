@@ -0,0 +1,10 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserInfoService}.
+ */
+public interface ReactiveUserInfoService {
+    Mono<UserInfo> loadUserInfo(String expectedSubject, String accessToken);
+}
@@ -0,0 +1,38 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import app.quickcase.spring.oidc.claims.StreamingClaimsReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Variant of {@link DefaultUserInfoGateway} decoding the /userinfo response as it is streamed, retaining only the
+ * claims read by {@link StreamingClaimsReader}.
+ */
+public class StreamingUserInfoGateway implements UserInfoGateway {
+    private final URI userInfoUri;
+    private final RestTemplate restTemplate;
+    private final StreamingClaimsReader claimsReader;
+
+    public StreamingUserInfoGateway(URI userInfoUri, RestTemplate restTemplate, StreamingClaimsReader claimsReader) {
+        this.userInfoUri = userInfoUri;
+        this.restTemplate = restTemplate;
+        this.claimsReader = claimsReader;
+    }
+
+    @Override
+    public Map<String, JsonNode> getClaims(String accessToken) {
+        return restTemplate.execute(userInfoUri,
+                                    HttpMethod.GET,
+                                    request -> {
+                                        request.getHeaders().setBearerAuth(accessToken);
+                                        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                                    },
+                                    response -> claimsReader.read(response.getBody()));
+    }
+}
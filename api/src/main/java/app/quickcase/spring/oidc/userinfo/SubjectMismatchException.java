@@ -0,0 +1,12 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import app.quickcase.spring.oidc.OidcException;
+
+/**
+ * User info retrieved for an access token does not belong to the subject of that token.
+ */
+public class SubjectMismatchException extends OidcException {
+    public SubjectMismatchException(String msg) {
+        super(msg);
+    }
+}
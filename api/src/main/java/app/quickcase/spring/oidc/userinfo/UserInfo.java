@@ -3,13 +3,17 @@ package app.quickcase.spring.oidc.userinfo;
 import java.security.Principal;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeMap;
 
 import app.quickcase.spring.oidc.UserAuthenticationToken;
+import app.quickcase.spring.oidc.authentication.AuthorityRegistry;
+import app.quickcase.spring.oidc.organisation.LazyOrganisationProfiles;
 import app.quickcase.spring.oidc.organisation.OrganisationProfile;
+import app.quickcase.spring.oidc.organisation.OrganisationProfileIndex;
+import app.quickcase.spring.oidc.organisation.OrganisationProfiles;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
@@ -17,7 +21,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.Value;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 /**
@@ -57,7 +60,7 @@ public class UserInfo implements Principal, UserDetails {
      */
     @Deprecated
     @NonNull
-    private final Map<String, OrganisationProfile> organisationProfiles;
+    private final OrganisationProfiles organisationProfiles;
 
     public static UserInfoBuilder builder(String subject) {
         return new UserInfoBuilder(subject);
@@ -101,6 +104,23 @@ public class UserInfo implements Principal, UserDetails {
         return Optional.ofNullable(email);
     }
 
+    /**
+     * @deprecated Organisation profiles are being phased out in favour of fully role-driven authorisation.
+     */
+    @Deprecated
+    public Map<String, OrganisationProfile> getOrganisationProfiles() {
+        return organisationProfiles;
+    }
+
+    /**
+     * @return Same organisation profiles as {@link #getOrganisationProfiles()}, typed for bulk lookups
+     * @deprecated Organisation profiles are being phased out in favour of fully role-driven authorisation.
+     */
+    @Deprecated
+    public OrganisationProfiles getOrganisationProfileIndex() {
+        return organisationProfiles;
+    }
+
     @RequiredArgsConstructor
     public static class UserInfoBuilder {
         private final String subject;
@@ -110,7 +130,7 @@ public class UserInfo implements Principal, UserDetails {
         private Set<String> roles = new HashSet<>();
         private Set<String> groups = new HashSet<>();
         private UserPreferences preferences;
-        private final Map<String, OrganisationProfile> organisationProfiles = new TreeMap<>(String::compareToIgnoreCase);
+        private Map<String, OrganisationProfile> organisationProfiles = new LinkedHashMap<>();
 
         public UserInfoBuilder name(String name) {
             this.name = name;
@@ -129,7 +149,7 @@ public class UserInfo implements Principal, UserDetails {
 
         public UserInfoBuilder authorities(String... authorities) {
             Arrays.stream(authorities)
-                  .map(SimpleGrantedAuthority::new)
+                  .map(AuthorityRegistry.shared()::authority)
                   .forEach(this.authorities::add);
             return this;
         }
@@ -160,17 +180,36 @@ public class UserInfo implements Principal, UserDetails {
         }
 
         public UserInfoBuilder organisationProfile(String identifier, OrganisationProfile profile) {
-            this.organisationProfiles.put(identifier, profile);
+            mutableOrganisationProfiles().put(identifier, profile);
             return this;
         }
 
+        /**
+         * {@link LazyOrganisationProfiles} are kept as is, unless combined with other profiles.
+         */
         public UserInfoBuilder organisationProfiles(Map<String, OrganisationProfile> profiles) {
-            this.organisationProfiles.putAll(profiles);
+            if (profiles instanceof LazyOrganisationProfiles && organisationProfiles.isEmpty()) {
+                this.organisationProfiles = profiles;
+            } else {
+                mutableOrganisationProfiles().putAll(profiles);
+            }
             return this;
         }
 
+        private Map<String, OrganisationProfile> mutableOrganisationProfiles() {
+            if (organisationProfiles instanceof LazyOrganisationProfiles) {
+                final Map<String, OrganisationProfile> profiles = new LinkedHashMap<>();
+                profiles.putAll(organisationProfiles);
+                organisationProfiles = profiles;
+            }
+            return organisationProfiles;
+        }
+
         public UserInfo build() {
-            return new UserInfo(subject, name, email, authorities, roles, groups, preferences, organisationProfiles);
+            final OrganisationProfiles profiles = organisationProfiles instanceof LazyOrganisationProfiles lazy
+                    ? lazy
+                    : OrganisationProfileIndex.of(organisationProfiles);
+            return new UserInfo(subject, name, email, authorities, roles, groups, preferences, profiles);
         }
     }
 }
@@ -1,5 +1,20 @@
 package app.quickcase.spring.oidc.userinfo;
 
+import java.time.Instant;
+
 public interface UserInfoService {
     UserInfo loadUserInfo(String expectedSubject, String accessToken);
+
+    /**
+     * Load user info for an access token expiring at a known instant.
+     * Implementations retaining user info must not retain it past that instant.
+     *
+     * @param expectedSubject Subject expected by caller
+     * @param accessToken Access token used to retrieve the user info
+     * @param expiresAt Expiry of the access token, if known; <code>null</code> otherwise
+     * @return User info associated with the access token
+     */
+    default UserInfo loadUserInfo(String expectedSubject, String accessToken, Instant expiresAt) {
+        return loadUserInfo(expectedSubject, accessToken);
+    }
 }
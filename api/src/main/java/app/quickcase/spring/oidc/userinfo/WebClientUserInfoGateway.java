@@ -0,0 +1,31 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.net.URI;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+public class WebClientUserInfoGateway implements ReactiveUserInfoGateway {
+    private static final ParameterizedTypeReference<Map<String, JsonNode>> CLAIMS_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final URI userInfoUri;
+    private final WebClient webClient;
+
+    public WebClientUserInfoGateway(URI userInfoUri, WebClient webClient) {
+        this.userInfoUri = userInfoUri;
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<Map<String, JsonNode>> getClaims(String accessToken) {
+        return webClient.get()
+                        .uri(userInfoUri)
+                        .headers(headers -> headers.setBearerAuth(accessToken))
+                        .retrieve()
+                        .bodyToMono(CLAIMS_TYPE);
+    }
+}
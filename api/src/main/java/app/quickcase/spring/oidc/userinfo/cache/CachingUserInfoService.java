@@ -0,0 +1,235 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import app.quickcase.spring.oidc.utils.TokenDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Decorate a {@link UserInfoService} with a cache of user info held by a {@link UserInfoCacheStore}, by default a
+ * bounded, least-recently-used {@link InMemoryUserInfoCacheStore}.
+ *
+ * <p>
+ * Entries are keyed on a digest of the access token, so raw tokens are never retained, and expire after the configured
+ * time-to-live or when the access token expires, whichever comes first.
+ *
+ * <p>
+ * Optionally, as per {@link UserInfoCachePolicy}, entries close to expiry are refreshed in the background while still
+ * being served, and expired entries are served for a limited time while the OIDC provider fails to respond.
+ *
+ * <p>
+ * User info loaded while its access token or subject are invalidated is returned but not cached, as per
+ * {@link UserInfoCacheStore#generation(String, String)}.
+ */
+@Slf4j
+public class CachingUserInfoService implements UserInfoService {
+    private final UserInfoService delegate;
+    private final UserInfoCacheStore store;
+    private final UserInfoCacheStats stats;
+    private final UserInfoCachePolicy policy;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CachingUserInfoService(UserInfoService delegate, int maxSize, Duration ttl) {
+        this(delegate, maxSize, UserInfoCachePolicy.ttl(ttl), Runnable::run, Clock.systemUTC());
+    }
+
+    public CachingUserInfoService(UserInfoService delegate,
+                                  int maxSize,
+                                  UserInfoCachePolicy policy,
+                                  Executor refreshExecutor) {
+        this(delegate, maxSize, policy, refreshExecutor, Clock.systemUTC());
+    }
+
+    public CachingUserInfoService(UserInfoService delegate,
+                                  int maxSize,
+                                  UserInfoCachePolicy policy,
+                                  Executor refreshExecutor,
+                                  Clock clock) {
+        this(delegate, new UserInfoCacheStats(), maxSize, policy, refreshExecutor, clock);
+    }
+
+    public CachingUserInfoService(UserInfoService delegate,
+                                  UserInfoCacheStore store,
+                                  UserInfoCachePolicy policy,
+                                  Executor refreshExecutor) {
+        this(delegate, store, new UserInfoCacheStats(), policy, refreshExecutor, Clock.systemUTC());
+    }
+
+    public CachingUserInfoService(UserInfoService delegate,
+                                  UserInfoCacheStore store,
+                                  UserInfoCachePolicy policy,
+                                  Executor refreshExecutor,
+                                  Clock clock) {
+        this(delegate, store, new UserInfoCacheStats(), policy, refreshExecutor, clock);
+    }
+
+    private CachingUserInfoService(UserInfoService delegate,
+                                   UserInfoCacheStats stats,
+                                   int maxSize,
+                                   UserInfoCachePolicy policy,
+                                   Executor refreshExecutor,
+                                   Clock clock) {
+        this(delegate, new InMemoryUserInfoCacheStore(maxSize, stats), stats, policy, refreshExecutor, clock);
+    }
+
+    private CachingUserInfoService(UserInfoService delegate,
+                                   UserInfoCacheStore store,
+                                   UserInfoCacheStats stats,
+                                   UserInfoCachePolicy policy,
+                                   Executor refreshExecutor,
+                                   Clock clock) {
+        this.delegate = delegate;
+        this.store = store;
+        this.stats = stats;
+        this.policy = policy;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    @Override
+    public UserInfo loadUserInfo(String expectedSubject, String accessToken) {
+        return loadUserInfo(expectedSubject, accessToken, null);
+    }
+
+    @Override
+    public UserInfo loadUserInfo(String expectedSubject, String accessToken, Instant expiresAt) {
+        final String key = TokenDigest.sha256(accessToken);
+        final Instant now = clock.instant();
+        final UserInfoCacheEntry entry = lookup(key, expectedSubject, now);
+
+        if (entry == null) {
+            stats.recordMiss();
+            return load(key, expectedSubject, accessToken, expiresAt);
+        }
+
+        if (now.isBefore(entry.getExpiresAt())) {
+            stats.recordHit();
+            if (isRefreshDue(key, entry, now)) {
+                refreshAsync(key, entry, accessToken, expiresAt);
+            }
+            return entry.getUserInfo();
+        }
+
+        stats.recordMiss();
+        try {
+            return load(key, expectedSubject, accessToken, expiresAt);
+        } catch (RestClientException e) {
+            if (e instanceof HttpClientErrorException) {
+                throw e;
+            }
+            log.warn("Failed to retrieve user info, serving stale user info for subject `{}`", expectedSubject, e);
+            stats.recordStaleServe();
+            return entry.getUserInfo();
+        }
+    }
+
+    /**
+     * Remove user info cached for the given access token.
+     */
+    public void invalidate(String accessToken) {
+        store.invalidate(TokenDigest.sha256(accessToken));
+    }
+
+    /**
+     * Remove user info cached for all access tokens of the given subject, eg: following a change of their roles.
+     */
+    public void invalidateSubject(String subject) {
+        store.invalidateSubject(subject);
+    }
+
+    public UserInfoCacheStats getStats() {
+        return stats;
+    }
+
+    private UserInfo load(String key, String expectedSubject, String accessToken, Instant tokenExpiresAt) {
+        final Instant now = clock.instant();
+        final long generation = store.generation(key, expectedSubject);
+        final UserInfo userInfo = delegate.loadUserInfo(expectedSubject, accessToken, tokenExpiresAt);
+        store(key, newEntry(expectedSubject, userInfo, now, tokenExpiresAt), now, generation);
+        return userInfo;
+    }
+
+    /**
+     * @return Entry which is either fresh or within its stale-if-error window; <code>null</code> otherwise.
+     */
+    private UserInfoCacheEntry lookup(String key, String expectedSubject, Instant now) {
+        final UserInfoCacheEntry entry = store.get(key).orElse(null);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (!now.isBefore(entry.getStaleUntil())) {
+            store.remove(key);
+            stats.recordEviction();
+            return null;
+        }
+
+        if (!entry.getSubject().equals(expectedSubject)) {
+            log.debug("Cached user info subject does not match expected subject, ignoring");
+            return null;
+        }
+
+        return entry;
+    }
+
+    private void store(String key, UserInfoCacheEntry entry, Instant now, long generation) {
+        if (!now.isBefore(entry.getExpiresAt())) {
+            return;
+        }
+
+        if (!store.put(key, entry, generation)) {
+            log.debug("User info for subject `{}` invalidated while loading, not cached", entry.getSubject());
+        }
+    }
+
+    private boolean isRefreshDue(String key, UserInfoCacheEntry entry, Instant now) {
+        return !policy.getRefreshAhead().isZero()
+                && !now.isBefore(entry.getExpiresAt().minus(policy.getRefreshAhead()))
+                && refreshing.add(key);
+    }
+
+    private void refreshAsync(String key, UserInfoCacheEntry entry, String accessToken, Instant tokenExpiresAt) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, entry.getSubject(), accessToken, tokenExpiresAt);
+                    stats.recordRefresh();
+                } catch (RuntimeException e) {
+                    log.debug("Failed to refresh user info ahead of expiry for subject `{}`", entry.getSubject(), e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Refresh of user info ahead of expiry rejected for subject `{}`", entry.getSubject());
+            refreshing.remove(key);
+        }
+    }
+
+    private UserInfoCacheEntry newEntry(String subject, UserInfo userInfo, Instant now, Instant tokenExpiresAt) {
+        final Instant expiresAt = earliest(now.plus(policy.getTtl()), tokenExpiresAt);
+        final Instant staleUntil = earliest(expiresAt.plus(policy.getStaleIfError()), tokenExpiresAt);
+        return new UserInfoCacheEntry(subject, userInfo, expiresAt, staleUntil);
+    }
+
+    private static Instant earliest(Instant instant, Instant tokenExpiresAt) {
+        if (tokenExpiresAt != null && tokenExpiresAt.isBefore(instant)) {
+            return tokenExpiresAt;
+        }
+
+        return instant;
+    }
+}
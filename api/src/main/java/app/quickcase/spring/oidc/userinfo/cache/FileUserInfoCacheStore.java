@@ -0,0 +1,185 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import app.quickcase.spring.oidc.utils.TokenDigest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Store holding entries as files in a directory, which can be shared by several nodes on the same host to exercise
+ * cross-node caching and invalidation without external infrastructure. Not intended for production use.
+ *
+ * <p>
+ * Layout:
+ * <ul>
+ *     <li><code>entries/{tokenHash}</code>: entry, serialised with {@link UserInfoCacheCodec}</li>
+ *     <li><code>subjects/{subjectHash}/{tokenHash}</code>: empty marker indexing entries by subject</li>
+ *     <li><code>invalidations/token-{tokenHash}</code>, <code>invalidations/subject-{subjectHash}</code>: random stamp
+ *     of the latest invalidation, whose combination is the generation of entries</li>
+ * </ul>
+ * Entries and stamps are written to a temporary file first and atomically moved in place, so that concurrent readers
+ * never observe a partially written file. Generations are checked before storing an entry, but not atomically with it.
+ */
+@Slf4j
+public class FileUserInfoCacheStore implements UserInfoCacheStore {
+    private static final Pattern TOKEN_HASH = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final Path entries;
+    private final Path subjects;
+    private final Path invalidations;
+
+    public FileUserInfoCacheStore(Path directory) {
+        this.entries = directory.resolve("entries");
+        this.subjects = directory.resolve("subjects");
+        this.invalidations = directory.resolve("invalidations");
+        try {
+            Files.createDirectories(entries);
+            Files.createDirectories(subjects);
+            Files.createDirectories(invalidations);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialise user info cache directory " + directory, e);
+        }
+    }
+
+    @Override
+    public Optional<UserInfoCacheEntry> get(String tokenHash) {
+        final Path entryPath = entryPath(tokenHash);
+        try {
+            return Optional.of(UserInfoCacheCodec.decode(Files.readAllBytes(entryPath)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to read cached user info, ignoring entry", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String tokenHash, UserInfoCacheEntry entry) {
+        final Path entryPath = entryPath(tokenHash);
+        try {
+            final Path subjectPath = subjects.resolve(TokenDigest.sha256(entry.getSubject()));
+            Files.createDirectories(subjectPath);
+            createMarker(subjectPath.resolve(tokenHash));
+
+            writeAtomically(entryPath, UserInfoCacheCodec.encode(entry));
+        } catch (IOException e) {
+            log.warn("Failed to write cached user info, entry not cached", e);
+        }
+    }
+
+    @Override
+    public long generation(String tokenHash, String subject) {
+        return readStamp(tokenStampPath(tokenHash)) ^ readStamp(subjectStampPath(subject));
+    }
+
+    @Override
+    public void remove(String tokenHash) {
+        try {
+            delete(tokenHash);
+        } catch (IOException e) {
+            log.warn("Failed to remove cached user info", e);
+        }
+    }
+
+    @Override
+    public void invalidate(String tokenHash) {
+        try {
+            writeStamp(tokenStampPath(tokenHash));
+            delete(tokenHash);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to invalidate cached user info", e);
+        }
+    }
+
+    @Override
+    public void invalidateSubject(String subject) {
+        final Path subjectPath = subjects.resolve(TokenDigest.sha256(subject));
+        try {
+            writeStamp(subjectStampPath(subject));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to invalidate cached user info for subject", e);
+        }
+        try (DirectoryStream<Path> markers = Files.newDirectoryStream(subjectPath)) {
+            for (Path marker : markers) {
+                Files.deleteIfExists(entries.resolve(marker.getFileName()));
+                Files.deleteIfExists(marker);
+            }
+        } catch (NoSuchFileException e) {
+            // No entries cached for subject
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to invalidate cached user info for subject", e);
+        }
+    }
+
+    private void delete(String tokenHash) throws IOException {
+        final Optional<UserInfoCacheEntry> entry = get(tokenHash);
+        Files.deleteIfExists(entryPath(tokenHash));
+        if (entry.isPresent()) {
+            Files.deleteIfExists(subjects.resolve(TokenDigest.sha256(entry.get().getSubject())).resolve(tokenHash));
+        }
+    }
+
+    private Path entryPath(String tokenHash) {
+        if (!TOKEN_HASH.matcher(tokenHash).matches()) {
+            throw new IllegalArgumentException("Malformed token hash");
+        }
+        return entries.resolve(tokenHash);
+    }
+
+    private Path tokenStampPath(String tokenHash) {
+        return invalidations.resolve("token-" + entryPath(tokenHash).getFileName());
+    }
+
+    private Path subjectStampPath(String subject) {
+        return invalidations.resolve("subject-" + TokenDigest.sha256(subject));
+    }
+
+    private long readStamp(Path stampPath) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(stampPath)).getLong();
+        } catch (NoSuchFileException e) {
+            return 0L;
+        } catch (IOException | BufferUnderflowException e) {
+            // Unknown generation, entry not stored
+            log.warn("Failed to read user info invalidation stamp", e);
+            return ThreadLocalRandom.current().nextLong();
+        }
+    }
+
+    private void writeStamp(Path stampPath) throws IOException {
+        writeAtomically(stampPath, ByteBuffer.allocate(Long.BYTES)
+                                             .putLong(ThreadLocalRandom.current().nextLong())
+                                             .array());
+    }
+
+    private static void writeAtomically(Path path, byte[] content) throws IOException {
+        final Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void createMarker(Path marker) throws IOException {
+        try {
+            Files.createFile(marker);
+        } catch (FileAlreadyExistsException e) {
+            // Already indexed
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded, node-local store evicting least recently used entries first.
+ *
+ * <p>
+ * Invalidations are stamped from a counter, and their stamps retained for as many access tokens and subjects as the
+ * store holds entries. The generation of an entry is the latest stamp of its access token and subject. Once a stamp is
+ * forgotten, it stands for all access tokens and subjects without a retained stamp, so that their generation can only
+ * move forward: at worst, an entry loaded while an unrelated invalidation was forgotten is not stored.
+ */
+public class InMemoryUserInfoCacheStore implements UserInfoCacheStore {
+    private static final String TOKEN_PREFIX = "token:";
+    private static final String SUBJECT_PREFIX = "subject:";
+
+    private final Map<String, UserInfoCacheEntry> entries;
+    private final Map<String, Set<String>> tokenHashesBySubject = new HashMap<>();
+    private final Map<String, Long> invalidations;
+    private long lastInvalidation;
+    private long forgottenInvalidation;
+
+    public InMemoryUserInfoCacheStore(int maxSize) {
+        this(maxSize, null);
+    }
+
+    InMemoryUserInfoCacheStore(int maxSize, UserInfoCacheStats stats) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserInfoCacheEntry> eldest) {
+                if (size() > maxSize) {
+                    unindex(eldest.getKey(), eldest.getValue());
+                    if (stats != null) {
+                        stats.recordEviction();
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidations = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > maxSize) {
+                    forgottenInvalidation = Math.max(forgottenInvalidation, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<UserInfoCacheEntry> get(String tokenHash) {
+        return Optional.ofNullable(entries.get(tokenHash));
+    }
+
+    @Override
+    public synchronized void put(String tokenHash, UserInfoCacheEntry entry) {
+        final UserInfoCacheEntry previous = entries.put(tokenHash, entry);
+        if (previous != null) {
+            unindex(tokenHash, previous);
+        }
+        tokenHashesBySubject.computeIfAbsent(entry.getSubject(), subject -> new HashSet<>()).add(tokenHash);
+    }
+
+    @Override
+    public synchronized boolean put(String tokenHash, UserInfoCacheEntry entry, long generation) {
+        return UserInfoCacheStore.super.put(tokenHash, entry, generation);
+    }
+
+    @Override
+    public synchronized long generation(String tokenHash, String subject) {
+        return Math.max(invalidation(TOKEN_PREFIX + tokenHash), invalidation(SUBJECT_PREFIX + subject));
+    }
+
+    @Override
+    public synchronized void remove(String tokenHash) {
+        final UserInfoCacheEntry entry = entries.remove(tokenHash);
+        if (entry != null) {
+            unindex(tokenHash, entry);
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String tokenHash) {
+        stamp(TOKEN_PREFIX + tokenHash);
+        remove(tokenHash);
+    }
+
+    @Override
+    public synchronized void invalidateSubject(String subject) {
+        stamp(SUBJECT_PREFIX + subject);
+        final Set<String> tokenHashes = tokenHashesBySubject.remove(subject);
+        if (tokenHashes != null) {
+            tokenHashes.forEach(entries::remove);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private long invalidation(String key) {
+        return invalidations.getOrDefault(key, forgottenInvalidation);
+    }
+
+    private void stamp(String key) {
+        // Re-inserted so that the most recent invalidations are retained
+        invalidations.remove(key);
+        invalidations.put(key, ++lastInvalidation);
+    }
+
+    private void unindex(String tokenHash, UserInfoCacheEntry entry) {
+        final Set<String> tokenHashes = tokenHashesBySubject.get(entry.getSubject());
+        if (tokenHashes != null) {
+            tokenHashes.remove(tokenHash);
+            if (tokenHashes.isEmpty()) {
+                tokenHashesBySubject.remove(entry.getSubject());
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import app.quickcase.spring.oidc.organisation.LazyOrganisationProfiles;
+import app.quickcase.spring.oidc.organisation.OrganisationProfile;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserPreferences;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Versioned JSON serialised form of {@link UserInfoCacheEntry}, for stores holding entries outside of the JVM.
+ *
+ * <p>
+ * Version 1:
+ * <pre>
+ *     {
+ *         "v": 1,
+ *         "subject": "...",
+ *         "expiresAt": "2024-01-01T10:00:00Z",
+ *         "staleUntil": "2024-01-01T10:05:00Z",
+ *         "userInfo": {
+ *             "sub": "...",
+ *             "name": "...",
+ *             "email": "...",
+ *             "authorities": ["..."],
+ *             "roles": ["..."],
+ *             "groups": ["..."],
+ *             "preferences": {"defaultJurisdiction": "...", "defaultCaseType": "...", "defaultState": "..."},
+ *             "organisations": {"{anOrgId}": {"access": "GROUP", "classification": "PUBLIC", "group": "..."}}
+ *         }
+ *     }
+ * </pre>
+ * Entries of an unsupported version are rejected rather than partially decoded.
+ */
+public final class UserInfoCacheCodec {
+    public static final int VERSION = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private UserInfoCacheCodec() {
+    }
+
+    public static byte[] encode(UserInfoCacheEntry entry) {
+        final UserInfo userInfo = entry.getUserInfo();
+        final ObjectNode root = MAPPER.createObjectNode()
+                                      .put("v", VERSION)
+                                      .put("subject", entry.getSubject())
+                                      .put("expiresAt", entry.getExpiresAt().toString())
+                                      .put("staleUntil", entry.getStaleUntil().toString());
+        final ObjectNode user = root.putObject("userInfo")
+                                    .put("sub", userInfo.getSubject());
+        userInfo.getEmail().ifPresent(email -> user.put("email", email));
+        if (!userInfo.getName().equals(userInfo.getSubject())) {
+            user.put("name", userInfo.getName());
+        }
+        putStrings(user.putArray("authorities"),
+                   userInfo.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+        putStrings(user.putArray("roles"), userInfo.getRoles());
+        putStrings(user.putArray("groups"), userInfo.getGroups());
+
+        final UserPreferences preferences = userInfo.getPreferences();
+        if (preferences != null) {
+            user.putObject("preferences")
+                .put("defaultJurisdiction", preferences.getDefaultJurisdiction())
+                .put("defaultCaseType", preferences.getDefaultCaseType())
+                .put("defaultState", preferences.getDefaultState());
+        }
+
+        final ObjectNode organisations = user.putObject("organisations");
+        // Cached entries must round-trip all user info, deprecated organisation profiles included, until removed
+        @SuppressWarnings("deprecation")
+        final Map<String, OrganisationProfile> profiles = userInfo.getOrganisationProfiles();
+        profiles.forEach((orgId, profile) -> {
+            final ObjectNode node = organisations.putObject(orgId)
+                                                 .put("access", profile.getAccessLevel().name())
+                                                 .put("classification", profile.getSecurityClassification().name());
+            profile.getGroup().ifPresent(group -> node.put("group", group));
+        });
+
+        try {
+            return MAPPER.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode user info cache entry", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the entry is malformed or of an unsupported version
+     */
+    public static UserInfoCacheEntry decode(byte[] bytes) {
+        final JsonNode root;
+        try {
+            root = MAPPER.readTree(bytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed user info cache entry", e);
+        }
+
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Malformed user info cache entry: expected object");
+        }
+
+        final int version = root.path("v").asInt(-1);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported user info cache entry version: " + version);
+        }
+
+        final JsonNode user = required(root, "userInfo");
+        final UserInfo.UserInfoBuilder builder = UserInfo.builder(required(user, "sub").asText())
+                                                         .name(text(user, "name"))
+                                                         .email(text(user, "email"))
+                                                         .authorities(strings(user, "authorities").toArray(String[]::new))
+                                                         .roles(strings(user, "roles"))
+                                                         .groups(strings(user, "groups"));
+
+        final JsonNode preferences = user.get("preferences");
+        if (preferences != null && preferences.isObject()) {
+            builder.preferences(UserPreferences.builder()
+                                               .defaultJurisdiction(text(preferences, "defaultJurisdiction"))
+                                               .defaultCaseType(text(preferences, "defaultCaseType"))
+                                               .defaultState(text(preferences, "defaultState"))
+                                               .build());
+        }
+
+        final JsonNode organisations = user.get("organisations");
+        if (organisations instanceof ObjectNode object) {
+            builder.organisationProfiles(new LazyOrganisationProfiles(object));
+        }
+
+        return new UserInfoCacheEntry(required(root, "subject").asText(),
+                                      builder.build(),
+                                      instant(root, "expiresAt"),
+                                      instant(root, "staleUntil"));
+    }
+
+    private static void putStrings(ArrayNode array, Set<String> values) {
+        values.stream().sorted().forEach(array::add);
+    }
+
+    private static JsonNode required(JsonNode node, String field) {
+        final JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            throw new IllegalArgumentException("Malformed user info cache entry: missing `" + field + "`");
+        }
+        return value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        final JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Set<String> strings(JsonNode node, String field) {
+        return StreamSupport.stream(node.path(field).spliterator(), false)
+                            .map(JsonNode::asText)
+                            .collect(Collectors.toSet());
+    }
+
+    private static Instant instant(JsonNode node, String field) {
+        try {
+            return Instant.parse(required(node, field).asText());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed user info cache entry: invalid `" + field + "`", e);
+        }
+    }
+}
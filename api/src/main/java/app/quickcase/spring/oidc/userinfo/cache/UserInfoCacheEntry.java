@@ -0,0 +1,39 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.time.Instant;
+
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+
+/**
+ * User info cached for an access token, as held by a {@link UserInfoCacheStore}.
+ */
+@Value
+@ToString(onlyExplicitlyIncluded = true)
+public class UserInfoCacheEntry {
+    /**
+     * Subject the access token was issued for.
+     */
+    @NonNull
+    @ToString.Include
+    private String subject;
+
+    @NonNull
+    private UserInfo userInfo;
+
+    /**
+     * Instant from which the entry is no longer fresh.
+     */
+    @NonNull
+    @ToString.Include
+    private Instant expiresAt;
+
+    /**
+     * Instant from which the entry can no longer be served, even when the OIDC provider fails.
+     */
+    @NonNull
+    @ToString.Include
+    private Instant staleUntil;
+}
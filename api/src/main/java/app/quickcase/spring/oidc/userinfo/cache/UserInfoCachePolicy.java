@@ -0,0 +1,41 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Timings applied by {@link CachingUserInfoService} to cached entries.
+ */
+@Value
+@Builder
+public class UserInfoCachePolicy {
+    /**
+     * Maximum time an entry is fresh. Entries are never fresh past the expiry of their access token.
+     */
+    @NonNull
+    private Duration ttl;
+
+    /**
+     * Window before expiry during which a fresh entry is still served while being refreshed in the background.
+     * Disabled when zero.
+     */
+    @NonNull
+    @Builder.Default
+    private Duration refreshAhead = Duration.ZERO;
+
+    /**
+     * Window after expiry during which an entry is served when user info cannot be retrieved because of an OIDC
+     * provider error or timeout. Entries are never served past the expiry of their access token.
+     * Disabled when zero.
+     */
+    @NonNull
+    @Builder.Default
+    private Duration staleIfError = Duration.ZERO;
+
+    public static UserInfoCachePolicy ttl(Duration ttl) {
+        return builder().ttl(ttl).build();
+    }
+}
@@ -0,0 +1,63 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counters of a user info cache.
+ */
+public class UserInfoCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder staleServes = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of entries removed from the cache, either to honour the maximum size or because they expired.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Number of expired entries served because user info could not be retrieved from the OIDC provider.
+     */
+    public long getStaleServeCount() {
+        return staleServes.sum();
+    }
+
+    /**
+     * @return Number of entries successfully refreshed in the background ahead of their expiry.
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordStaleServe() {
+        staleServes.increment();
+    }
+
+    void recordRefresh() {
+        refreshes.increment();
+    }
+}
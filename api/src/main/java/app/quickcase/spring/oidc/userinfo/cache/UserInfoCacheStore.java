@@ -0,0 +1,68 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.util.Optional;
+
+/**
+ * Storage of cached user info, keyed on the digest of access tokens as per
+ * {@link app.quickcase.spring.oidc.utils.TokenDigest}.
+ *
+ * <p>
+ * Implementations backed by a store shared across nodes let all nodes benefit from a single call to the /userinfo
+ * endpoint, and make invalidations visible to all nodes. Entries should be serialised with
+ * {@link UserInfoCacheCodec} so that their format is stable across versions.
+ *
+ * <p>
+ * Expiry of entries is enforced by {@link CachingUserInfoService}, stores are free to retain expired entries. Expired
+ * entries are removed with {@link #remove(String)}, which unlike {@link #invalidate(String)} leaves the generation
+ * unchanged.
+ *
+ * <p>
+ * User info is loaded outside of the store, so an invalidation may happen while it is being loaded. To avoid storing
+ * user info loaded before an invalidation, {@link CachingUserInfoService} reads the {@link #generation} of the entry
+ * before loading it and stores it with {@link #put(String, UserInfoCacheEntry, long)}, which skips the entry when an
+ * invalidation happened in the meantime. Stores which do not track invalidations always store the entry.
+ */
+public interface UserInfoCacheStore {
+    Optional<UserInfoCacheEntry> get(String tokenHash);
+
+    void put(String tokenHash, UserInfoCacheEntry entry);
+
+    /**
+     * Store the entry unless the access token or the subject were invalidated since the given generation was read.
+     * The default implementation is not atomic; stores tracking invalidations should override it so that no
+     * invalidation can happen between the check and the put.
+     *
+     * @param generation As returned by {@link #generation(String, String)} before loading the entry
+     * @return Whether the entry was stored
+     */
+    default boolean put(String tokenHash, UserInfoCacheEntry entry, long generation) {
+        if (generation(tokenHash, entry.getSubject()) != generation) {
+            return false;
+        }
+        put(tokenHash, entry);
+        return true;
+    }
+
+    /**
+     * @return Value changing whenever the access token or the subject are invalidated, whether or not an entry is
+     * cached for them. Only compared for equality.
+     */
+    default long generation(String tokenHash, String subject) {
+        return 0L;
+    }
+
+    /**
+     * Remove the entry cached for an access token, if any, without changing its generation.
+     */
+    void remove(String tokenHash);
+
+    /**
+     * Remove the entry cached for an access token, if any, and change its generation.
+     */
+    void invalidate(String tokenHash);
+
+    /**
+     * Remove all the entries cached for access tokens issued for the given subject.
+     */
+    void invalidateSubject(String subject);
+}
@@ -1,7 +1,7 @@
 package app.quickcase.spring.oidc.utils;
 
+import app.quickcase.spring.oidc.authentication.AuthorityRegistry;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -26,13 +26,13 @@ public interface StringUtils {
 
     static Set<GrantedAuthority> authorities(Set<String> authorities) {
         return authorities.stream()
-                          .map(SimpleGrantedAuthority::new)
+                          .map(AuthorityRegistry.shared()::authority)
                           .collect(Collectors.toSet());
     }
 
     static Set<GrantedAuthority> authorities(String... authorities) {
         return Arrays.stream(authorities)
-                     .map(SimpleGrantedAuthority::new)
+                     .map(AuthorityRegistry.shared()::authority)
                      .collect(Collectors.toSet());
     }
 
@@ -0,0 +1,22 @@
+package app.quickcase.spring.oidc.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Digest of access tokens, used in place of raw tokens wherever a token needs to be retained as a key.
+ */
+public interface TokenDigest {
+
+    static String sha256(String token) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                                               .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported by JVM", e);
+        }
+    }
+}
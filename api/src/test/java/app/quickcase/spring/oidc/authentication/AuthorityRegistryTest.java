@@ -0,0 +1,60 @@
+package app.quickcase.spring.oidc.authentication;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("AuthorityRegistry")
+class AuthorityRegistryTest {
+
+    private final AuthorityRegistry registry = new AuthorityRegistry(2);
+
+    @Test
+    @DisplayName("should prefix authorities by kind")
+    void shouldPrefixAuthorities() {
+        assertAll(
+                () -> assertThat(registry.scope("openid").getAuthority(), equalTo("SCOPE_openid")),
+                () -> assertThat(registry.role("caseworker").getAuthority(), equalTo("ROLE_caseworker")),
+                () -> assertThat(registry.authority("caseworker").getAuthority(), equalTo("caseworker"))
+        );
+    }
+
+    @Test
+    @DisplayName("should return canonical instance for known names")
+    void shouldReturnCanonicalInstance() {
+        final GrantedAuthority scope = registry.scope("openid");
+        final GrantedAuthority role = registry.role("openid");
+
+        assertAll(
+                () -> assertThat(registry.scope("openid"), sameInstance(scope)),
+                () -> assertThat(registry.role("openid"), sameInstance(role)),
+                () -> assertThat(registry.authority("openid"), not(sameInstance(scope)))
+        );
+    }
+
+    @Test
+    @DisplayName("should not retain names once full")
+    void shouldNotRetainNamesOnceFull() {
+        registry.role("role-1");
+        registry.role("role-2");
+        final GrantedAuthority overflow = registry.role("role-3");
+
+        assertAll(
+                () -> assertThat(overflow.getAuthority(), equalTo("ROLE_role-3")),
+                () -> assertThat(registry.role("role-3"), not(sameInstance(overflow))),
+                () -> assertThat(registry.role("role-3"), equalTo(overflow)),
+                () -> assertThat(registry.scope("scope-1"), sameInstance(registry.scope("scope-1")))
+        );
+    }
+
+    @Test
+    @DisplayName("should share registry")
+    void shouldShareRegistry() {
+        assertThat(AuthorityRegistry.shared().role("caseworker"),
+                   sameInstance(AuthorityRegistry.shared().role("caseworker")));
+    }
+}
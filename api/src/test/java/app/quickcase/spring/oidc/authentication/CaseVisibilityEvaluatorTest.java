@@ -0,0 +1,121 @@
+package app.quickcase.spring.oidc.authentication;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import app.quickcase.spring.oidc.AccessLevel;
+import app.quickcase.spring.oidc.organisation.OrganisationProfile;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static app.quickcase.spring.oidc.SecurityClassification.PRIVATE;
+import static app.quickcase.spring.oidc.SecurityClassification.PUBLIC;
+import static app.quickcase.spring.oidc.SecurityClassification.RESTRICTED;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("CaseVisibilityEvaluator")
+class CaseVisibilityEvaluatorTest {
+    private final CaseVisibilityEvaluator evaluator = new CaseVisibilityEvaluator(userAuthentication());
+
+    @Test
+    @DisplayName("should see cases of organisation up to classification of profile")
+    void shouldApplyOrganisationAccess() {
+        assertAll(
+                () -> assertThat(evaluator.isVisible("org-1", PUBLIC, null), is(true)),
+                () -> assertThat(evaluator.isVisible("ORG-1", PRIVATE, "any"), is(true)),
+                () -> assertThat(evaluator.isVisible("org-1", RESTRICTED, null), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should see cases of matching group only for GROUP access")
+    void shouldApplyGroupAccess() {
+        assertAll(
+                () -> assertThat(evaluator.isVisible("org-2", RESTRICTED, "group-1"), is(true)),
+                () -> assertThat(evaluator.isVisible("org-2", PUBLIC, "GROUP-1"), is(true)),
+                () -> assertThat(evaluator.isVisible("org-2", PUBLIC, "group-2"), is(false)),
+                () -> assertThat(evaluator.isVisible("org-2", PUBLIC, null), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should not see cases through INDIVIDUAL access nor of unknown organisations")
+    void shouldNotApplyIndividualAccess() {
+        assertAll(
+                () -> assertThat(evaluator.isVisible("org-3", PUBLIC, null), is(false)),
+                () -> assertThat(evaluator.isVisible("org-4", PUBLIC, null), is(false)),
+                () -> assertThat(evaluator.isVisible(null, PUBLIC, null), is(false)),
+                () -> assertThat(evaluator.isVisible("org-1", null, null), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should see all cases of organisation as client")
+    void shouldApplyClientAccess() {
+        final CaseVisibilityEvaluator client = new CaseVisibilityEvaluator(
+                new QuickcaseClientAuthentication("token", "client-1", Set.of(), Set.of()));
+
+        assertAll(
+                () -> assertThat(client.isVisible("org-1", PUBLIC, null), is(true)),
+                () -> assertThat(client.isVisible("org-1", PRIVATE, null), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should evaluate batch of cases into bitmap")
+    void shouldEvaluateBatch() {
+        final BitSet visibility = evaluator.evaluate(List.of(CaseAccess.of("org-1", PUBLIC, null),
+                                                             CaseAccess.of("org-3", PUBLIC, null),
+                                                             CaseAccess.of("org-2", PUBLIC, "group-1"),
+                                                             CaseAccess.of("org-1", RESTRICTED, null)));
+
+        assertThat(visibility, equalTo(bits(0, 2)));
+    }
+
+    @Test
+    @DisplayName("should collect visibility bitmap from parallel stream in encounter order")
+    void shouldCollectParallelStream() {
+        final List<CaseAccess> cases = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            cases.add(i % 3 == 0 ? CaseAccess.of("org-1", PUBLIC, null) : CaseAccess.of("org-3", PUBLIC, null));
+        }
+
+        final BitSet visibility = cases.parallelStream().collect(evaluator.toVisibility());
+
+        assertAll(
+                () -> assertThat(visibility, equalTo(evaluator.evaluate(cases))),
+                () -> assertThat(visibility, equalTo(bits(IntStream.range(0, 10_000).filter(i -> i % 3 == 0)
+                                                                   .toArray())))
+        );
+    }
+
+    private static BitSet bits(int... indexes) {
+        final BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    private static QuickcaseAuthentication userAuthentication() {
+        final UserInfo userInfo = UserInfo.builder("user-1")
+                                          .organisationProfile("org-1", OrganisationProfile.of(PRIVATE,
+                                                                                               AccessLevel.ORGANISATION,
+                                                                                               null))
+                                          .organisationProfile("org-2", OrganisationProfile.of(RESTRICTED,
+                                                                                               AccessLevel.GROUP,
+                                                                                               "group-1"))
+                                          .organisationProfile("org-3", OrganisationProfile.of(RESTRICTED,
+                                                                                               AccessLevel.INDIVIDUAL,
+                                                                                               null))
+                                          .build();
+        return new QuickcaseUserAuthentication("token", Set.of(), userInfo);
+    }
+}
@@ -110,6 +110,24 @@ class QuickcaseClientAuthenticationTest {
         );
     }
 
+    @Test
+    @DisplayName("should copy authentication with details")
+    void withDetails() {
+        final QuickcaseAuthentication auth = clientAuthentication();
+        final QuickcaseAuthentication copy = auth.withDetails("request-details");
+
+        assertAll(
+                () -> assertThat(copy.getDetails(), equalTo("request-details")),
+                () -> assertThat(auth.getDetails(), nullValue()),
+                () -> assertThat(copy.getId(), equalTo(CLIENT_ID)),
+                () -> assertThat(copy.getRoles(), equalTo(auth.getRoles())),
+                () -> assertThat(copy.getAuthorities(), equalTo(auth.getAuthorities())),
+                () -> assertThat(copy.getAccessToken(), equalTo(ACCESS_TOKEN)),
+                () -> assertThat(copy.isAuthenticated(), is(true)),
+                () -> assertThat(copy.hasRole("ROLE-1"), is(true))
+        );
+    }
+
     private QuickcaseAuthentication clientAuthentication() {
         final Set<String> scopes = Set.of("ROLE-1", "ROLE-2");
         final Set<GrantedAuthority> authorities = StringUtils.authorities(scopes);
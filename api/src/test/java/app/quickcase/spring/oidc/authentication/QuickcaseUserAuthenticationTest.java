@@ -12,6 +12,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.Optional;
+import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -158,6 +159,38 @@ class QuickcaseUserAuthenticationTest {
         );
     }
 
+    @Test
+    @DisplayName("should give organisation profiles in bulk")
+    void getOrganisationProfilesInBulk() {
+        final QuickcaseAuthentication auth = userAuthentication();
+        final OrganisationProfile[] profiles = auth.getOrganisationProfiles(List.of("org-1", "anyOrg", "ORG-1"));
+
+        assertAll(
+                () -> assertThat(profiles.length, is(3)),
+                () -> assertThat(profiles[0], equalTo(auth.getOrganisationProfile("org-1"))),
+                () -> assertThat(profiles[1], equalTo(auth.getOrganisationProfile("anyOrg"))),
+                () -> assertThat(profiles[2], equalTo(auth.getOrganisationProfile("org-1")))
+        );
+    }
+
+    @Test
+    @DisplayName("should copy authentication with details")
+    void withDetails() {
+        final QuickcaseAuthentication auth = userAuthentication();
+        final QuickcaseAuthentication copy = auth.withDetails("request-details");
+
+        assertAll(
+                () -> assertThat(copy.getDetails(), equalTo("request-details")),
+                () -> assertThat(auth.getDetails(), nullValue()),
+                () -> assertThat(copy.getId(), equalTo(USER_ID)),
+                () -> assertThat(copy.getUserInfo(), equalTo(auth.getUserInfo())),
+                () -> assertThat(copy.getAuthorities(), equalTo(auth.getAuthorities())),
+                () -> assertThat(copy.getAccessToken(), equalTo(ACCESS_TOKEN)),
+                () -> assertThat(copy.isAuthenticated(), is(true)),
+                () -> assertThat(copy.hasRole("role1"), is(true))
+        );
+    }
+
     private QuickcaseAuthentication userAuthentication() {
         final Set<GrantedAuthority> authorities = Set.of(
                 new SimpleGrantedAuthority("SCOPE-1"),
@@ -0,0 +1,117 @@
+package app.quickcase.spring.oidc.authentication;
+
+import java.util.List;
+import java.util.Set;
+
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("RoleIndex")
+class RoleIndexTest {
+
+    @Nested
+    @DisplayName("with spare capacity")
+    class WithSpareCapacity {
+        private final RoleIndex index = new RoleIndex(10);
+        private final RoleIndex.Membership membership = index.membership(Set.of("caseworker", "admin"));
+
+        @Test
+        @DisplayName("should check single names")
+        void shouldCheckNames() {
+            assertAll(
+                    () -> assertThat(membership.contains("caseworker"), is(true)),
+                    () -> assertThat(membership.contains("admin"), is(true)),
+                    () -> assertThat(membership.contains("solicitor"), is(false))
+            );
+        }
+
+        @Test
+        @DisplayName("should check compiled names")
+        void shouldCheckMasks() {
+            assertAll(
+                    () -> assertThat(membership.containsAny(index.compile("solicitor", "admin")), is(true)),
+                    () -> assertThat(membership.containsAny(index.compile("solicitor")), is(false)),
+                    () -> assertThat(membership.containsAny(index.compile()), is(false)),
+                    () -> assertThat(membership.containsAll(index.compile("caseworker", "admin")), is(true)),
+                    () -> assertThat(membership.containsAll(index.compile("caseworker", "solicitor")), is(false)),
+                    () -> assertThat(membership.containsAll(index.compile()), is(true))
+            );
+        }
+
+        @Test
+        @DisplayName("should keep positions of registered names")
+        void shouldRegisterNames() {
+            index.register(List.of("admin", "solicitor"));
+
+            assertAll(
+                    () -> assertThat(index.size(), equalTo(3)),
+                    () -> assertThat(membership.contains("solicitor"), is(false)),
+                    () -> assertThat(index.membership(Set.of("solicitor")).contains("solicitor"), is(true))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("when full")
+    class WhenFull {
+        private final RoleIndex index = new RoleIndex(2);
+        private final RoleIndex.Membership membership = index.membership(Set.of("role-1", "role-2", "role-3"));
+        private final RoleIndex.Membership indexedMembership = index.membership(Set.of("role-1"));
+
+        @Test
+        @DisplayName("should fall back to names outside the index")
+        void shouldFallBackToNames() {
+            assertAll(
+                    () -> assertThat(index.size(), equalTo(2)),
+                    () -> assertThat(membership.contains("role-3"), is(true)),
+                    () -> assertThat(membership.contains("role-4"), is(false)),
+                    () -> assertThat(indexedMembership.contains("role-3"), is(false))
+            );
+        }
+
+        @Test
+        @DisplayName("should fall back to names outside the index for compiled names")
+        void shouldFallBackToNamesForMasks() {
+            final RoleIndex.Mask mask = index.compile("role-1", "role-3");
+
+            assertAll(
+                    () -> assertThat(membership.containsAll(mask), is(true)),
+                    () -> assertThat(membership.containsAny(index.compile("role-3")), is(true)),
+                    () -> assertThat(membership.containsAny(index.compile("role-4")), is(false)),
+                    () -> assertThat(indexedMembership.containsAll(mask), is(false)),
+                    () -> assertThat(indexedMembership.containsAny(mask), is(true)),
+                    () -> assertThat(indexedMembership.containsAny(index.compile("role-3")), is(false))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should check roles and groups of authentication")
+    void shouldCheckAuthentication() {
+        final UserInfo userInfo = UserInfo.builder("user-1")
+                                          .roles("caseworker", "caseworker-admin")
+                                          .groups("group-1")
+                                          .build();
+        final QuickcaseAuthentication authentication = new QuickcaseUserAuthentication("token", Set.of(), userInfo);
+
+        assertAll(
+                () -> assertThat(authentication.hasRole("caseworker"), is(true)),
+                () -> assertThat(authentication.hasRole("group-1"), is(false)),
+                () -> assertThat(authentication.hasAnyRole("solicitor", "caseworker-admin"), is(true)),
+                () -> assertThat(authentication.hasAnyRole("solicitor"), is(false)),
+                () -> assertThat(authentication.hasAllRoles("caseworker", "caseworker-admin"), is(true)),
+                () -> assertThat(authentication.hasAllRoles("caseworker", "solicitor"), is(false)),
+                () -> assertThat(authentication.hasAnyRole(RoleIndex.shared().compile("caseworker")), is(true)),
+                () -> assertThat(authentication.hasAllRoles(RoleIndex.shared().compile("caseworker", "x")), is(false)),
+                () -> assertThat(authentication.hasGroup("group-1"), is(true)),
+                () -> assertThat(authentication.hasAnyGroup(RoleIndex.shared().compile("caseworker")), is(false))
+        );
+    }
+}
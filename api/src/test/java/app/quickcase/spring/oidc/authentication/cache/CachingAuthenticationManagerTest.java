@@ -0,0 +1,235 @@
+package app.quickcase.spring.oidc.authentication.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseClientAuthentication;
+import app.quickcase.spring.oidc.utils.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("CachingAuthenticationManager")
+class CachingAuthenticationManagerTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicInteger decodes = new AtomicInteger();
+    private Instant tokenExpiresAt = NOW.plusSeconds(3600);
+    private final JwtDecoder decoder = token -> {
+        decodes.incrementAndGet();
+        if (token.startsWith("bad")) {
+            throw new BadJwtException("Invalid signature");
+        }
+        if (token.startsWith("unavailable")) {
+            throw new JwtException("JWK set unavailable");
+        }
+        return Jwt.withTokenValue(token)
+                  .header("alg", "RS256")
+                  .claim("sub", "client-1")
+                  .expiresAt(tokenExpiresAt)
+                  .build();
+    };
+
+    private MutableClock clock;
+    private CachingAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        manager = new CachingAuthenticationManager(
+                decoder,
+                jwt -> new QuickcaseClientAuthentication(jwt.getTokenValue(), jwt.getSubject(), Set.of(), Set.of()),
+                2,
+                TTL,
+                clock
+        );
+    }
+
+    @Test
+    @DisplayName("should skip decoding for repeated token")
+    void shouldSkipDecodingOnHit() {
+        final Authentication first = manager.authenticate(bearer("token-1"));
+        final Authentication second = manager.authenticate(bearer("token-1"));
+
+        assertAll(
+                () -> assertThat(second, equalTo(first)),
+                () -> assertThat(decodes.get(), is(1)),
+                () -> assertThat(manager.getStats().getHitCount(), is(1L)),
+                () -> assertThat(manager.getStats().getMissCount(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should carry request details of each bearer token")
+    void shouldCarryRequestDetails() {
+        final BearerTokenAuthenticationToken firstBearer = bearer("token-1");
+        firstBearer.setDetails("first-request");
+        final BearerTokenAuthenticationToken secondBearer = bearer("token-1");
+        secondBearer.setDetails("second-request");
+
+        final Authentication first = manager.authenticate(firstBearer);
+        final Authentication second = manager.authenticate(secondBearer);
+
+        assertAll(
+                () -> assertThat(first.getDetails(), equalTo("first-request")),
+                () -> assertThat(second.getDetails(), equalTo("second-request")),
+                () -> assertThat(manager.getStats().getHitCount(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should expire entries after TTL")
+    void shouldExpireAfterTtl() {
+        manager.authenticate(bearer("token-1"));
+        clock.advance(TTL);
+        manager.authenticate(bearer("token-1"));
+
+        assertThat(decodes.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should never retain entries past token expiry")
+    void shouldExpireWithToken() {
+        tokenExpiresAt = NOW.plusSeconds(30);
+        manager.authenticate(bearer("token-1"));
+        clock.advance(Duration.ofSeconds(30));
+
+        manager.authenticate(bearer("token-1"));
+
+        assertThat(decodes.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should not cache tokens without expiry")
+    void shouldNotCacheTokensWithoutExpiry() {
+        tokenExpiresAt = null;
+        manager.authenticate(bearer("token-1"));
+        manager.authenticate(bearer("token-1"));
+
+        assertThat(decodes.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should not let one-off tokens evict frequently used tokens")
+    void shouldRejectOneOffTokensWhenFull() {
+        manager.authenticate(bearer("token-1"));
+        manager.authenticate(bearer("token-1"));
+        manager.authenticate(bearer("token-2"));
+        manager.authenticate(bearer("token-2"));
+
+        manager.authenticate(bearer("one-off-1"));
+        manager.authenticate(bearer("one-off-2"));
+        manager.authenticate(bearer("token-1"));
+        manager.authenticate(bearer("token-2"));
+
+        assertAll(
+                () -> assertThat(decodes.get(), is(4)),
+                () -> assertThat(manager.getStats().getRejectionCount(), is(2L)),
+                () -> assertThat(manager.getStats().getEvictionCount(), is(0L))
+        );
+    }
+
+    @Test
+    @DisplayName("should admit token used more frequently than least recently used entry")
+    void shouldAdmitFrequentToken() {
+        manager.authenticate(bearer("token-1"));
+        manager.authenticate(bearer("token-2"));
+
+        manager.authenticate(bearer("token-3"));
+        manager.authenticate(bearer("token-3"));
+        manager.authenticate(bearer("token-3"));
+
+        assertAll(
+                () -> assertThat(manager.getStats().getEvictionCount(), is(1L)),
+                () -> assertThat(manager.getStats().getHitCount(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should evict expired entry before comparing frequencies")
+    void shouldEvictExpiredEntry() {
+        manager.authenticate(bearer("token-1"));
+        manager.authenticate(bearer("token-1"));
+        tokenExpiresAt = NOW.plusSeconds(30);
+        manager.authenticate(bearer("token-2"));
+        manager.authenticate(bearer("token-2"));
+        clock.advance(Duration.ofSeconds(30));
+        tokenExpiresAt = NOW.plusSeconds(3600);
+
+        manager.authenticate(bearer("one-off-1"));
+        manager.authenticate(bearer("one-off-1"));
+
+        assertAll(
+                () -> assertThat(manager.getStats().getEvictionCount(), is(1L)),
+                () -> assertThat(manager.getStats().getRejectionCount(), is(0L)),
+                () -> assertThat(decodes.get(), is(3))
+        );
+    }
+
+    @Test
+    @DisplayName("should authenticate concurrently")
+    void shouldAuthenticateConcurrently() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Authentication>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                final String token = "token-" + (i % 3);
+                results.add(executor.submit(() -> manager.authenticate(bearer(token))));
+            }
+            for (Future<Authentication> result : results) {
+                assertThat(result.get().isAuthenticated(), is(true));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final AuthenticationCacheStats stats = manager.getStats();
+        assertThat(stats.getHitCount() + stats.getMissCount(), is(200L));
+    }
+
+    @Test
+    @DisplayName("should reject invalid token")
+    void shouldRejectInvalidToken() {
+        assertThrows(InvalidBearerTokenException.class, () -> manager.authenticate(bearer("bad-token")));
+    }
+
+    @Test
+    @DisplayName("should fail when token cannot be verified")
+    void shouldFailWhenTokenCannotBeVerified() {
+        assertThrows(AuthenticationServiceException.class, () -> manager.authenticate(bearer("unavailable-token")));
+    }
+
+    @Test
+    @DisplayName("should reject unsupported authentication")
+    void shouldRejectUnsupportedAuthentication() {
+        assertThrows(AuthenticationException.class,
+                     () -> manager.authenticate(new TestingAuthenticationToken("user", "password")));
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token) {
+        return new BearerTokenAuthenticationToken(token);
+    }
+}
@@ -0,0 +1,82 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("AuthoritySetCache")
+class AuthoritySetCacheTest {
+
+    private final AuthoritySetCache cache = new AuthoritySetCache(2);
+
+    @Test
+    @DisplayName("should parse scopes once")
+    void shouldParseScopesOnce() {
+        final Set<String> scopes = cache.scopes("openid profile");
+
+        assertAll(
+                () -> assertThat(scopes, containsInAnyOrder("openid", "profile")),
+                () -> assertThat(cache.scopes("openid profile"), sameInstance(scopes)),
+                () -> assertThrows(UnsupportedOperationException.class, () -> scopes.add("email"))
+        );
+    }
+
+    @Test
+    @DisplayName("should derive authorities from scopes and roles")
+    void shouldDeriveAuthorities() {
+        final Set<GrantedAuthority> authorities = cache.authorities("openid profile", Set.of("caseworker"));
+
+        assertThat(authorities.stream().map(GrantedAuthority::getAuthority).toList(),
+                   containsInAnyOrder("SCOPE_openid", "SCOPE_profile", "ROLE_caseworker"));
+    }
+
+    @Test
+    @DisplayName("should share authorities for same scopes and roles")
+    void shouldShareAuthorities() {
+        final Set<String> roles = new HashSet<>(Set.of("caseworker", "admin"));
+        final Set<GrantedAuthority> authorities = cache.authorities("openid", roles);
+
+        assertAll(
+                () -> assertThat(cache.authorities("openid", Set.of("admin", "caseworker")), sameInstance(authorities)),
+                () -> assertThat(cache.authorities("openid", Set.of("admin")), not(sameInstance(authorities))),
+                () -> assertThat(cache.authorities("openid profile", roles), not(sameInstance(authorities))),
+                () -> assertThrows(UnsupportedOperationException.class, authorities::clear)
+        );
+    }
+
+    @Test
+    @DisplayName("should not be affected by later changes to roles")
+    void shouldCopyRoles() {
+        final Set<String> roles = new HashSet<>(Set.of("caseworker"));
+        cache.authorities("openid", roles);
+        roles.add("admin");
+
+        assertThat(cache.authorities("openid", Set.of("caseworker")).stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList(),
+                   containsInAnyOrder("SCOPE_openid", "ROLE_caseworker"));
+    }
+
+    @Test
+    @DisplayName("should clear once full")
+    void shouldClearOnceFull() {
+        final Set<GrantedAuthority> first = cache.authorities("openid", Set.of("role-1"));
+        cache.authorities("openid", Set.of("role-2"));
+        cache.authorities("openid", Set.of("role-3"));
+
+        final Set<GrantedAuthority> again = cache.authorities("openid", Set.of("role-1"));
+
+        assertAll(
+                () -> assertThat(again, not(sameInstance(first))),
+                () -> assertThat(again, equalTo(first))
+        );
+    }
+}
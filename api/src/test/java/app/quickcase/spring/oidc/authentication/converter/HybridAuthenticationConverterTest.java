@@ -0,0 +1,99 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseClientAuthentication;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserInfoExtractor;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("HybridAuthenticationConverter")
+class HybridAuthenticationConverterTest {
+    private static final String ACCESS_TOKEN = "token123";
+    private static final String USER_ID = "user-456";
+    private static final String ROLES = "app.quickcase.claims/roles";
+    private static final String ORGANISATIONS = "app.quickcase.claims/organisations";
+
+    private final AtomicInteger userInfoCalls = new AtomicInteger();
+
+    private HybridAuthenticationConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        final UserInfoExtractor extractor = claims -> UserInfo.builder(claims.getString("sub").orElseThrow())
+                                                              .name("from-token")
+                                                              .roles(claims.getString(ROLES).orElseThrow())
+                                                              .build();
+        final UserInfoService userInfoService = (subject, accessToken) -> {
+            userInfoCalls.incrementAndGet();
+            return UserInfo.builder(subject).name("from-userinfo").roles("role-userinfo").build();
+        };
+
+        converter = new HybridAuthenticationConverter(new AccessTokenAuthenticationConverter(extractor),
+                                                      new UserInfoAuthenticationConverter(userInfoService),
+                                                      Set.of(ROLES, ORGANISATIONS));
+    }
+
+    @Test
+    @DisplayName("should extract user info from access token when all required claims are present")
+    void shouldUseAccessTokenWhenClaimsPresent() {
+        final QuickcaseAuthentication authentication = converter.convert(jwt()
+                .claim(ROLES, "role-token")
+                .claim(ORGANISATIONS, "{}")
+                .build());
+
+        assertAll(
+                () -> assertThat(authentication.getName(), equalTo("from-token")),
+                () -> assertThat(authentication.getRoles(), contains("role-token")),
+                () -> assertThat(userInfoCalls.get(), is(0))
+        );
+    }
+
+    @Test
+    @DisplayName("should retrieve user info from /userinfo when a required claim is missing")
+    void shouldUseUserInfoWhenClaimMissing() {
+        final QuickcaseAuthentication authentication = converter.convert(jwt()
+                .claim(ROLES, "role-token")
+                .build());
+
+        assertAll(
+                () -> assertThat(authentication.getName(), equalTo("from-userinfo")),
+                () -> assertThat(authentication.getRoles(), contains("role-userinfo")),
+                () -> assertThat(userInfoCalls.get(), is(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should not call /userinfo for client credentials")
+    void shouldNotCallUserInfoForClient() {
+        final Jwt jwt = Jwt.withTokenValue(ACCESS_TOKEN)
+                           .header("alg", "HS256")
+                           .claim("sub", "client-1")
+                           .claim("scope", "scope-1")
+                           .build();
+
+        final QuickcaseAuthentication authentication = converter.convert(jwt);
+
+        assertAll(
+                () -> assertThat(authentication, instanceOf(QuickcaseClientAuthentication.class)),
+                () -> assertThat(userInfoCalls.get(), is(0))
+        );
+    }
+
+    private Jwt.Builder jwt() {
+        return Jwt.withTokenValue(ACCESS_TOKEN)
+                  .header("alg", "HS256")
+                  .claim("sub", USER_ID)
+                  .claim("scope", "openid profile");
+    }
+}
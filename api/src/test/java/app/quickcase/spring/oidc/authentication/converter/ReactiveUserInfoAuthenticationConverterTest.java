@@ -0,0 +1,79 @@
+package app.quickcase.spring.oidc.authentication.converter;
+
+import java.util.Arrays;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseClientAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseUserAuthentication;
+import app.quickcase.spring.oidc.userinfo.ReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("ReactiveUserInfoAuthenticationConverter")
+class ReactiveUserInfoAuthenticationConverterTest {
+    private static final String ACCESS_TOKEN = "token123";
+    private static final String CLIENT_ID = "clientId";
+    private static final String USER_ID = "user-456";
+    private static final String USER_NAME = "Johnny Walker";
+    private static final String ROLE_1 = "role-1";
+
+    private final ReactiveUserInfoService userInfoServiceStub = (sub, token) -> Mono.just(UserInfo.builder(sub)
+                                                                                                  .name(USER_NAME)
+                                                                                                  .roles(ROLE_1)
+                                                                                                  .build());
+
+    private final ReactiveUserInfoAuthenticationConverter converter =
+            new ReactiveUserInfoAuthenticationConverter(userInfoServiceStub);
+
+    @Test
+    @DisplayName("should convert client credentials without loading user info")
+    void shouldConvertClientCredentials() {
+        final QuickcaseAuthentication authentication = converter.convert(jwt(CLIENT_ID, "scope-1")).block();
+
+        assertAll(
+                () -> assertThat(authentication, instanceOf(QuickcaseClientAuthentication.class)),
+                () -> assertThat(authentication.getId(), equalTo(CLIENT_ID)),
+                () -> assertThat(authentication.getAuthorities(), containsInAnyOrder(authorities("SCOPE_scope-1")))
+        );
+    }
+
+    @Test
+    @DisplayName("should convert user credentials with loaded user info")
+    void shouldConvertUserCredentials() {
+        final QuickcaseAuthentication authentication = converter.convert(jwt(USER_ID, "openid")).block();
+
+        assertAll(
+                () -> assertThat(authentication, instanceOf(QuickcaseUserAuthentication.class)),
+                () -> assertThat(authentication.getId(), equalTo(USER_ID)),
+                () -> assertThat(authentication.getName(), equalTo(USER_NAME)),
+                () -> assertThat(authentication.getAccessToken(), equalTo(ACCESS_TOKEN)),
+                () -> assertThat(authentication.getAuthorities(), containsInAnyOrder(authorities(
+                        "SCOPE_openid",
+                        "ROLE_" + ROLE_1
+                )))
+        );
+    }
+
+    private Jwt jwt(String subject, String scope) {
+        return Jwt.withTokenValue(ACCESS_TOKEN)
+                  .header("alg", "HS256")
+                  .claim("sub", subject)
+                  .claim("scope", scope)
+                  .build();
+    }
+
+    private GrantedAuthority[] authorities(String... authorities) {
+        return Arrays.stream(authorities)
+                     .map(SimpleGrantedAuthority::new)
+                     .toArray(GrantedAuthority[]::new);
+    }
+}
@@ -1,6 +1,7 @@
 package app.quickcase.spring.oidc.claims;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
 
 @DisplayName("JwtClaimsParser")
 class JwtClaimsParserTest {
@@ -73,6 +75,32 @@ class JwtClaimsParserTest {
             assertThat(claim1.orElseThrow().get("key").asText(), equalTo("value"));
         }
 
+        @Test
+        @DisplayName("should convert Map claim into ObjectNode when present")
+        void claimPresentAsMap() {
+            final Map<String, Object> organisation = Map.of("access", "group", "classification", "public");
+            final ClaimsParser parser = new JwtClaimsParser(mapWith("claim1", Map.of("org-1", organisation,
+                                                                                      "org-2", List.of(1, 2))));
+
+            final ObjectNode claim1 = parser.getObject("claim1").orElseThrow();
+
+            assertAll(
+                    () -> assertThat(claim1.get("org-1").get("access").asText(), equalTo("group")),
+                    () -> assertThat(claim1.get("org-1").get("classification").asText(), equalTo("public")),
+                    () -> assertThat(claim1.get("org-2").get(1).asInt(), equalTo(2))
+            );
+        }
+
+        @Test
+        @DisplayName("should return empty optional when claim is List")
+        void claimPresentAsList() {
+            final ClaimsParser parser = new JwtClaimsParser(mapWith("claim1", List.of("value1")));
+
+            final Optional<ObjectNode> claim1 = parser.getObject("claim1");
+
+            assertThat(claim1.isEmpty(), is(true));
+        }
+
         @Test
         @DisplayName("should return empty optional when claim is non-object")
         void claimMissingAsNonObject() {
@@ -0,0 +1,110 @@
+package app.quickcase.spring.oidc.claims;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("ReadOnlyJsonNodes")
+class ReadOnlyJsonNodesTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String JSON = "{\"org-1\": {\"access\": \"group\", \"groups\": [\"g1\", {\"id\": \"g2\"}]}," +
+            "\"count\": 2}";
+
+    @Test
+    @DisplayName("should read through to the original tree")
+    void shouldReadOriginalTree() throws Exception {
+        final ObjectNode source = (ObjectNode) MAPPER.readTree(JSON);
+        final ObjectNode view = ReadOnlyJsonNodes.view(source);
+
+        final List<String> names = new ArrayList<>();
+        view.fieldNames().forEachRemaining(names::add);
+
+        assertAll(
+                () -> assertThat(names, contains("org-1", "count")),
+                () -> assertThat(view.size(), is(2)),
+                () -> assertThat(view.has("org-1"), is(true)),
+                () -> assertThat(view.get("org-1").get("access").asText(), equalTo("group")),
+                () -> assertThat(view.at("/org-1/groups/1/id").asText(), equalTo("g2")),
+                () -> assertThat(view.get("count").asInt(), is(2)),
+                () -> assertThat(view.get("missing"), nullValue()),
+                () -> assertThat(view, equalTo(source)),
+                () -> assertThat(source, equalTo(view)),
+                () -> assertThat(MAPPER.readTree(view.toString()), equalTo(source))
+        );
+    }
+
+    @Test
+    @DisplayName("should reject mutations of objects and arrays at any depth")
+    void shouldRejectMutations() throws Exception {
+        final ObjectNode view = ReadOnlyJsonNodes.view((ObjectNode) MAPPER.readTree(JSON));
+        final ObjectNode organisation = (ObjectNode) view.get("org-1");
+        final ArrayNode groups = (ArrayNode) organisation.get("groups");
+
+        assertAll(
+                () -> assertThrows(UnsupportedOperationException.class, () -> view.put("count", 3)),
+                () -> assertThrows(UnsupportedOperationException.class, () -> view.remove("count")),
+                () -> assertThrows(UnsupportedOperationException.class, view::removeAll),
+                () -> assertThrows(UnsupportedOperationException.class, () -> view.fieldNames().remove()),
+                () -> assertThrows(UnsupportedOperationException.class, () -> organisation.put("access", "x")),
+                () -> assertThrows(UnsupportedOperationException.class, () -> groups.add("g3")),
+                () -> assertThrows(UnsupportedOperationException.class, () -> groups.remove(0)),
+                () -> assertThrows(UnsupportedOperationException.class,
+                                   () -> ((ObjectNode) groups.get(1)).put("id", "x"))
+        );
+    }
+
+    @Test
+    @DisplayName("should return mutable deep copy")
+    void shouldDeepCopy() throws Exception {
+        final ObjectNode source = (ObjectNode) MAPPER.readTree(JSON);
+        final ObjectNode copy = ReadOnlyJsonNodes.view(source).deepCopy();
+
+        copy.put("count", 3);
+        ((ObjectNode) copy.get("org-1")).put("access", "organisation");
+
+        assertAll(
+                () -> assertThat(copy.get("count").asInt(), is(3)),
+                () -> assertThat(source.get("count").asInt(), is(2)),
+                () -> assertThat(source.get("org-1").get("access").asText(), equalTo("group"))
+        );
+    }
+
+    @Test
+    @DisplayName("should return mutable deep copy of array")
+    void shouldDeepCopyArray() throws Exception {
+        final ArrayNode source = (ArrayNode) MAPPER.readTree(JSON).at("/org-1/groups");
+        final ArrayNode copy = ReadOnlyJsonNodes.view(source).deepCopy();
+
+        copy.add("g3");
+        ((ObjectNode) copy.get(1)).put("id", "x");
+
+        assertAll(
+                () -> assertThat(copy.size(), is(3)),
+                () -> assertThat(source.size(), is(2)),
+                () -> assertThat(source.get(1).get("id").asText(), equalTo("g2"))
+        );
+    }
+
+    @Test
+    @DisplayName("should not wrap views and value nodes")
+    void shouldNotWrapTwice() throws Exception {
+        final ObjectNode view = ReadOnlyJsonNodes.view((ObjectNode) MAPPER.readTree(JSON));
+        final JsonNode count = view.get("count");
+
+        assertAll(
+                () -> assertThat(ReadOnlyJsonNodes.view(view), sameInstance(view)),
+                () -> assertThat(ReadOnlyJsonNodes.view(count), sameInstance(count))
+        );
+    }
+}
@@ -0,0 +1,73 @@
+package app.quickcase.spring.oidc.claims;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import app.quickcase.spring.oidc.OidcException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("StreamingClaimsReader")
+class StreamingClaimsReaderTest {
+    private static final String CLAIMS = "{" +
+            "\"sub\": \"user-123\"," +
+            "\"ignored\": {\"nested\": [1, 2, {\"deep\": true}]}," +
+            "\"organisations\": {\"org-1\": {\"access\": \"organisation\"}}," +
+            "\"ignored-array\": [\"a\", \"b\"]," +
+            "\"roles\": \"role1,role2\"" +
+            "}";
+
+    private final StreamingClaimsReader reader = new StreamingClaimsReader(Set.of("sub", "roles", "organisations"),
+                                                                           1024);
+
+    @Test
+    @DisplayName("should read named claims only")
+    void shouldReadNamedClaimsOnly() throws Exception {
+        final Map<String, JsonNode> claims = reader.read(stream(CLAIMS));
+
+        assertAll(
+                () -> assertThat(claims.keySet(), containsInAnyOrder("sub", "roles", "organisations")),
+                () -> assertThat(claims.get("sub").textValue(), equalTo("user-123")),
+                () -> assertThat(claims.get("roles").textValue(), equalTo("role1,role2")),
+                () -> assertThat(claims.get("organisations").get("org-1").get("access").textValue(),
+                                 equalTo("organisation"))
+        );
+    }
+
+    @Test
+    @DisplayName("should ignore missing claims")
+    void shouldIgnoreMissingClaims() throws Exception {
+        final Map<String, JsonNode> claims = reader.read(stream("{\"sub\": \"user-123\"}"));
+
+        assertThat(claims.keySet(), contains("sub"));
+    }
+
+    @Test
+    @DisplayName("should reject claims which are not a JSON object")
+    void shouldRejectNonObject() {
+        assertThrows(OidcException.class, () -> reader.read(stream("[\"sub\"]")));
+    }
+
+    @Test
+    @DisplayName("should reject claims exceeding maximum size")
+    void shouldRejectOversizedClaims() {
+        final StreamingClaimsReader smallReader = new StreamingClaimsReader(Set.of("sub"), 32);
+
+        final OidcException exception = assertThrows(OidcException.class, () -> smallReader.read(stream(CLAIMS)));
+
+        assertThat(exception.getMessage(), containsString("32 bytes"));
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
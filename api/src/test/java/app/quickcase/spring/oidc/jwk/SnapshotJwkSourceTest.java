@@ -0,0 +1,207 @@
+package app.quickcase.spring.oidc.jwk;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.utils.MutableClock;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("SnapshotJwkSource")
+class SnapshotJwkSourceTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private static final Duration UNKNOWN_KEY_INTERVAL = Duration.ofSeconds(30);
+
+    private static RSAKey key1;
+    private static RSAKey key2;
+    private static URL jwkSetUrl;
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger retrievals = new AtomicInteger();
+    private final MutableClock clock = new MutableClock(NOW);
+    private volatile String providerJwkSet;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException, IOException {
+        key1 = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        key2 = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        jwkSetUrl = new URL("https://oidc.provider/jwkset");
+    }
+
+    private final ResourceRetriever retriever = url -> {
+        retrievals.incrementAndGet();
+        if (providerJwkSet == null) {
+            throw new IOException("Provider unavailable");
+        }
+        return new Resource(providerJwkSet, "application/json");
+    };
+
+    @Test
+    @DisplayName("should serve keys from snapshot without calling provider")
+    void shouldServeKeysFromSnapshot() throws KeySourceException {
+        final SnapshotJwkSource source = source(new ByteArrayResource(jwkSet(key1).getBytes(StandardCharsets.UTF_8)));
+
+        final List<JWK> keys = source.get(selector("key-1"), null);
+
+        assertAll(
+                () -> assertThat(keys, hasSize(1)),
+                () -> assertThat(keys.get(0).getKeyID(), equalTo("key-1")),
+                () -> assertThat(retrievals.get(), equalTo(0))
+        );
+    }
+
+    @Test
+    @DisplayName("should ignore unreadable snapshot")
+    void shouldIgnoreUnreadableSnapshot() throws KeySourceException {
+        providerJwkSet = jwkSet(key1);
+        final SnapshotJwkSource source = source(new ByteArrayResource("not json".getBytes(StandardCharsets.UTF_8)));
+
+        final List<JWK> keys = source.get(selector("key-1"), null);
+
+        assertAll(
+                () -> assertThat(keys, hasSize(1)),
+                () -> assertThat(retrievals.get(), equalTo(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should refresh for unknown key and write snapshot back")
+    void shouldRefreshForUnknownKey() throws Exception {
+        final Path snapshot = tempDir.resolve("jwks.json");
+        Files.writeString(snapshot, jwkSet(key1));
+        providerJwkSet = jwkSet(key1, key2);
+        final SnapshotJwkSource source = source(new FileSystemResource(snapshot));
+
+        final List<JWK> keys = source.get(selector("key-2"), null);
+
+        assertAll(
+                () -> assertThat(keys, hasSize(1)),
+                () -> assertThat(keys.get(0).getKeyID(), equalTo("key-2")),
+                () -> assertThat(retrievals.get(), equalTo(1)),
+                () -> assertThat(JWKSet.parse(Files.readString(snapshot)).getKeyByKeyId("key-2"), notNullValue()),
+                () -> assertThat(JWKSet.parse(Files.readString(snapshot)).getKeyByKeyId("key-2").isPrivate(),
+                                 is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should create snapshot when missing")
+    void shouldCreateMissingSnapshot() throws Exception {
+        final Path snapshot = tempDir.resolve("new").resolve("jwks.json");
+        providerJwkSet = jwkSet(key1);
+        final SnapshotJwkSource source = source(new FileSystemResource(snapshot));
+
+        source.refresh();
+
+        assertThat(JWKSet.parse(Files.readString(snapshot)).getKeyByKeyId("key-1"), notNullValue());
+    }
+
+    @Test
+    @DisplayName("should rate limit refreshes for unknown keys")
+    void shouldRateLimitUnknownKeyRefreshes() throws KeySourceException {
+        providerJwkSet = jwkSet(key1);
+        final SnapshotJwkSource source = source(null);
+
+        source.get(selector("unknown"), null);
+        final List<JWK> keys = source.get(selector("unknown"), null);
+
+        assertAll(
+                () -> assertThat(keys, empty()),
+                () -> assertThat(retrievals.get(), equalTo(1))
+        );
+
+        clock.advance(UNKNOWN_KEY_INTERVAL);
+        source.get(selector("unknown"), null);
+
+        assertThat(retrievals.get(), equalTo(2));
+    }
+
+    @Test
+    @DisplayName("should coalesce concurrent refreshes for unknown keys")
+    void shouldCoalesceConcurrentRefreshes() throws Exception {
+        providerJwkSet = jwkSet(key1, key2);
+        final SnapshotJwkSource source = source(new ByteArrayResource(jwkSet(key1).getBytes(StandardCharsets.UTF_8)));
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final List<Callable<List<JWK>>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(() -> source.get(selector("key-2"), null));
+            }
+
+            for (Future<List<JWK>> keys : executor.invokeAll(lookups)) {
+                assertThat(keys.get(), hasSize(1));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(retrievals.get(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("should keep current keys when refresh fails")
+    void shouldKeepKeysWhenRefreshFails() throws KeySourceException {
+        final SnapshotJwkSource source = source(new ByteArrayResource(jwkSet(key1).getBytes(StandardCharsets.UTF_8)));
+
+        source.refresh();
+
+        assertAll(
+                () -> assertThat(retrievals.get(), equalTo(1)),
+                () -> assertThat(source.get(selector("key-1"), null), hasSize(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should throw when no keys available")
+    void shouldThrowWhenNoKeysAvailable() {
+        final SnapshotJwkSource source = source(null);
+
+        assertThrows(KeySourceException.class, () -> source.get(selector("key-1"), null));
+    }
+
+    private SnapshotJwkSource source(org.springframework.core.io.Resource snapshot) {
+        return new SnapshotJwkSource(jwkSetUrl, retriever, snapshot, UNKNOWN_KEY_INTERVAL, clock);
+    }
+
+    private static String jwkSet(JWK... keys) {
+        return new JWKSet(List.of(keys)).toString(false);
+    }
+
+    private static JWKSelector selector(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+}
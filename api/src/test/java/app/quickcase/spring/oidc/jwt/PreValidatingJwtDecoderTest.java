@@ -0,0 +1,187 @@
+package app.quickcase.spring.oidc.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.jwt.TokenRejectedException.Reason;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("PreValidatingJwtDecoder")
+class PreValidatingJwtDecoderTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private static final String ISSUER = "https://oidc.provider";
+    private static final String RS256_HEADER = "{\"alg\":\"RS256\",\"kid\":\"key-1\"}";
+
+    private final AtomicInteger delegated = new AtomicInteger();
+    private final JwtDecoder delegate = token -> {
+        delegated.incrementAndGet();
+        return Jwt.withTokenValue(token)
+                  .header("alg", "RS256")
+                  .claim("sub", "user-1")
+                  .build();
+    };
+    private final PreValidatingJwtDecoder decoder = new PreValidatingJwtDecoder(
+            delegate, Set.of("RS256"), ISSUER, Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC)
+    );
+
+    @Test
+    @DisplayName("should delegate valid token")
+    void shouldDelegateValidToken() {
+        final String token = token(RS256_HEADER, payload(NOW.plusSeconds(300), NOW.minusSeconds(10), ISSUER));
+
+        final Jwt jwt = decoder.decode(token);
+
+        assertAll(
+                () -> assertThat(jwt.getSubject(), equalTo("user-1")),
+                () -> assertThat(delegated.get(), equalTo(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should delegate token within clock skew")
+    void shouldToleratesClockSkew() {
+        decoder.decode(token(RS256_HEADER, payload(NOW.minusSeconds(30), NOW.plusSeconds(30), ISSUER)));
+
+        assertThat(delegated.get(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("should delegate token without time claims nor nested claims inspection")
+    void shouldDelegateTokenWithoutTimeClaims() {
+        decoder.decode(token(RS256_HEADER, "{\"roles\":[\"a\",{\"exp\":0}],\"iss\":\"" + ISSUER + "\"}"));
+
+        assertThat(delegated.get(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("should reject expired token")
+    void shouldRejectExpiredToken() {
+        assertRejected(token(RS256_HEADER, payload(NOW.minusSeconds(61), null, ISSUER)), Reason.EXPIRED);
+    }
+
+    @Test
+    @DisplayName("should reject token not yet valid")
+    void shouldRejectNotYetValidToken() {
+        assertRejected(token(RS256_HEADER, payload(NOW.plusSeconds(600), NOW.plusSeconds(120), ISSUER)),
+                       Reason.NOT_YET_VALID);
+    }
+
+    @Test
+    @DisplayName("should reject token from unexpected issuer")
+    void shouldRejectUnexpectedIssuer() {
+        assertAll(
+                () -> assertRejected(token(RS256_HEADER, payload(NOW.plusSeconds(300), null, "https://other")),
+                                     Reason.INVALID_ISSUER),
+                () -> assertRejected(token(RS256_HEADER, payload(NOW.plusSeconds(300), null, null)),
+                                     Reason.INVALID_ISSUER)
+        );
+    }
+
+    @Test
+    @DisplayName("should not check issuer when none expected")
+    void shouldNotCheckIssuerWhenNotExpected() {
+        final PreValidatingJwtDecoder decoder = new PreValidatingJwtDecoder(
+                delegate, Set.of("RS256"), null, Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC)
+        );
+
+        decoder.decode(token(RS256_HEADER, payload(NOW.plusSeconds(300), null, "https://other")));
+
+        assertThat(delegated.get(), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("should reject unsupported algorithms")
+    void shouldRejectUnsupportedAlgorithm() {
+        final String payload = payload(NOW.plusSeconds(300), null, ISSUER);
+        assertAll(
+                () -> assertRejected(token("{\"alg\":\"none\"}", payload), Reason.UNSUPPORTED_ALGORITHM),
+                () -> assertRejected(token("{\"alg\":\"HS256\"}", payload), Reason.UNSUPPORTED_ALGORITHM),
+                () -> assertRejected(token("{\"typ\":\"JWT\"}", payload), Reason.UNSUPPORTED_ALGORITHM)
+        );
+    }
+
+    @Test
+    @DisplayName("should reject malformed tokens")
+    void shouldRejectMalformedTokens() {
+        final String payload = payload(NOW.plusSeconds(300), null, ISSUER);
+        assertAll(
+                () -> assertRejected(null, Reason.MALFORMED),
+                () -> assertRejected("garbage", Reason.MALFORMED),
+                () -> assertRejected("a.b", Reason.MALFORMED),
+                () -> assertRejected("a.b.c.d.e", Reason.MALFORMED),
+                () -> assertRejected("!!!.!!!.sig", Reason.MALFORMED),
+                () -> assertRejected(token("[\"RS256\"]", payload), Reason.MALFORMED),
+                () -> assertRejected(token(RS256_HEADER, "{\"exp\":"), Reason.MALFORMED),
+                () -> assertRejected(token(RS256_HEADER, "not json"), Reason.MALFORMED)
+        );
+    }
+
+    @Test
+    @DisplayName("should count rejections by reason")
+    void shouldCountRejections() {
+        assertThrows(TokenRejectedException.class, () -> decoder.decode("garbage"));
+        assertThrows(TokenRejectedException.class, () -> decoder.decode("a.b"));
+        assertThrows(TokenRejectedException.class,
+                     () -> decoder.decode(token(RS256_HEADER, payload(NOW.minusSeconds(3600), null, ISSUER))));
+
+        assertAll(
+                () -> assertThat(decoder.getRejectionCount(Reason.MALFORMED), equalTo(2L)),
+                () -> assertThat(decoder.getRejectionCount(Reason.EXPIRED), equalTo(1L)),
+                () -> assertThat(decoder.getRejectionCount(Reason.INVALID_ISSUER), equalTo(0L))
+        );
+    }
+
+    @Test
+    @DisplayName("should throw stackless exceptions")
+    void shouldThrowStacklessExceptions() {
+        final TokenRejectedException exception = assertThrows(TokenRejectedException.class,
+                                                              () -> decoder.decode("garbage"));
+
+        assertThat(exception.getStackTrace(), emptyArray());
+    }
+
+    private void assertRejected(String token, Reason reason) {
+        final TokenRejectedException exception = assertThrows(TokenRejectedException.class,
+                                                              () -> decoder.decode(token));
+        assertAll(
+                () -> assertThat(exception.getReason(), equalTo(reason)),
+                () -> assertThat(delegated.get(), equalTo(0))
+        );
+    }
+
+    private static String payload(Instant expiresAt, Instant notBefore, String issuer) {
+        final StringBuilder payload = new StringBuilder("{\"sub\":\"user-1\"");
+        if (expiresAt != null) {
+            payload.append(",\"exp\":").append(expiresAt.getEpochSecond());
+        }
+        if (notBefore != null) {
+            payload.append(",\"nbf\":").append(notBefore.getEpochSecond());
+        }
+        if (issuer != null) {
+            payload.append(",\"iss\":\"").append(issuer).append('"');
+        }
+        return payload.append('}').toString();
+    }
+
+    private static String token(String header, String payload) {
+        return encode(header) + "." + encode(payload) + ".signature";
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
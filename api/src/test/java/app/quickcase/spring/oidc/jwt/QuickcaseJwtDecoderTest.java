@@ -0,0 +1,265 @@
+package app.quickcase.spring.oidc.jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.utils.MutableClock;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("QuickcaseJwtDecoder")
+class QuickcaseJwtDecoderTest {
+    private static RSAKey rsaKey;
+    private static ECKey ecKey;
+
+    private final AtomicInteger keyLookups = new AtomicInteger();
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private volatile JWKSet jwkSet;
+    private final JWKSource<SecurityContext> jwkSource = (selector, context) -> {
+        keyLookups.incrementAndGet();
+        return selector.select(jwkSet);
+    };
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        rsaKey = new RSAKeyGenerator(2048).keyID("rsa-1").generate();
+        ecKey = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+    }
+
+    private QuickcaseJwtDecoder decoder() {
+        jwkSet = new JWKSet(List.of(rsaKey.toPublicJWK(), ecKey.toPublicJWK()));
+        return new QuickcaseJwtDecoder(jwkSource, clock);
+    }
+
+    @Test
+    @DisplayName("should decode RS256 token as NimbusJwtDecoder does")
+    void shouldDecodeRs256Token() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims());
+
+        final Jwt jwt = decoder.decode(token);
+        final Jwt expected = nimbusDecoder(JWSAlgorithm.RS256).decode(token);
+
+        assertAll(
+                () -> assertThat(jwt.getTokenValue(), equalTo(token)),
+                () -> assertThat(jwt.getHeaders(), equalTo(expected.getHeaders())),
+                () -> assertThat(jwt.getClaims(), equalTo(expected.getClaims())),
+                () -> assertThat(jwt.getExpiresAt(), equalTo(expected.getExpiresAt())),
+                () -> assertThat(jwt.getAudience(), contains("quickcase")),
+                () -> assertThat(jwt.getClaimAsMap("profile"), equalTo(Map.of("level", 3L, "active", true)))
+        );
+    }
+
+    @Test
+    @DisplayName("should decode ES256 token as NimbusJwtDecoder does")
+    void shouldDecodeEs256Token() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.ES256, ecKey, new ECDSASigner(ecKey), claims());
+
+        final Jwt jwt = decoder.decode(token);
+
+        assertAll(
+                () -> assertThat(jwt.getHeaders(), equalTo(nimbusDecoder(JWSAlgorithm.ES256).decode(token).getHeaders())),
+                () -> assertThat(jwt.getClaims(), equalTo(nimbusDecoder(JWSAlgorithm.ES256).decode(token).getClaims()))
+        );
+    }
+
+    @Test
+    @DisplayName("should resolve key once per kid")
+    void shouldResolveKeyOncePerKid() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims());
+
+        decoder.decode(token);
+        decoder.decode(token);
+        decoder.decode(sign(JWSAlgorithm.ES256, ecKey, new ECDSASigner(ecKey), claims()));
+
+        assertThat(keyLookups.get(), equalTo(2));
+    }
+
+    @Test
+    @DisplayName("should stop accepting revoked key once re-resolved")
+    void shouldStopAcceptingRevokedKey() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims());
+        decoder.decode(token);
+
+        jwkSet = new JWKSet(List.of(ecKey.toPublicJWK()));
+        decoder.decode(token);
+        clock.advance(Duration.ofMinutes(5));
+
+        assertAll(
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode(token)),
+                () -> assertThat(keyLookups.get(), equalTo(2))
+        );
+    }
+
+    @Test
+    @DisplayName("should accept key rotated under same kid once re-resolved")
+    void shouldAcceptRotatedKey() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID(rsaKey.getKeyID()).generate();
+        final String token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims());
+        final String rotatedToken = sign(JWSAlgorithm.RS256, rotatedKey, new RSASSASigner(rotatedKey), claims());
+        decoder.decode(token);
+
+        jwkSet = new JWKSet(List.of(rotatedKey.toPublicJWK()));
+        clock.advance(Duration.ofMinutes(5));
+
+        assertAll(
+                () -> assertThat(decoder.decode(rotatedToken).getSubject(), equalTo("user-1")),
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode(token)),
+                () -> assertThat(decoder.decode(rotatedToken).getSubject(), equalTo("user-1"))
+        );
+    }
+
+    @Test
+    @DisplayName("should accept JWT type only, as NimbusJwtDecoder does")
+    void shouldAcceptJwtTypeOnly() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String jwtToken = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims(),
+                                     JOSEObjectType.JWT);
+        final String lowerCaseToken = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims(),
+                                           new JOSEObjectType("jwt"));
+        final String accessToken = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims(),
+                                        new JOSEObjectType("at+jwt"));
+
+        assertAll(
+                () -> assertThat(decoder.decode(jwtToken).getSubject(), equalTo("user-1")),
+                () -> assertThat(decoder.decode(lowerCaseToken).getSubject(), equalTo("user-1")),
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode(accessToken)),
+                () -> assertThrows(BadJwtException.class,
+                                   () -> nimbusDecoder(JWSAlgorithm.RS256).decode(accessToken))
+        );
+    }
+
+    @Test
+    @DisplayName("should reject token with invalid signature")
+    void shouldRejectInvalidSignature() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), claims());
+        final String otherToken = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), new JWTClaimsSet.Builder()
+                .subject("other").build());
+        final String tampered = token.substring(0, token.lastIndexOf('.'))
+                                + otherToken.substring(otherToken.lastIndexOf('.'));
+
+        assertAll(
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode(tampered)),
+                // Verification still works after a failure
+                () -> assertThat(decoder.decode(token).getSubject(), equalTo("user-1"))
+        );
+    }
+
+    @Test
+    @DisplayName("should reject token signed with unsupported algorithm")
+    void shouldRejectUnsupportedAlgorithm() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.HS256, rsaKey, new MACSigner(new byte[32]), claims());
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("should reject token signed with unknown key")
+    void shouldRejectUnknownKey() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final RSAKey unknownKey = new RSAKeyGenerator(2048).keyID("unknown").generate();
+        final String token = sign(JWSAlgorithm.RS256, unknownKey, new RSASSASigner(unknownKey), claims());
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("should reject expired token")
+    void shouldRejectExpiredToken() throws JOSEException {
+        final QuickcaseJwtDecoder decoder = decoder();
+        final String token = sign(JWSAlgorithm.RS256, rsaKey, new RSASSASigner(rsaKey), new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .expirationTime(java.util.Date.from(Instant.now().minusSeconds(3600)))
+                .build());
+
+        assertThrows(JwtValidationException.class, () -> decoder.decode(token));
+    }
+
+    @Test
+    @DisplayName("should reject malformed tokens")
+    void shouldRejectMalformedTokens() {
+        final QuickcaseJwtDecoder decoder = decoder();
+
+        assertAll(
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode(null)),
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode("garbage")),
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode("a.b.c.d.e")),
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode("!!.!!.!!")),
+                () -> assertThrows(BadJwtException.class, () -> decoder.decode("e30.e30.AA"))
+        );
+    }
+
+    private NimbusJwtDecoder nimbusDecoder(JWSAlgorithm algorithm) {
+        final DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    private static JWTClaimsSet claims() {
+        return new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .issuer("https://oidc.provider")
+                .audience("quickcase")
+                .issueTime(java.util.Date.from(Instant.now().minusSeconds(10)))
+                .expirationTime(java.util.Date.from(Instant.now().plusSeconds(300)))
+                .claim("scope", "openid profile")
+                .claim("app.quickcase.claims/roles", List.of("caseworker", "admin"))
+                .claim("profile", Map.of("level", 3, "active", true))
+                .build();
+    }
+
+    private static String sign(JWSAlgorithm algorithm, JWK key, JWSSigner signer, JWTClaimsSet claims)
+            throws JOSEException {
+        return sign(algorithm, key, signer, claims, null);
+    }
+
+    private static String sign(JWSAlgorithm algorithm, JWK key, JWSSigner signer, JWTClaimsSet claims,
+                               JOSEObjectType type) throws JOSEException {
+        final JWSHeader header = new JWSHeader.Builder(algorithm).keyID(key.getKeyID()).type(type).build();
+        final SignedJWT jwt = new SignedJWT(header, claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+}
@@ -164,4 +164,39 @@ class JsonOrganisationProfilesParserTest {
                 () -> assertThat(orgs.get("org-1").getGroup(), is(Optional.empty()))
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("should decode enum values regardless of case")
+    void shouldDecodeEnumsIgnoringCase() throws JsonProcessingException {
+        final JsonNode tree = MAPPER.readTree("{" +
+                                                      "\"org-1\": {\"access\": \"Organisation\", \"classification\": \"pRiVaTe\"}" +
+                                                      "}");
+
+        final Map<String, OrganisationProfile> orgs = new JsonOrganisationProfilesParser().parse(tree);
+
+        assertAll(
+                () -> assertThat(orgs.get("org-1").getAccessLevel(), equalTo(ORGANISATION)),
+                () -> assertThat(orgs.get("org-1").getSecurityClassification(), equalTo(PRIVATE))
+        );
+    }
+
+    @Test
+    @DisplayName("should share profile instances")
+    void shouldShareProfiles() throws JsonProcessingException {
+        final JsonNode tree = MAPPER.readTree("{" +
+                                                      "\"org-1\": {\"access\": \"organisation\", \"classification\": \"private\"}," +
+                                                      "\"org-2\": {\"access\": \"organisation\", \"classification\": \"private\"}," +
+                                                      "\"org-3\": {\"access\": \"group\", \"group\": \"group-1\"}," +
+                                                      "\"org-4\": {\"access\": \"group\", \"group\": \"Group-1\"}" +
+                                                      "}");
+
+        final Map<String, OrganisationProfile> orgs = new JsonOrganisationProfilesParser().parse(tree);
+
+        assertAll(
+                () -> assertThat(orgs.get("org-1"), sameInstance(orgs.get("org-2"))),
+                () -> assertThat(orgs.get("org-1"), sameInstance(OrganisationProfile.of(PRIVATE, ORGANISATION, null))),
+                () -> assertThat(orgs.get("org-3"), sameInstance(orgs.get("org-4"))),
+                () -> assertThat(orgs.get("org-3").getGroup().orElseThrow(), equalTo("group-1"))
+        );
+    }
+}
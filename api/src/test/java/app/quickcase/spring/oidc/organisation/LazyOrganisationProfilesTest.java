@@ -0,0 +1,89 @@
+package app.quickcase.spring.oidc.organisation;
+
+import java.util.Map;
+
+import app.quickcase.spring.oidc.AccessLevel;
+import app.quickcase.spring.oidc.SecurityClassification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("LazyOrganisationProfiles")
+class LazyOrganisationProfilesTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ORGANISATIONS = "{" +
+            "\"Org-1\": {\"access\": \"organisation\", \"classification\": \"private\"}," +
+            "\"org-2\": {\"access\": \"group\", \"classification\": \"public\", \"group\": \"group-1\"}," +
+            "\"org-3\": \"not an object\"" +
+            "}";
+
+    @Test
+    @DisplayName("should decode profiles on first lookup only")
+    void shouldDecodeOnLookup() throws Exception {
+        final LazyOrganisationProfiles profiles = profiles();
+
+        assertThat(profiles.decodedCount(), is(0));
+
+        final OrganisationProfile profile = profiles.get("org-1");
+
+        assertAll(
+                () -> assertThat(profile.getAccessLevel(), is(AccessLevel.ORGANISATION)),
+                () -> assertThat(profile.getSecurityClassification(), is(SecurityClassification.PRIVATE)),
+                () -> assertThat(profiles.get("ORG-1"), sameInstance(profile)),
+                () -> assertThat(profiles.decodedCount(), is(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should look up organisations case-insensitively")
+    void shouldLookUpCaseInsensitively() throws Exception {
+        final LazyOrganisationProfiles profiles = profiles();
+
+        assertAll(
+                () -> assertThat(profiles.containsKey("ORG-2"), is(true)),
+                () -> assertThat(profiles.get("Org-2").getGroup().orElseThrow(), equalTo("group-1")),
+                () -> assertThat(profiles.get("org-4"), nullValue()),
+                () -> assertThat(profiles.get(4), nullValue())
+        );
+    }
+
+    @Test
+    @DisplayName("should ignore organisations which are not objects")
+    void shouldIgnoreNonObjects() throws Exception {
+        final LazyOrganisationProfiles profiles = profiles();
+
+        assertAll(
+                () -> assertThat(profiles.size(), is(2)),
+                () -> assertThat(profiles.keySet(), contains("Org-1", "org-2")),
+                () -> assertThat(profiles.containsKey("org-3"), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should be equal to eagerly parsed profiles")
+    void shouldEqualParsedProfiles() throws Exception {
+        final ObjectNode organisations = (ObjectNode) MAPPER.readTree(ORGANISATIONS);
+        final Map<String, OrganisationProfile> parsed = new JsonOrganisationProfilesParser().parse(organisations);
+
+        assertThat(profiles(), equalTo(parsed));
+    }
+
+    @Test
+    @DisplayName("should be read-only")
+    void shouldBeReadOnly() throws Exception {
+        final LazyOrganisationProfiles profiles = profiles();
+
+        assertThrows(UnsupportedOperationException.class,
+                     () -> profiles.put("org-4", OrganisationProfile.builder().build()));
+    }
+
+    private LazyOrganisationProfiles profiles() throws Exception {
+        return new LazyOrganisationProfiles((ObjectNode) MAPPER.readTree(ORGANISATIONS));
+    }
+}
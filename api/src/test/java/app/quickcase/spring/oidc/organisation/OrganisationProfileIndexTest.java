@@ -0,0 +1,93 @@
+package app.quickcase.spring.oidc.organisation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import app.quickcase.spring.oidc.AccessLevel;
+import app.quickcase.spring.oidc.SecurityClassification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("OrganisationProfileIndex")
+class OrganisationProfileIndexTest {
+    private static final OrganisationProfile PROFILE_1 = OrganisationProfile.of(SecurityClassification.PRIVATE,
+                                                                                AccessLevel.ORGANISATION,
+                                                                                null);
+    private static final OrganisationProfile PROFILE_2 = OrganisationProfile.of(null, null, null);
+
+    @Test
+    @DisplayName("should look up organisations ignoring case")
+    void shouldLookUpIgnoringCase() {
+        final OrganisationProfileIndex index = OrganisationProfileIndex.of(Map.of("Org-1", PROFILE_1,
+                                                                                  "stra\u00DFe-\u01C5", PROFILE_2));
+
+        assertAll(
+                () -> assertThat(index.get("org-1"), sameInstance(PROFILE_1)),
+                () -> assertThat(index.get("ORG-1"), sameInstance(PROFILE_1)),
+                () -> assertThat(index.get("STRASSE-\u01C5"), nullValue()),
+                () -> assertThat(index.get("STRA\u00DFE-\u01C6"), sameInstance(PROFILE_2)),
+                () -> assertThat(index.containsKey("org-2"), is(false)),
+                () -> assertThat(index.get(null), nullValue())
+        );
+    }
+
+    @Test
+    @DisplayName("should match organisations as case-insensitive comparison does")
+    void shouldMatchCaseInsensitiveComparison() {
+        final List<String> ids = List.of("abc", "ABC", "\u01C5", "\u01C6", "\u01C4", "\u0131", "I", "i", "\u0130",
+                                         "\u03A3", "\u03C3", "\u03C2", "\uD801\uDC00", "\uD801\uDC28", "\u00DF", "SS");
+
+        for (String a : ids) {
+            for (String b : ids) {
+                assertThat(a + " ~ " + b,
+                           OrganisationProfileIndex.key(a).equals(OrganisationProfileIndex.key(b)),
+                           is(a.compareToIgnoreCase(b) == 0));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should keep first identifier with last profile when identifiers collide")
+    void shouldResolveCollisions() {
+        final Map<String, OrganisationProfile> profiles = new LinkedHashMap<>();
+        profiles.put("org-1", PROFILE_1);
+        profiles.put("ORG-1", PROFILE_2);
+
+        final OrganisationProfileIndex index = OrganisationProfileIndex.of(profiles);
+
+        assertAll(
+                () -> assertThat(index.size(), is(1)),
+                () -> assertThat(index.keySet(), contains("org-1")),
+                () -> assertThat(index.get("Org-1"), sameInstance(PROFILE_2))
+        );
+    }
+
+    @Test
+    @DisplayName("should look up organisations in bulk")
+    void shouldLookUpInBulk() {
+        final OrganisationProfileIndex index = OrganisationProfileIndex.of(Map.of("org-1", PROFILE_1));
+
+        final OrganisationProfile[] profiles = index.getAll(Arrays.asList("org-1", "ORG-1", "org-2", null, "org-1"));
+
+        assertThat(profiles, arrayContaining(PROFILE_1, PROFILE_1, null, null, PROFILE_1));
+    }
+
+    @Test
+    @DisplayName("should be immutable")
+    void shouldBeImmutable() {
+        final OrganisationProfileIndex index = OrganisationProfileIndex.of(Map.of("org-1", PROFILE_1));
+
+        assertAll(
+                () -> assertThrows(UnsupportedOperationException.class, () -> index.put("org-2", PROFILE_2)),
+                () -> assertThrows(UnsupportedOperationException.class, () -> index.remove("org-1")),
+                () -> assertThrows(UnsupportedOperationException.class, index::clear)
+        );
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 
 class OrganisationProfileTest {
 
@@ -54,4 +55,29 @@ class OrganisationProfileTest {
         assertThat(profile.getAccessLevel(), Matchers.is(AccessLevel.INDIVIDUAL));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("should return shared profiles")
+    void shouldReturnSharedProfiles() {
+        final OrganisationProfile profile = OrganisationProfile.builder()
+                                                               .accessLevel(AccessLevel.ORGANISATION)
+                                                               .build();
+        final OrganisationProfile groupProfile = OrganisationProfile.of(SecurityClassification.PRIVATE,
+                                                                        AccessLevel.GROUP,
+                                                                        "hello-group");
+
+        assertThat(profile, sameInstance(OrganisationProfile.of(null, AccessLevel.ORGANISATION, null)));
+        assertThat(groupProfile, sameInstance(OrganisationProfile.builder()
+                                                                 .accessLevel(AccessLevel.GROUP)
+                                                                 .securityClassification(SecurityClassification.PRIVATE)
+                                                                 .group("hello-group")
+                                                                 .build()));
+    }
+
+    @Test
+    @DisplayName("should use access level INDIVIDUAL for GROUP without group")
+    void shouldDowngradeGroupWithoutGroup() {
+        final OrganisationProfile profile = OrganisationProfile.of(null, AccessLevel.GROUP, null);
+
+        assertThat(profile.getAccessLevel(), is(AccessLevel.INDIVIDUAL));
+    }
+}
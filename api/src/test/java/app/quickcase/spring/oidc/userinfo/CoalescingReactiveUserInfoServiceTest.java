@@ -0,0 +1,89 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.OidcException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("CoalescingReactiveUserInfoService")
+class CoalescingReactiveUserInfoServiceTest {
+    private static final String SUBJECT = "user-123";
+    private static final String TOKEN = "token-1";
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Sinks.One<UserInfo> response = Sinks.one();
+    private final CoalescingReactiveUserInfoService service = new CoalescingReactiveUserInfoService(
+            (subject, token) -> Mono.defer(() -> {
+                calls.incrementAndGet();
+                return response.asMono();
+            })
+    );
+
+    @Test
+    @DisplayName("should share in-flight call between concurrent subscribers")
+    void shouldCoalesceConcurrentLoads() {
+        final UserInfo[] results = new UserInfo[2];
+        service.loadUserInfo(SUBJECT, TOKEN).subscribe(userInfo -> results[0] = userInfo);
+        service.loadUserInfo(SUBJECT, TOKEN).subscribe(userInfo -> results[1] = userInfo);
+
+        final UserInfo userInfo = UserInfo.builder(SUBJECT).build();
+        response.tryEmitValue(userInfo);
+
+        assertAll(
+                () -> assertThat(results[0], sameInstance(userInfo)),
+                () -> assertThat(results[1], sameInstance(userInfo)),
+                () -> assertThat(calls.get(), is(1)),
+                () -> assertThat(service.getCoalescedCount(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should share error of in-flight call")
+    void shouldShareError() {
+        final Throwable[] errors = new Throwable[2];
+        service.loadUserInfo(SUBJECT, TOKEN).subscribe(userInfo -> {}, error -> errors[0] = error);
+        service.loadUserInfo(SUBJECT, TOKEN).subscribe(userInfo -> {}, error -> errors[1] = error);
+
+        final OidcException failure = new OidcException("Failed");
+        response.tryEmitError(failure);
+
+        assertAll(
+                () -> assertThat(errors[0], sameInstance(failure)),
+                () -> assertThat(errors[1], sameInstance(failure)),
+                () -> assertThat(calls.get(), is(1))
+        );
+    }
+
+    @Test
+    @DisplayName("should delegate again once call completed")
+    void shouldDelegateSequentialLoads() {
+        response.tryEmitValue(UserInfo.builder(SUBJECT).build());
+
+        service.loadUserInfo(SUBJECT, TOKEN).block();
+        service.loadUserInfo(SUBJECT, TOKEN).block();
+
+        assertAll(
+                () -> assertThat(calls.get(), is(2)),
+                () -> assertThat(service.getCoalescedCount(), is(0L))
+        );
+    }
+
+    @Test
+    @DisplayName("should not share call between different subjects")
+    void shouldNotCoalesceDifferentSubjects() {
+        service.loadUserInfo(SUBJECT, TOKEN).subscribe();
+        service.loadUserInfo("other", TOKEN).subscribe();
+
+        assertAll(
+                () -> assertThat(calls.get(), is(2)),
+                () -> assertThat(service.getCoalescedCount(), is(0L))
+        );
+    }
+}
@@ -0,0 +1,116 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.OidcException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("CoalescingUserInfoService")
+class CoalescingUserInfoServiceTest {
+    private static final String SUBJECT = "user-123";
+    private static final String TOKEN = "token-1";
+    private static final int CALLERS = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should delegate sequential calls")
+    void shouldDelegateSequentialCalls() {
+        final CoalescingUserInfoService service = new CoalescingUserInfoService((subject, token) -> {
+            calls.incrementAndGet();
+            return UserInfo.builder(subject).build();
+        });
+
+        service.loadUserInfo(SUBJECT, TOKEN);
+        service.loadUserInfo(SUBJECT, TOKEN);
+
+        assertAll(
+                () -> assertThat(calls.get(), is(2)),
+                () -> assertThat(service.getCoalescedCount(), is(0L))
+        );
+    }
+
+    @Test
+    @DisplayName("should share a single call between concurrent callers")
+    void shouldShareConcurrentCalls() throws Exception {
+        final CoalescingUserInfoService service = new CoalescingUserInfoService((subject, token) -> {
+            calls.incrementAndGet();
+            awaitRelease();
+            return UserInfo.builder(subject).build();
+        });
+
+        final List<Future<UserInfo>> results = submitConcurrently(service);
+
+        final UserInfo first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<UserInfo> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), sameInstance(first));
+        }
+        assertAll(
+                () -> assertThat(calls.get(), is(1)),
+                () -> assertThat(service.getCoalescedCount(), is((long) CALLERS - 1))
+        );
+    }
+
+    @Test
+    @DisplayName("should propagate same failure to concurrent callers")
+    void shouldShareFailure() throws Exception {
+        final OidcException failure = new OidcException("Failed");
+        final CoalescingUserInfoService service = new CoalescingUserInfoService((subject, token) -> {
+            calls.incrementAndGet();
+            awaitRelease();
+            throw failure;
+        });
+
+        final List<Future<UserInfo>> results = submitConcurrently(service);
+
+        for (Future<UserInfo> result : results) {
+            final Exception exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(exception.getCause(), sameInstance(failure));
+        }
+        assertThat(calls.get(), is(1));
+    }
+
+    private List<Future<UserInfo>> submitConcurrently(CoalescingUserInfoService service) throws Exception {
+        final List<Future<UserInfo>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> service.loadUserInfo(SUBJECT, TOKEN)));
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getCoalescedCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        return results;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.util.HashMap;
+
+import app.quickcase.spring.oidc.OidcException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("DefaultReactiveUserInfoService")
+class DefaultReactiveUserInfoServiceTest {
+    private static final String ACCESS_TOKEN = "accessToken9080";
+    private static final String SUBJECT = "user-51423";
+
+    private final ReactiveUserInfoGateway stubGateway = accessToken -> {
+        final HashMap<String, JsonNode> claims = new HashMap<>();
+        claims.put("sub", new TextNode(SUBJECT));
+        claims.put("name", new TextNode(accessToken));
+        return Mono.just(claims);
+    };
+
+    private final UserInfoExtractor stubExtractor = claims -> UserInfo.builder(claims.getString("sub").get())
+                                                                      .name(claims.getString("name").get())
+                                                                      .build();
+
+    @Test
+    @DisplayName("should fetch and extract user info")
+    void shouldFetchAndExtractUserInfo() {
+        final ReactiveUserInfoService userInfoService = new DefaultReactiveUserInfoService(stubGateway,
+                                                                                           stubExtractor);
+
+        final UserInfo userInfo = userInfoService.loadUserInfo(SUBJECT, ACCESS_TOKEN).block();
+
+        assertThat(userInfo.getSubject(), equalTo(SUBJECT));
+        assertThat(userInfo.getName(), equalTo(ACCESS_TOKEN));
+    }
+
+    @Test
+    @DisplayName("should fail when expected subject does not match user info subject")
+    void shouldFailOnSubjectMismatch() {
+        final ReactiveUserInfoService userInfoService = new DefaultReactiveUserInfoService(stubGateway,
+                                                                                           stubExtractor);
+
+        final Mono<UserInfo> userInfo = userInfoService.loadUserInfo("other", ACCESS_TOKEN);
+
+        assertThrows(OidcException.class, userInfo::block);
+    }
+
+    @Test
+    @DisplayName("should fail when user info response is empty")
+    void shouldFailOnEmptyResponse() {
+        final ReactiveUserInfoService userInfoService = new DefaultReactiveUserInfoService(token -> Mono.empty(),
+                                                                                           stubExtractor);
+
+        final Mono<UserInfo> userInfo = userInfoService.loadUserInfo(SUBJECT, ACCESS_TOKEN);
+
+        assertThrows(OidcException.class, userInfo::block);
+    }
+}
@@ -0,0 +1,72 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+
+import app.quickcase.spring.oidc.claims.StreamingClaimsReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withUnauthorizedRequest;
+
+@DisplayName("StreamingUserInfoGateway")
+class StreamingUserInfoGatewayTest {
+    private static final URI USER_INFO_URI = URI.create("https://oidc.local/userInfo");
+    private static final String ACCESS_TOKEN = "access6789";
+
+    private MockRestServiceServer server;
+    private StreamingUserInfoGateway userInfoGateway;
+
+    @BeforeEach
+    void setUp() {
+        final RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        userInfoGateway = new StreamingUserInfoGateway(USER_INFO_URI,
+                                                       restTemplate,
+                                                       new StreamingClaimsReader(Set.of("sub"), 1024));
+    }
+
+    @Test
+    @DisplayName("should get named user info claims")
+    void shouldGetUserInfo() {
+        server.expect(requestTo(USER_INFO_URI))
+              .andExpect(method(HttpMethod.GET))
+              .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer " + ACCESS_TOKEN))
+              .andRespond(withSuccess("{\"sub\": \"user-123\", \"other\": \"ignored\"}", MediaType.APPLICATION_JSON));
+
+        final Map<String, JsonNode> claims = userInfoGateway.getClaims(ACCESS_TOKEN);
+
+        assertAll(
+                () -> assertThat(claims.keySet(), contains("sub")),
+                () -> assertThat(claims.get("sub").textValue(), equalTo("user-123"))
+        );
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("should propagate error responses")
+    void shouldPropagateErrors() {
+        server.expect(requestTo(USER_INFO_URI))
+              .andRespond(withUnauthorizedRequest());
+
+        assertThrows(HttpClientErrorException.Unauthorized.class, () -> userInfoGateway.getClaims(ACCESS_TOKEN));
+    }
+}
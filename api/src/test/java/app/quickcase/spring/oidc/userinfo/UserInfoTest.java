@@ -1,14 +1,21 @@
 package app.quickcase.spring.oidc.userinfo;
 
+import java.util.List;
+
+import app.quickcase.spring.oidc.organisation.LazyOrganisationProfiles;
 import app.quickcase.spring.oidc.organisation.OrganisationProfile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static app.quickcase.spring.oidc.AccessLevel.GROUP;
 import static app.quickcase.spring.oidc.SecurityClassification.PRIVATE;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 @DisplayName("UserInfo")
@@ -87,4 +94,50 @@ class UserInfoTest {
                    equalTo(orgProfile));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("should keep lazy organisation profiles")
+    void keepLazyOrganisationProfiles() throws Exception {
+        final LazyOrganisationProfiles profiles = lazyProfiles();
+        final UserInfo userInfo = UserInfo.builder(SUBJECT)
+                                          .organisationProfiles(profiles)
+                                          .build();
+
+        assertThat(userInfo.getOrganisationProfiles(), sameInstance(profiles));
+    }
+
+    @Test
+    @DisplayName("should combine lazy organisation profiles with other profiles")
+    void combineLazyOrganisationProfiles() throws Exception {
+        final OrganisationProfile orgProfile = OrganisationProfile.builder().build();
+        final UserInfo userInfo = UserInfo.builder(SUBJECT)
+                                          .organisationProfiles(lazyProfiles())
+                                          .organisationProfile("org-2", orgProfile)
+                                          .build();
+
+        assertAll(
+                () -> assertThat(userInfo.getOrganisationProfiles().get("ORG-1").getAccessLevel(), is(GROUP)),
+                () -> assertThat(userInfo.getOrganisationProfiles().get("ORG-2"), equalTo(orgProfile))
+        );
+    }
+
+    @Test
+    @DisplayName("should expose organisation profiles as index for bulk lookups")
+    void indexOrganisationProfiles() {
+        final OrganisationProfile orgProfile = OrganisationProfile.builder().build();
+        final UserInfo userInfo = UserInfo.builder(SUBJECT)
+                                          .organisationProfile("org-1", orgProfile)
+                                          .build();
+
+        assertAll(
+                () -> assertThat(userInfo.getOrganisationProfileIndex(),
+                                 sameInstance(userInfo.getOrganisationProfiles())),
+                () -> assertThat(userInfo.getOrganisationProfileIndex().getAll(List.of("ORG-1", "org-2")),
+                                 arrayContaining(orgProfile, null))
+        );
+    }
+
+    private LazyOrganisationProfiles lazyProfiles() throws Exception {
+        final String json = "{\"org-1\": {\"access\": \"group\", \"group\": \"org-1-group\"}}";
+        return new LazyOrganisationProfiles((ObjectNode) new ObjectMapper().readTree(json));
+    }
+}
@@ -0,0 +1,73 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("WebClientUserInfoGateway")
+class WebClientUserInfoGatewayTest {
+    private static final URI USER_INFO_URI = URI.create("https://oidc.local/userInfo");
+    private static final String ACCESS_TOKEN = "access6789";
+
+    @Test
+    @DisplayName("should get user info claims with bearer token")
+    void shouldGetUserInfo() {
+        final AtomicReference<ClientRequest> request = new AtomicReference<>();
+        final WebClient webClient = WebClient.builder()
+                                             .exchangeFunction(req -> {
+                                                 request.set(req);
+                                                 return Mono.just(jsonResponse(HttpStatus.OK, "{\"sub\": \"user-123\"}"));
+                                             })
+                                             .build();
+
+        final Map<String, JsonNode> claims = new WebClientUserInfoGateway(USER_INFO_URI, webClient)
+                .getClaims(ACCESS_TOKEN)
+                .block();
+
+        assertAll(
+                () -> assertThat(claims.entrySet(), hasSize(1)),
+                () -> assertThat(claims.get("sub").textValue(), equalTo("user-123")),
+                () -> assertThat(request.get().url(), equalTo(USER_INFO_URI)),
+                () -> assertThat(request.get().headers().getFirst(HttpHeaders.AUTHORIZATION),
+                                 equalTo("Bearer " + ACCESS_TOKEN))
+        );
+    }
+
+    @Test
+    @DisplayName("should propagate error responses")
+    void shouldPropagateErrors() {
+        final WebClient webClient = WebClient.builder()
+                                             .exchangeFunction(req -> Mono.just(jsonResponse(HttpStatus.UNAUTHORIZED, "{}")))
+                                             .build();
+
+        final Mono<Map<String, JsonNode>> claims = new WebClientUserInfoGateway(USER_INFO_URI, webClient)
+                .getClaims(ACCESS_TOKEN);
+
+        assertThrows(WebClientResponseException.Unauthorized.class, claims::block);
+    }
+
+    private ClientResponse jsonResponse(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                             .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                             .body(body)
+                             .build();
+    }
+}
@@ -0,0 +1,389 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import app.quickcase.spring.oidc.utils.MutableClock;
+import app.quickcase.spring.oidc.utils.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("CachingUserInfoService")
+class CachingUserInfoServiceTest {
+    private static final String SUBJECT = "user-123";
+    private static final String TOKEN_1 = "token-1";
+    private static final String TOKEN_2 = "token-2";
+    private static final String TOKEN_3 = "token-3";
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private RuntimeException failure;
+    private final UserInfoService stubService = (subject, token) -> {
+        calls.incrementAndGet();
+        if (failure != null) {
+            throw failure;
+        }
+        return UserInfo.builder(subject).name(token).build();
+    };
+
+    private MutableClock clock;
+    private CachingUserInfoService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        service = new CachingUserInfoService(stubService, 2, UserInfoCachePolicy.ttl(TTL), Runnable::run, clock);
+    }
+
+    @Test
+    @DisplayName("should load user info from delegate on first access")
+    void shouldLoadOnMiss() {
+        final UserInfo userInfo = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertAll(
+                () -> assertThat(userInfo.getName(), equalTo(TOKEN_1)),
+                () -> assertThat(calls.get(), is(1)),
+                () -> assertThat(service.getStats().getMissCount(), is(1L)),
+                () -> assertThat(service.getStats().getHitCount(), is(0L))
+        );
+    }
+
+    @Test
+    @DisplayName("should serve cached user info for same token")
+    void shouldServeCachedUserInfo() {
+        final UserInfo first = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        final UserInfo second = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertAll(
+                () -> assertThat(second, sameInstance(first)),
+                () -> assertThat(calls.get(), is(1)),
+                () -> assertThat(service.getStats().getHitCount(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should not serve cached user info for different subject")
+    void shouldNotServeCachedUserInfoForOtherSubject() {
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        final UserInfo other = service.loadUserInfo("other", TOKEN_1, NOW.plusSeconds(3600));
+
+        assertAll(
+                () -> assertThat(other.getSubject(), equalTo("other")),
+                () -> assertThat(calls.get(), is(2))
+        );
+    }
+
+    @Test
+    @DisplayName("should expire entries after TTL")
+    void shouldExpireAfterTtl() {
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        clock.advance(TTL);
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertAll(
+                () -> assertThat(calls.get(), is(2)),
+                () -> assertThat(service.getStats().getEvictionCount(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should never retain entries past token expiry")
+    void shouldExpireWithToken() {
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(30));
+        clock.advance(Duration.ofSeconds(30));
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(30));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should not cache user info for expired token")
+    void shouldNotCacheExpiredToken() {
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW);
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW);
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        service.loadUserInfo(SUBJECT, TOKEN_1);
+        service.loadUserInfo(SUBJECT, TOKEN_2);
+        service.loadUserInfo(SUBJECT, TOKEN_1);
+        service.loadUserInfo(SUBJECT, TOKEN_3);
+
+        service.loadUserInfo(SUBJECT, TOKEN_1);
+        service.loadUserInfo(SUBJECT, TOKEN_2);
+
+        assertAll(
+                () -> assertThat(calls.get(), is(4)),
+                () -> assertThat(service.getStats().getEvictionCount(), is(2L))
+        );
+    }
+
+    @Test
+    @DisplayName("should invalidate cached user info for token")
+    void shouldInvalidateToken() {
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        service.invalidate(TOKEN_1);
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should invalidate cached user info for all tokens of subject")
+    void shouldInvalidateSubject() {
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        service.loadUserInfo(SUBJECT, TOKEN_2, NOW.plusSeconds(3600));
+        service.invalidateSubject(SUBJECT);
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        service.loadUserInfo(SUBJECT, TOKEN_2, NOW.plusSeconds(3600));
+
+        assertThat(calls.get(), is(4));
+    }
+
+    @Test
+    @DisplayName("should not cache user info loaded while subject invalidated")
+    void shouldNotCacheUserInfoLoadedDuringSubjectInvalidation() throws Exception {
+        final UserInfo userInfo = loadWhile(() -> service.invalidateSubject(SUBJECT));
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertAll(
+                () -> assertThat(userInfo.getName(), equalTo(TOKEN_1)),
+                () -> assertThat(calls.get(), is(2))
+        );
+    }
+
+    @Test
+    @DisplayName("should not cache user info loaded while token invalidated")
+    void shouldNotCacheUserInfoLoadedDuringTokenInvalidation() throws Exception {
+        loadWhile(() -> service.invalidate(TOKEN_1));
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    @DisplayName("should cache user info loaded while other subject invalidated")
+    void shouldCacheUserInfoLoadedDuringOtherInvalidation() throws Exception {
+        loadWhile(() -> service.invalidateSubject("other"));
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    @DisplayName("should hold user info in provided store")
+    void shouldUseProvidedStore() {
+        final InMemoryUserInfoCacheStore store = new InMemoryUserInfoCacheStore(10);
+        service = new CachingUserInfoService(stubService, store, UserInfoCachePolicy.ttl(TTL), Runnable::run, clock);
+
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertThat(store.size(), is(1));
+    }
+
+    @Test
+    @DisplayName("should remove expired entries without invalidating them")
+    void shouldRemoveExpiredEntriesWithoutInvalidation() {
+        final InMemoryUserInfoCacheStore store = new InMemoryUserInfoCacheStore(10);
+        service = new CachingUserInfoService(stubService, store, UserInfoCachePolicy.ttl(TTL), Runnable::run, clock);
+        final long generation = store.generation(TokenDigest.sha256(TOKEN_1), SUBJECT);
+
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+        clock.advance(TTL);
+        service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+        assertAll(
+                () -> assertThat(calls.get(), is(2)),
+                () -> assertThat(store.generation(TokenDigest.sha256(TOKEN_1), SUBJECT), is(generation)),
+                () -> assertThat(store.size(), is(1))
+        );
+    }
+
+    @Nested
+    @DisplayName("with refresh-ahead and stale-if-error")
+    class WithRefreshAheadAndStaleIfError {
+        @BeforeEach
+        void setUp() {
+            service = new CachingUserInfoService(stubService, 2, policy(), Runnable::run, clock);
+        }
+
+        private UserInfoCachePolicy policy() {
+            return UserInfoCachePolicy.builder()
+                                      .ttl(TTL)
+                                      .refreshAhead(Duration.ofMinutes(1))
+                                      .staleIfError(Duration.ofMinutes(2))
+                                      .build();
+        }
+
+        @Test
+        @DisplayName("should not refresh entries outside of refresh-ahead window")
+        void shouldNotRefreshEarly() {
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(3));
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+            assertAll(
+                    () -> assertThat(calls.get(), is(1)),
+                    () -> assertThat(service.getStats().getRefreshCount(), is(0L))
+            );
+        }
+
+        @Test
+        @DisplayName("should refresh entries within refresh-ahead window while serving cached user info")
+        void shouldRefreshAhead() {
+            final UserInfo first = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(4));
+            final UserInfo second = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(3));
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+            assertAll(
+                    () -> assertThat(second, sameInstance(first)),
+                    () -> assertThat(calls.get(), is(2)),
+                    () -> assertThat(service.getStats().getRefreshCount(), is(1L)),
+                    () -> assertThat(service.getStats().getHitCount(), is(2L))
+            );
+        }
+
+        @Test
+        @DisplayName("should refresh on later hit when refresh rejected")
+        void shouldRefreshLaterWhenRejected() {
+            final AtomicInteger submissions = new AtomicInteger();
+            service = new CachingUserInfoService(stubService, 2, policy(), task -> {
+                if (submissions.incrementAndGet() == 1) {
+                    throw new RejectedExecutionException("Queue full");
+                }
+                task.run();
+            }, clock);
+
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(4));
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+            assertAll(
+                    () -> assertThat(submissions.get(), is(2)),
+                    () -> assertThat(calls.get(), is(2)),
+                    () -> assertThat(service.getStats().getRefreshCount(), is(1L))
+            );
+        }
+
+        @Test
+        @DisplayName("should keep serving cached user info when refresh fails")
+        void shouldServeCachedWhenRefreshFails() {
+            final UserInfo first = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(4));
+            failure = new ResourceAccessException("timeout");
+            final UserInfo second = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+            assertAll(
+                    () -> assertThat(second, sameInstance(first)),
+                    () -> assertThat(service.getStats().getRefreshCount(), is(0L))
+            );
+        }
+
+        @Test
+        @DisplayName("should serve stale user info when provider fails")
+        void shouldServeStaleOnProviderFailure() {
+            final UserInfo first = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(6));
+            failure = new ResourceAccessException("timeout");
+            final UserInfo stale = service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+
+            assertAll(
+                    () -> assertThat(stale, sameInstance(first)),
+                    () -> assertThat(service.getStats().getStaleServeCount(), is(1L))
+            );
+        }
+
+        @Test
+        @DisplayName("should not serve stale user info on client error")
+        void shouldNotServeStaleOnClientError() {
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(6));
+            failure = HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null);
+
+            assertThrows(HttpClientErrorException.class,
+                         () -> service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600)));
+        }
+
+        @Test
+        @DisplayName("should not serve stale user info past stale-if-error window")
+        void shouldNotServeStalePastWindow() {
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600));
+            clock.advance(Duration.ofMinutes(7));
+            failure = new ResourceAccessException("timeout");
+
+            assertThrows(ResourceAccessException.class,
+                         () -> service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600)));
+        }
+
+        @Test
+        @DisplayName("should not serve stale user info past token expiry")
+        void shouldNotServeStalePastTokenExpiry() {
+            service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plus(TTL).plusSeconds(30));
+            clock.advance(TTL.plusSeconds(30));
+            failure = new ResourceAccessException("timeout");
+
+            assertThrows(ResourceAccessException.class,
+                         () -> service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plus(TTL).plusSeconds(30)));
+        }
+    }
+
+    /**
+     * Load user info for {@link #TOKEN_1} on another thread, running the invalidation while the delegate is loading.
+     */
+    private UserInfo loadWhile(Runnable invalidation) throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch invalidated = new CountDownLatch(1);
+        final UserInfoService blockingService = (subject, token) -> {
+            if (calls.incrementAndGet() == 1) {
+                loading.countDown();
+                try {
+                    invalidated.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return UserInfo.builder(subject).name(token).build();
+        };
+        service = new CachingUserInfoService(blockingService, 2, UserInfoCachePolicy.ttl(TTL), Runnable::run, clock);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<UserInfo> load = executor.submit(
+                    () -> service.loadUserInfo(SUBJECT, TOKEN_1, NOW.plusSeconds(3600))
+            );
+            assertThat(loading.await(5, TimeUnit.SECONDS), is(true));
+            invalidation.run();
+            invalidated.countDown();
+            return load.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
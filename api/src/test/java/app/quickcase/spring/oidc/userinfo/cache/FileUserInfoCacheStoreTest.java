@@ -0,0 +1,119 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("FileUserInfoCacheStore")
+class FileUserInfoCacheStoreTest {
+    private static final Instant EXPIRES_AT = Instant.parse("2024-01-01T10:05:00Z");
+
+    @TempDir
+    Path directory;
+
+    private FileUserInfoCacheStore node1;
+    private FileUserInfoCacheStore node2;
+
+    @BeforeEach
+    void setUp() {
+        node1 = new FileUserInfoCacheStore(directory);
+        node2 = new FileUserInfoCacheStore(directory);
+    }
+
+    @Test
+    @DisplayName("should share entries across nodes")
+    void shouldShareEntries() {
+        node1.put("hash-1", entry("user-1"));
+
+        assertThat(node2.get("hash-1").map(UserInfoCacheEntry::getSubject).orElseThrow(), equalTo("user-1"));
+    }
+
+    @Test
+    @DisplayName("should propagate token invalidation across nodes")
+    void shouldInvalidateTokenAcrossNodes() {
+        node1.put("hash-1", entry("user-1"));
+
+        node2.invalidate("hash-1");
+
+        assertThat(node1.get("hash-1").isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("should remove entry without stamping invalidation")
+    void shouldRemoveWithoutStamping() throws IOException {
+        node1.put("hash-1", entry("user-1"));
+        final long generation = node1.generation("hash-1", "user-1");
+
+        node2.remove("hash-1");
+
+        try (Stream<Path> stamps = Files.list(directory.resolve("invalidations"))) {
+            final long stampCount = stamps.count();
+            assertAll(
+                    () -> assertThat(node1.get("hash-1").isPresent(), is(false)),
+                    () -> assertThat(node1.generation("hash-1", "user-1"), is(generation)),
+                    () -> assertThat(stampCount, is(0L))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("should propagate subject invalidation across nodes")
+    void shouldInvalidateSubjectAcrossNodes() {
+        node1.put("hash-1", entry("user-1"));
+        node2.put("hash-2", entry("user-1"));
+        node2.put("hash-3", entry("user-2"));
+
+        node2.invalidateSubject("user-1");
+
+        assertAll(
+                () -> assertThat(node1.get("hash-1").isPresent(), is(false)),
+                () -> assertThat(node1.get("hash-2").isPresent(), is(false)),
+                () -> assertThat(node1.get("hash-3").isPresent(), is(true))
+        );
+    }
+
+    @Test
+    @DisplayName("should not put entry invalidated on other node since generation read")
+    void shouldNotPutEntryInvalidatedAcrossNodes() {
+        final long generation = node1.generation("hash-1", "user-1");
+        node2.invalidateSubject("user-1");
+
+        assertAll(
+                () -> assertThat(node1.put("hash-1", entry("user-1"), generation), is(false)),
+                () -> assertThat(node2.get("hash-1").isPresent(), is(false)),
+                () -> assertThat(node1.put("hash-1", entry("user-1"), node1.generation("hash-1", "user-1")), is(true))
+        );
+    }
+
+    @Test
+    @DisplayName("should ignore unreadable entries")
+    void shouldIgnoreUnreadableEntries() throws IOException {
+        Files.writeString(directory.resolve("entries").resolve("hash-1"), "{\"v\":99}");
+
+        assertThat(node1.get("hash-1").isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("should reject token hash outside of entries directory")
+    void shouldRejectMalformedTokenHash() {
+        assertThrows(IllegalArgumentException.class, () -> node1.get("../subjects"));
+    }
+
+    private static UserInfoCacheEntry entry(String subject) {
+        return new UserInfoCacheEntry(subject, UserInfo.builder(subject).build(), EXPIRES_AT, EXPIRES_AT);
+    }
+}
@@ -0,0 +1,123 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.time.Instant;
+
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("InMemoryUserInfoCacheStore")
+class InMemoryUserInfoCacheStoreTest {
+    private static final Instant EXPIRES_AT = Instant.parse("2024-01-01T10:05:00Z");
+
+    private final InMemoryUserInfoCacheStore store = new InMemoryUserInfoCacheStore(2);
+
+    @Test
+    @DisplayName("should invalidate entry by token hash")
+    void shouldInvalidateByTokenHash() {
+        store.put("hash-1", entry("user-1"));
+        store.put("hash-2", entry("user-1"));
+
+        store.invalidate("hash-1");
+
+        assertAll(
+                () -> assertThat(store.get("hash-1").isPresent(), is(false)),
+                () -> assertThat(store.get("hash-2").isPresent(), is(true))
+        );
+    }
+
+    @Test
+    @DisplayName("should remove entry without changing generation")
+    void shouldRemoveWithoutChangingGeneration() {
+        store.put("hash-1", entry("user-1"));
+        final long generation = store.generation("hash-1", "user-1");
+
+        store.remove("hash-1");
+
+        assertAll(
+                () -> assertThat(store.get("hash-1").isPresent(), is(false)),
+                () -> assertThat(store.generation("hash-1", "user-1"), is(generation))
+        );
+    }
+
+    @Test
+    @DisplayName("should invalidate all entries of subject")
+    void shouldInvalidateBySubject() {
+        store.put("hash-1", entry("user-1"));
+        store.put("hash-2", entry("user-2"));
+
+        store.invalidateSubject("user-1");
+
+        assertAll(
+                () -> assertThat(store.get("hash-1").isPresent(), is(false)),
+                () -> assertThat(store.get("hash-2").isPresent(), is(true))
+        );
+    }
+
+    @Test
+    @DisplayName("should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        store.put("hash-1", entry("user-1"));
+        store.put("hash-2", entry("user-1"));
+        store.get("hash-1");
+        store.put("hash-3", entry("user-1"));
+
+        assertAll(
+                () -> assertThat(store.size(), is(2)),
+                () -> assertThat(store.get("hash-1").isPresent(), is(true)),
+                () -> assertThat(store.get("hash-2").isPresent(), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should change generation when token or subject invalidated")
+    void shouldChangeGenerationOnInvalidation() {
+        final long initial = store.generation("hash-1", "user-1");
+        store.invalidateSubject("user-2");
+        final long otherSubjectInvalidated = store.generation("hash-1", "user-1");
+        store.invalidate("hash-1");
+        final long tokenInvalidated = store.generation("hash-1", "user-1");
+        store.invalidateSubject("user-1");
+        final long subjectInvalidated = store.generation("hash-1", "user-1");
+
+        assertAll(
+                () -> assertThat(otherSubjectInvalidated, is(initial)),
+                () -> assertThat(tokenInvalidated, not(otherSubjectInvalidated)),
+                () -> assertThat(subjectInvalidated, not(tokenInvalidated))
+        );
+    }
+
+    @Test
+    @DisplayName("should not put entry invalidated since generation read")
+    void shouldNotPutInvalidatedEntry() {
+        final long generation = store.generation("hash-1", "user-1");
+        store.invalidateSubject("user-1");
+
+        assertAll(
+                () -> assertThat(store.put("hash-1", entry("user-1"), generation), is(false)),
+                () -> assertThat(store.get("hash-1").isPresent(), is(false)),
+                () -> assertThat(store.put("hash-1", entry("user-1"), store.generation("hash-1", "user-1")), is(true)),
+                () -> assertThat(store.get("hash-1").isPresent(), is(true))
+        );
+    }
+
+    @Test
+    @DisplayName("should not revert generation once invalidation forgotten")
+    void shouldNotRevertGenerationOnceForgotten() {
+        final long generation = store.generation("hash-1", "user-1");
+        store.invalidate("hash-1");
+        store.invalidate("hash-2");
+        store.invalidate("hash-3");
+
+        assertThat(store.put("hash-1", entry("user-1"), generation), is(false));
+    }
+
+    private static UserInfoCacheEntry entry(String subject) {
+        return new UserInfoCacheEntry(subject, UserInfo.builder(subject).build(), EXPIRES_AT, EXPIRES_AT);
+    }
+}
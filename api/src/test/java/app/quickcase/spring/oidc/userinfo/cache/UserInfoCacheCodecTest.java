@@ -0,0 +1,98 @@
+package app.quickcase.spring.oidc.userinfo.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import app.quickcase.spring.oidc.AccessLevel;
+import app.quickcase.spring.oidc.SecurityClassification;
+import app.quickcase.spring.oidc.organisation.OrganisationProfile;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserPreferences;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("UserInfoCacheCodec")
+class UserInfoCacheCodecTest {
+    private static final Instant EXPIRES_AT = Instant.parse("2024-01-01T10:05:00Z");
+    private static final Instant STALE_UNTIL = Instant.parse("2024-01-01T10:07:00Z");
+
+    @Test
+    @DisplayName("should round-trip entry")
+    void shouldRoundTrip() {
+        final UserInfo userInfo = UserInfo.builder("user-1")
+                                          .name("Jon Snow")
+                                          .email("jon@quickcase.app")
+                                          .authorities("ROLE_caseworker")
+                                          .roles("caseworker", "admin")
+                                          .groups("group-1")
+                                          .preferences(UserPreferences.builder()
+                                                                      .defaultJurisdiction("jid")
+                                                                      .defaultCaseType("ct")
+                                                                      .build())
+                                          .organisationProfile("org-1", OrganisationProfile.builder()
+                                                                                           .accessLevel(AccessLevel.GROUP)
+                                                                                           .securityClassification(SecurityClassification.PRIVATE)
+                                                                                           .group("group-1")
+                                                                                           .build())
+                                          .build();
+
+        final UserInfoCacheEntry decoded = UserInfoCacheCodec.decode(UserInfoCacheCodec.encode(
+                new UserInfoCacheEntry("user-1", userInfo, EXPIRES_AT, STALE_UNTIL)));
+
+        final UserInfo decodedUserInfo = decoded.getUserInfo();
+        assertAll(
+                () -> assertThat(decoded.getSubject(), equalTo("user-1")),
+                () -> assertThat(decoded.getExpiresAt(), equalTo(EXPIRES_AT)),
+                () -> assertThat(decoded.getStaleUntil(), equalTo(STALE_UNTIL)),
+                () -> assertThat(decodedUserInfo, equalTo(userInfo)),
+                () -> assertThat(decodedUserInfo.getOrganisationProfiles().get("ORG-1").getGroup().get(),
+                                 equalTo("group-1"))
+        );
+    }
+
+    @Test
+    @DisplayName("should round-trip minimal entry")
+    void shouldRoundTripMinimal() {
+        final UserInfo userInfo = UserInfo.builder("user-1").build();
+
+        final UserInfoCacheEntry decoded = UserInfoCacheCodec.decode(UserInfoCacheCodec.encode(
+                new UserInfoCacheEntry("user-1", userInfo, EXPIRES_AT, STALE_UNTIL)));
+
+        assertAll(
+                () -> assertThat(decoded.getUserInfo(), equalTo(userInfo)),
+                () -> assertThat(decoded.getUserInfo().getEmail().isPresent(), is(false))
+        );
+    }
+
+    @Test
+    @DisplayName("should encode entry with version")
+    void shouldEncodeVersion() {
+        final byte[] bytes = UserInfoCacheCodec.encode(
+                new UserInfoCacheEntry("user-1", UserInfo.builder("user-1").build(), EXPIRES_AT, STALE_UNTIL));
+
+        assertThat(new String(bytes, StandardCharsets.UTF_8), startsWith("{\"v\":1,"));
+    }
+
+    @Test
+    @DisplayName("should reject unsupported version")
+    void shouldRejectUnsupportedVersion() {
+        final byte[] bytes = "{\"v\":2,\"subject\":\"user-1\"}".getBytes(StandardCharsets.UTF_8);
+
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                        () -> UserInfoCacheCodec.decode(bytes));
+        assertThat(e.getMessage(), containsString("version: 2"));
+    }
+
+    @Test
+    @DisplayName("should reject malformed entry")
+    void shouldRejectMalformedEntry() {
+        final byte[] bytes = "{\"v\":1,\"subject\":\"user-1\"".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> UserInfoCacheCodec.decode(bytes));
+    }
+}
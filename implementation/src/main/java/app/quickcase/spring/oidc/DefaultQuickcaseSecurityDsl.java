@@ -1,25 +1,51 @@
 package app.quickcase.spring.oidc;
 
+import app.quickcase.spring.oidc.authentication.cache.CachingAuthenticationManager;
 import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 
 public class DefaultQuickcaseSecurityDsl implements QuickcaseSecurityDsl {
 
-    private final OidcConfig oidcConfig;
+    private final JwtDecoder jwtDecoder;
     private final QuickcaseAuthenticationConverter authenticationConverter;
+    private final AuthenticationManager authenticationManager;
 
     public DefaultQuickcaseSecurityDsl(OidcConfig oidcConfig,
                                        QuickcaseAuthenticationConverter authenticationConverter) {
-        this.oidcConfig = oidcConfig;
+        this(NimbusJwtDecoder.withJwkSetUri(oidcConfig.getJwkSetUri()).build(), authenticationConverter);
+    }
+
+    public DefaultQuickcaseSecurityDsl(JwtDecoder jwtDecoder,
+                                       QuickcaseAuthenticationConverter authenticationConverter) {
+        this(jwtDecoder, authenticationConverter, null);
+    }
+
+    /**
+     * @param authenticationManager Optional, when provided bearer tokens are authenticated by this manager instead of
+     *                              by the decoder and converter, eg: {@link CachingAuthenticationManager}
+     */
+    public DefaultQuickcaseSecurityDsl(JwtDecoder jwtDecoder,
+                                       QuickcaseAuthenticationConverter authenticationConverter,
+                                       AuthenticationManager authenticationManager) {
+        this.jwtDecoder = jwtDecoder;
         this.authenticationConverter = authenticationConverter;
+        this.authenticationManager = authenticationManager;
     }
 
     @Override
     public HttpSecurity withQuickcaseSecurity(HttpSecurity http) throws Exception {
-        http.oauth2ResourceServer()
-            .jwt()
-            .jwkSetUri(oidcConfig.getJwkSetUri())
-            .jwtAuthenticationConverter(authenticationConverter);
+        if (authenticationManager != null) {
+            http.oauth2ResourceServer(resourceServer -> resourceServer
+                    .jwt(jwt -> jwt.authenticationManager(authenticationManager)));
+            return http;
+        }
+
+        http.oauth2ResourceServer(resourceServer -> resourceServer
+                .jwt(jwt -> jwt.decoder(jwtDecoder)
+                               .jwtAuthenticationConverter(authenticationConverter)));
         return http;
     }
 }
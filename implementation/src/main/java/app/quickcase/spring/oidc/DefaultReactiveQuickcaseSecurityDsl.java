@@ -0,0 +1,24 @@
+package app.quickcase.spring.oidc;
+
+import app.quickcase.spring.oidc.authentication.converter.ReactiveQuickcaseAuthenticationConverter;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+
+public class DefaultReactiveQuickcaseSecurityDsl implements ReactiveQuickcaseSecurityDsl {
+
+    private final OidcConfig oidcConfig;
+    private final ReactiveQuickcaseAuthenticationConverter authenticationConverter;
+
+    public DefaultReactiveQuickcaseSecurityDsl(OidcConfig oidcConfig,
+                                               ReactiveQuickcaseAuthenticationConverter authenticationConverter) {
+        this.oidcConfig = oidcConfig;
+        this.authenticationConverter = authenticationConverter;
+    }
+
+    @Override
+    public ServerHttpSecurity withQuickcaseSecurity(ServerHttpSecurity http) {
+        http.oauth2ResourceServer(resourceServer -> resourceServer
+                .jwt(jwt -> jwt.jwkSetUri(oidcConfig.getJwkSetUri())
+                               .jwtAuthenticationConverter(authenticationConverter)));
+        return http;
+    }
+}
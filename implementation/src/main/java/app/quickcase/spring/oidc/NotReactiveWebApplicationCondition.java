@@ -0,0 +1,18 @@
+package app.quickcase.spring.oidc;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+
+/**
+ * Condition matching any application but reactive web applications: servlet web applications, as well as non-web
+ * applications such as batch workers or tests relying on the blocking beans.
+ */
+class NotReactiveWebApplicationCondition extends NoneNestedConditions {
+    NotReactiveWebApplicationCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveWebApplication {
+    }
+}
@@ -5,9 +5,17 @@ import lombok.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
 
 import static app.quickcase.spring.oidc.OidcConfigDefault.Claims.*;
+import static app.quickcase.spring.oidc.OidcConfigDefault.JwksRefresh;
 import static app.quickcase.spring.oidc.OidcConfigDefault.PREFIX;
+import static app.quickcase.spring.oidc.OidcConfigDefault.UserInfoCache;
+import static app.quickcase.spring.oidc.OidcConfigDefault.UserInfoHttp;
+import static app.quickcase.spring.oidc.OidcConfigDefault.UserInfoStreaming;
 
 /**
  * Consolidated configuration of all properties under `quickcase.oidc` namespace.
@@ -19,22 +27,43 @@ import static app.quickcase.spring.oidc.OidcConfigDefault.PREFIX;
 @Value
 @ConfigurationProperties(prefix = "quickcase.oidc")
 public class OidcConfig {
+    /**
+     * Source of user claims: `user-info`, `jwt-access-token` or `hybrid`.
+     */
+    private final String mode;
     private final String jwkSetUri;
     private final String userInfoUri;
     private final String openidScope;
     private final Claims claims;
+    private final UserInfo userInfo;
+    private final Hybrid hybrid;
+    private final Authentication authentication;
+    private final Jwt jwt;
+    private final Jwks jwks;
 
     @ConstructorBinding
     public OidcConfig(
+            @DefaultValue("user-info") String mode,
             String jwkSetUri,
             String userInfoUri,
             @DefaultValue(UserInfoAuthenticationConverter.OPENID_SCOPE) String openidScope,
-            @DefaultValue Claims claims
+            @DefaultValue Claims claims,
+            @DefaultValue UserInfo userInfo,
+            @DefaultValue Hybrid hybrid,
+            @DefaultValue Authentication authentication,
+            @DefaultValue Jwt jwt,
+            @DefaultValue Jwks jwks
     ) {
+        this.mode = mode;
         this.jwkSetUri = jwkSetUri;
         this.userInfoUri = userInfoUri;
         this.openidScope = openidScope;
         this.claims = claims;
+        this.userInfo = userInfo;
+        this.hybrid = hybrid;
+        this.authentication = authentication;
+        this.jwt = jwt;
+        this.jwks = jwks;
     }
 
     @Value
@@ -88,4 +117,286 @@ public class OidcConfig {
             this.defaultState = defaultState;
         }
     }
+
+    @Value
+    public static class Hybrid {
+        /**
+         * Logical names of the claims, as per `quickcase.oidc.claims.names`, which must all be present in the access
+         * token for the `/userinfo` endpoint not to be called, in `hybrid` mode.
+         */
+        private final List<String> requiredClaims;
+
+        public Hybrid(@DefaultValue({"roles", "groups", "organisations"}) List<String> requiredClaims) {
+            this.requiredClaims = requiredClaims;
+        }
+    }
+
+    @Value
+    public static class Jwt {
+        /**
+         * Decoder verifying access tokens: `nimbus`, Spring's default supporting RS256 only, or `quickcase`,
+         * supporting RS256 and ES256 with fewer allocations per token.
+         */
+        private final String decoder;
+
+        /**
+         * Cheap checks rejecting hopeless access tokens before their signature is verified.
+         */
+        private final PreValidation preValidation;
+
+        public Jwt(@DefaultValue("nimbus") String decoder,
+                   @DefaultValue PreValidation preValidation) {
+            this.decoder = decoder;
+            this.preValidation = preValidation;
+        }
+    }
+
+    @Value
+    public static class PreValidation {
+        private final boolean enabled;
+
+        /**
+         * Optional, expected `iss` claim. Issuer is not checked when not set.
+         */
+        private final String issuer;
+
+        /**
+         * Tolerance applied to `exp` and `nbf` claims.
+         */
+        private final Duration clockSkew;
+
+        public PreValidation(@DefaultValue("false") boolean enabled,
+                             String issuer,
+                             @DefaultValue("60s") Duration clockSkew) {
+            this.enabled = enabled;
+            this.issuer = issuer;
+            this.clockSkew = clockSkew;
+        }
+    }
+
+    @Value
+    public static class Jwks {
+        /**
+         * Whether the JWK set is served from memory, seeded from `snapshot` and refreshed in the background, instead
+         * of being retrieved on first use.
+         */
+        private final boolean enabled;
+
+        /**
+         * Optional location of the persisted JWK set loaded at startup, eg: `classpath:jwks.json`. `file:` locations
+         * are also updated whenever a refreshed JWK set differs.
+         */
+        private final String snapshot;
+
+        /**
+         * Interval between background refreshes of the JWK set.
+         */
+        private final Duration refreshInterval;
+
+        /**
+         * Minimum interval between refreshes triggered by access tokens signed with an unknown key.
+         */
+        private final Duration unknownKeyRefreshInterval;
+
+        public Jwks(@DefaultValue("false") boolean enabled,
+                    String snapshot,
+                    @DefaultValue(JwksRefresh.INTERVAL) Duration refreshInterval,
+                    @DefaultValue(JwksRefresh.UNKNOWN_KEY_INTERVAL) Duration unknownKeyRefreshInterval) {
+            this.enabled = enabled;
+            this.snapshot = snapshot;
+            this.refreshInterval = refreshInterval;
+            this.unknownKeyRefreshInterval = unknownKeyRefreshInterval;
+        }
+    }
+
+    @Value
+    public static class Authentication {
+        /**
+         * Caching of authentications, skipping decoding and conversion of repeated access tokens.
+         */
+        private final AuthenticationCache cache;
+
+        /**
+         * Role and group names indexed at startup for `QuickcaseAuthentication.hasRole` and related checks. Other names
+         * are indexed when first seen.
+         */
+        private final List<String> roleIndex;
+
+        public Authentication(@DefaultValue AuthenticationCache cache,
+                              @DefaultValue List<String> roleIndex) {
+            this.cache = cache;
+            this.roleIndex = roleIndex;
+        }
+    }
+
+    @Value
+    public static class AuthenticationCache {
+        private final boolean enabled;
+
+        /**
+         * Maximum number of entries retained. Once reached, new access tokens are only cached when used more
+         * frequently than the least recently used entry.
+         */
+        private final int maxSize;
+
+        /**
+         * Maximum time an authentication is cached. Authentications are never cached past the expiry of their access
+         * token.
+         */
+        private final Duration ttl;
+
+        public AuthenticationCache(
+                @DefaultValue("false") boolean enabled,
+                @DefaultValue(OidcConfigDefault.AuthenticationCache.MAX_SIZE) int maxSize,
+                @DefaultValue(OidcConfigDefault.AuthenticationCache.TTL) Duration ttl
+        ) {
+            this.enabled = enabled;
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+    }
+
+    @Value
+    public static class UserInfo {
+        /**
+         * Caching of user info retrieved from `/userinfo` endpoint, in `user-info` mode.
+         */
+        private final Cache cache;
+
+        /**
+         * Whether concurrent requests authenticated with the same access token should share a single call to the
+         * `/userinfo` endpoint. Disabled by default.
+         */
+        private final boolean coalesceRequests;
+
+        /**
+         * HTTP client used to call `/userinfo` endpoint.
+         */
+        private final Http http;
+
+        /**
+         * Streamed decoding of `/userinfo` responses.
+         */
+        private final Streaming streaming;
+
+        public UserInfo(@DefaultValue Cache cache,
+                        @DefaultValue("false") boolean coalesceRequests,
+                        @DefaultValue Http http,
+                        @DefaultValue Streaming streaming) {
+            this.cache = cache;
+            this.coalesceRequests = coalesceRequests;
+            this.http = http;
+            this.streaming = streaming;
+        }
+    }
+
+    @Value
+    public static class Cache {
+        private final boolean enabled;
+
+        /**
+         * Maximum number of entries retained, least recently used entries are evicted first.
+         */
+        private final int maxSize;
+
+        /**
+         * Maximum time an entry is retained. Entries never outlive the access token they were retrieved with.
+         */
+        private final Duration ttl;
+
+        /**
+         * Window before expiry during which an entry is refreshed in the background while still being served.
+         * Disabled when zero.
+         */
+        private final Duration refreshAhead;
+
+        /**
+         * Window after expiry during which an entry is still served while the OIDC provider fails or times out.
+         * Disabled when zero.
+         */
+        private final Duration staleIfError;
+
+        public Cache(@DefaultValue("false") boolean enabled,
+                     @DefaultValue(UserInfoCache.MAX_SIZE) int maxSize,
+                     @DefaultValue(UserInfoCache.TTL) Duration ttl,
+                     @DefaultValue("0s") Duration refreshAhead,
+                     @DefaultValue("0s") Duration staleIfError) {
+            this.enabled = enabled;
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+            this.refreshAhead = refreshAhead;
+            this.staleIfError = staleIfError;
+        }
+    }
+
+    @Value
+    public static class Http {
+        /**
+         * Maximum number of pooled connections.
+         */
+        private final int maxConnections;
+
+        /**
+         * How long connections are kept alive when the server does not specify a keep-alive timeout.
+         */
+        private final Duration keepAlive;
+
+        /**
+         * Pooled connections idle for longer than this are evicted.
+         */
+        private final Duration idleEviction;
+
+        private final Duration connectTimeout;
+
+        /**
+         * Maximum time waiting for a pooled connection to be available.
+         */
+        private final Duration connectionRequestTimeout;
+
+        /**
+         * Maximum time waiting for a response, and between consecutive packets of a response.
+         */
+        private final Duration readTimeout;
+
+        /**
+         * Whether compressed responses should be requested.
+         */
+        private final boolean gzip;
+
+        public Http(@DefaultValue(UserInfoHttp.MAX_CONNECTIONS) int maxConnections,
+                    @DefaultValue(UserInfoHttp.KEEP_ALIVE) Duration keepAlive,
+                    @DefaultValue(UserInfoHttp.IDLE_EVICTION) Duration idleEviction,
+                    @DefaultValue(UserInfoHttp.CONNECT_TIMEOUT) Duration connectTimeout,
+                    @DefaultValue(UserInfoHttp.CONNECTION_REQUEST_TIMEOUT) Duration connectionRequestTimeout,
+                    @DefaultValue(UserInfoHttp.READ_TIMEOUT) Duration readTimeout,
+                    @DefaultValue("true") boolean gzip) {
+            this.maxConnections = maxConnections;
+            this.keepAlive = keepAlive;
+            this.idleEviction = idleEviction;
+            this.connectTimeout = connectTimeout;
+            this.connectionRequestTimeout = connectionRequestTimeout;
+            this.readTimeout = readTimeout;
+            this.gzip = gzip;
+        }
+    }
+
+    @Value
+    public static class Streaming {
+        /**
+         * Whether `/userinfo` responses should be decoded as they are streamed, retaining only the claims named in
+         * `quickcase.oidc.claims`. Custom extractors relying on other claims should leave this disabled.
+         */
+        private final boolean enabled;
+
+        /**
+         * Responses larger than this are rejected.
+         */
+        private final DataSize maxResponseSize;
+
+        public Streaming(@DefaultValue("false") boolean enabled,
+                         @DefaultValue(UserInfoStreaming.MAX_RESPONSE_SIZE) DataSize maxResponseSize) {
+            this.enabled = enabled;
+            this.maxResponseSize = maxResponseSize;
+        }
+    }
 }
@@ -17,4 +17,32 @@ public interface OidcConfigDefault {
         String QC_USER_DEFAULT_CASE_TYPE = NAMESPACE + "default_case_type";
         String QC_USER_DEFAULT_STATE = NAMESPACE + "default_state";
     }
+
+    interface JwksRefresh {
+        String INTERVAL = "5m";
+        String UNKNOWN_KEY_INTERVAL = "30s";
+    }
+
+    interface AuthenticationCache {
+        String MAX_SIZE = "10000";
+        String TTL = "5m";
+    }
+
+    interface UserInfoCache {
+        String MAX_SIZE = "10000";
+        String TTL = "5m";
+    }
+
+    interface UserInfoHttp {
+        String MAX_CONNECTIONS = "50";
+        String KEEP_ALIVE = "30s";
+        String IDLE_EVICTION = "60s";
+        String CONNECT_TIMEOUT = "5s";
+        String CONNECTION_REQUEST_TIMEOUT = "1s";
+        String READ_TIMEOUT = "10s";
+    }
+
+    interface UserInfoStreaming {
+        String MAX_RESPONSE_SIZE = "1MB";
+    }
 }
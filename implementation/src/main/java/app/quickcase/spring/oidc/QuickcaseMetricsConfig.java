@@ -0,0 +1,32 @@
+package app.quickcase.spring.oidc;
+
+import app.quickcase.spring.oidc.metrics.AuthenticationMetrics;
+import app.quickcase.spring.oidc.metrics.MicrometerAuthenticationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics of the authentication pipeline, imported by {@link QuickcaseSecurityConfig} and only active when Micrometer
+ * is available. Metrics are only recorded when the application provides a {@link MeterRegistry}, otherwise the
+ * pipeline is left uninstrumented.
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class QuickcaseMetricsConfig {
+
+    @Bean
+    public AuthenticationMetrics createAuthenticationMetrics(OidcConfig oidcConfig,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        final MeterRegistry registry = meterRegistry.getIfAvailable();
+
+        if (registry == null) {
+            return AuthenticationMetrics.NONE;
+        }
+
+        return new MicrometerAuthenticationMetrics(registry, oidcConfig.getMode());
+    }
+}
@@ -0,0 +1,137 @@
+package app.quickcase.spring.oidc;
+
+import app.quickcase.spring.oidc.authentication.converter.ReactiveAccessTokenAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveHybridAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveQuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveUserInfoAuthenticationConverter;
+import app.quickcase.spring.oidc.claims.ClaimNamesProvider;
+import app.quickcase.spring.oidc.userinfo.CoalescingReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.DefaultReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.ReactiveUserInfoGateway;
+import app.quickcase.spring.oidc.userinfo.ReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.UserInfoExtractor;
+import app.quickcase.spring.oidc.userinfo.WebClientUserInfoGateway;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+
+/**
+ * WebFlux counterpart of {@link QuickcaseSecurityConfig}, imported by the latter and only active in reactive web
+ * applications. None of the beans created block the calling thread.
+ *
+ * <p>
+ * Of the `quickcase.oidc.user-info` settings, only `coalesce-requests` applies to reactive applications. The user info
+ * is retrieved with the application's {@link WebClient.Builder}, so `http` settings are ignored, while enabling
+ * `cache` or `streaming` fails the application startup as neither is supported without blocking.
+ *
+ * <p>
+ * Access tokens are verified by Spring's reactive decoder, retrieving the JWK set from `jwk-set-uri`. Likewise,
+ * enabling `jwks`, `jwt.pre-validation` or `authentication.cache`, or selecting the `quickcase` decoder, fails the
+ * application startup.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class QuickcaseReactiveSecurityConfig {
+
+    @Bean
+    @ConditionalOnExpression(QuickcaseSecurityConfig.USER_INFO_MODES)
+    public ReactiveUserInfoGateway createReactiveUserInfoGateway(OidcConfig oidcConfig,
+                                                                 ObjectProvider<WebClient.Builder> webClientBuilder) {
+        final WebClient webClient = webClientBuilder.getIfAvailable(WebClient::builder).build();
+        return new WebClientUserInfoGateway(URI.create(oidcConfig.getUserInfoUri()), webClient);
+    }
+
+    @Bean
+    @ConditionalOnExpression(QuickcaseSecurityConfig.USER_INFO_MODES)
+    public ReactiveUserInfoService createReactiveUserInfoService(ReactiveUserInfoGateway gateway,
+                                                                 UserInfoExtractor extractor,
+                                                                 OidcConfig oidcConfig) {
+        final OidcConfig.UserInfo userInfo = oidcConfig.getUserInfo();
+
+        if (userInfo.getCache().isEnabled()) {
+            throw unsupported("quickcase.oidc.user-info.cache.enabled");
+        }
+
+        if (userInfo.getStreaming().isEnabled()) {
+            throw unsupported("quickcase.oidc.user-info.streaming.enabled");
+        }
+
+        final ReactiveUserInfoService userInfoService = new DefaultReactiveUserInfoService(gateway, extractor);
+
+        if (userInfo.isCoalesceRequests()) {
+            return new CoalescingReactiveUserInfoService(userInfoService);
+        }
+
+        return userInfoService;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "user-info", matchIfMissing = true)
+    public ReactiveUserInfoAuthenticationConverter createReactiveUserInfoAuthenticationConverter(
+            ReactiveUserInfoService userInfoService,
+            OidcConfig oidcConfig
+    ) {
+        return new ReactiveUserInfoAuthenticationConverter(userInfoService, oidcConfig.getOpenidScope());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "jwt-access-token")
+    public ReactiveAccessTokenAuthenticationConverter createReactiveAccessTokenAuthenticationConverter(
+            UserInfoExtractor userInfoExtractor,
+            OidcConfig oidcConfig
+    ) {
+        return new ReactiveAccessTokenAuthenticationConverter(userInfoExtractor, oidcConfig.getOpenidScope());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "hybrid")
+    public ReactiveHybridAuthenticationConverter createReactiveHybridAuthenticationConverter(
+            UserInfoExtractor userInfoExtractor,
+            ReactiveUserInfoService userInfoService,
+            ClaimNamesProvider claimNamesProvider,
+            OidcConfig oidcConfig
+    ) {
+        return new ReactiveHybridAuthenticationConverter(
+                new ReactiveAccessTokenAuthenticationConverter(userInfoExtractor, oidcConfig.getOpenidScope()),
+                new ReactiveUserInfoAuthenticationConverter(userInfoService, oidcConfig.getOpenidScope()),
+                QuickcaseSecurityConfig.hybridRequiredClaims(oidcConfig, claimNamesProvider)
+        );
+    }
+
+    @Bean
+    public ReactiveQuickcaseSecurityDsl createReactiveSecurityDsl(
+            OidcConfig oidcConfig,
+            ReactiveQuickcaseAuthenticationConverter authenticationConverter
+    ) {
+        if (oidcConfig.getJwks().isEnabled()) {
+            throw unsupported("quickcase.oidc.jwks.enabled");
+        }
+
+        if (QuickcaseSecurityConfig.QUICKCASE_DECODER.equals(oidcConfig.getJwt().getDecoder())) {
+            throw unsupported("quickcase.oidc.jwt.decoder=" + QuickcaseSecurityConfig.QUICKCASE_DECODER);
+        }
+
+        if (oidcConfig.getJwt().getPreValidation().isEnabled()) {
+            throw unsupported("quickcase.oidc.jwt.pre-validation.enabled");
+        }
+
+        if (oidcConfig.getAuthentication().getCache().isEnabled()) {
+            throw unsupported("quickcase.oidc.authentication.cache.enabled");
+        }
+
+        return new DefaultReactiveQuickcaseSecurityDsl(oidcConfig, authenticationConverter);
+    }
+
+    private static IllegalStateException unsupported(String property) {
+        return new IllegalStateException(property + " is not supported in reactive web applications");
+    }
+}
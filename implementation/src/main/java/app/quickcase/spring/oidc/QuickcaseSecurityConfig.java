@@ -1,33 +1,95 @@
 package app.quickcase.spring.oidc;
 
+import app.quickcase.spring.oidc.authentication.RoleIndex;
+import app.quickcase.spring.oidc.authentication.cache.CachingAuthenticationManager;
 import app.quickcase.spring.oidc.authentication.converter.AccessTokenAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.HybridAuthenticationConverter;
 import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
 import app.quickcase.spring.oidc.authentication.converter.UserInfoAuthenticationConverter;
 import app.quickcase.spring.oidc.claims.ClaimNamesProvider;
 import app.quickcase.spring.oidc.claims.ConfigDrivenClaimNamesProvider;
+import app.quickcase.spring.oidc.claims.StreamingClaimsReader;
+import app.quickcase.spring.oidc.jwk.SnapshotJwkSource;
+import app.quickcase.spring.oidc.jwt.PreValidatingJwtDecoder;
+import app.quickcase.spring.oidc.jwt.QuickcaseJwtDecoder;
+import app.quickcase.spring.oidc.metrics.AuthenticationMetrics;
 import app.quickcase.spring.oidc.userinfo.*;
+import app.quickcase.spring.oidc.userinfo.cache.CachingUserInfoService;
+import app.quickcase.spring.oidc.userinfo.cache.UserInfoCachePolicy;
+import app.quickcase.spring.oidc.userinfo.cache.UserInfoCacheStore;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.io.CloseMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.oauth2.core.oidc.StandardClaimNames;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithms;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Configuration to import in Spring application to auto-configure Spring Security to work with a QuickCase-compliant
  * OIDC providers.
  * This configuration relies on both properties `quickcase.oidc.jwk-set-uri` and `quickcase.oidc.user-info-uri`
  * being defined as properties in the Spring application.
+ * Beans performing blocking I/O are created in all but reactive web applications. In reactive web applications,
+ * {@link QuickcaseReactiveSecurityConfig} provides their non-blocking counterparts instead, including
+ * {@link ReactiveQuickcaseSecurityDsl}.
+ * Background threads started by the beans created are stopped when the application context closes.
  *
  * @author Valentin Laurin
  * @since 0.1
  */
 @Configuration
 @EnableConfigurationProperties(OidcConfig.class)
-public class QuickcaseSecurityConfig {
+@Import({QuickcaseReactiveSecurityConfig.class, QuickcaseMetricsConfig.class})
+public class QuickcaseSecurityConfig implements DisposableBean {
+    /**
+     * Condition matching modes relying on `/userinfo` endpoint: `user-info` (default) and `hybrid`.
+     */
+    static final String USER_INFO_MODES = "'${quickcase.oidc.mode:user-info}' matches 'user-info|hybrid'";
+
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_CAPACITY = 100;
+    static final String QUICKCASE_DECODER = "quickcase";
+
+    private final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+    private final List<CloseableHttpClient> httpClients = new CopyOnWriteArrayList<>();
 
     @Bean
     public ClaimNamesProvider createClaimNamesProvider(OidcConfig oidcConfig) {
@@ -35,23 +97,104 @@ public class QuickcaseSecurityConfig {
     }
 
     @Bean
-    public UserInfoExtractor createUserInfoExtractor(ClaimNamesProvider claimNamesProvider) {
-        return new DefaultUserInfoExtractor(claimNamesProvider);
+    public RoleIndex createRoleIndex(OidcConfig oidcConfig) {
+        final RoleIndex roleIndex = RoleIndex.shared();
+        roleIndex.register(oidcConfig.getAuthentication().getRoleIndex());
+        return roleIndex;
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "user-info", matchIfMissing = true)
-    public UserInfoGateway createUserInfoGateway(OidcConfig oidcConfig) throws URISyntaxException {
-        return new DefaultUserInfoGateway(new URI(oidcConfig.getUserInfoUri()), new RestTemplate());
+    public UserInfoExtractor createUserInfoExtractor(ClaimNamesProvider claimNamesProvider,
+                                                     ObjectProvider<AuthenticationMetrics> metrics) {
+        return metrics(metrics).extractor(new DefaultUserInfoExtractor(claimNamesProvider));
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "user-info", matchIfMissing = true)
-    public UserInfoService createUserInfoService(UserInfoGateway gateway, UserInfoExtractor extractor) {
-        return new DefaultUserInfoService(gateway, extractor);
+    @Conditional(NotReactiveWebApplicationCondition.class)
+    @ConditionalOnExpression(USER_INFO_MODES)
+    public UserInfoGateway createUserInfoGateway(OidcConfig oidcConfig,
+                                                 ClaimNamesProvider claimNamesProvider,
+                                                 ObjectProvider<AuthenticationMetrics> metrics)
+            throws URISyntaxException {
+        final URI userInfoUri = new URI(oidcConfig.getUserInfoUri());
+        final UserInfoRestTemplateFactory restTemplateFactory =
+                new UserInfoRestTemplateFactory(oidcConfig.getUserInfo().getHttp());
+        final RestTemplate restTemplate = restTemplateFactory.create(managed(restTemplateFactory.createHttpClient()));
+        final OidcConfig.Streaming streaming = oidcConfig.getUserInfo().getStreaming();
+
+        if (streaming.isEnabled()) {
+            final Set<String> claimNames = new HashSet<>(claimNamesProvider.all());
+            // Always required for subject validation
+            claimNames.add(StandardClaimNames.SUB);
+            final StreamingClaimsReader claimsReader = new StreamingClaimsReader(claimNames,
+                                                                                 streaming.getMaxResponseSize().toBytes());
+            return metrics(metrics).gateway(new StreamingUserInfoGateway(userInfoUri, restTemplate, claimsReader));
+        }
+
+        return metrics(metrics).gateway(new DefaultUserInfoGateway(userInfoUri, restTemplate));
+    }
+
+    @Bean
+    @Conditional(NotReactiveWebApplicationCondition.class)
+    @ConditionalOnExpression(USER_INFO_MODES)
+    public UserInfoService createUserInfoService(UserInfoGateway gateway,
+                                                 UserInfoExtractor extractor,
+                                                 OidcConfig oidcConfig,
+                                                 ObjectProvider<UserInfoCacheStore> cacheStore,
+                                                 ObjectProvider<AuthenticationMetrics> metrics) {
+        UserInfoService userInfoService = metrics(metrics).subjectValidation(new DefaultUserInfoService(gateway,
+                                                                                                        extractor));
+
+        if (oidcConfig.getUserInfo().isCoalesceRequests()) {
+            userInfoService = new CoalescingUserInfoService(userInfoService);
+        }
+
+        final OidcConfig.Cache cache = oidcConfig.getUserInfo().getCache();
+
+        if (cache.isEnabled()) {
+            final UserInfoCachePolicy policy = UserInfoCachePolicy.builder()
+                                                                  .ttl(cache.getTtl())
+                                                                  .refreshAhead(cache.getRefreshAhead())
+                                                                  .staleIfError(cache.getStaleIfError())
+                                                                  .build();
+            final UserInfoCacheStore store = cacheStore.getIfAvailable();
+            if (store != null) {
+                return new CachingUserInfoService(userInfoService, store, policy, refreshExecutor());
+            }
+            return new CachingUserInfoService(userInfoService, cache.getMaxSize(), policy, refreshExecutor());
+        }
+
+        return userInfoService;
+    }
+
+    /**
+     * Bounded pool for refresh-ahead: once the queue is full, refreshes are rejected and the entries are refreshed on a
+     * later hit instead.
+     */
+    private ExecutorService refreshExecutor() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("quickcase-user-info-refresh-");
+        threadFactory.setDaemon(true);
+        return managed(new ThreadPoolExecutor(REFRESH_THREADS,
+                                              REFRESH_THREADS,
+                                              0L,
+                                              TimeUnit.MILLISECONDS,
+                                              new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+                                              threadFactory,
+                                              new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    private <T extends ExecutorService> T managed(T executor) {
+        executors.add(executor);
+        return executor;
+    }
+
+    private CloseableHttpClient managed(CloseableHttpClient httpClient) {
+        httpClients.add(httpClient);
+        return httpClient;
     }
 
     @Bean
+    @Conditional(NotReactiveWebApplicationCondition.class)
     @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "user-info", matchIfMissing = true)
     public UserInfoAuthenticationConverter createUserInfoAuthenticationConverter(
             UserInfoService userInfoService,
@@ -61,6 +204,7 @@ public class QuickcaseSecurityConfig {
     }
 
     @Bean
+    @Conditional(NotReactiveWebApplicationCondition.class)
     @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "jwt-access-token")
     public AccessTokenAuthenticationConverter createAccessTokenAuthenticationConverter(
             UserInfoExtractor userInfoExtractor,
@@ -70,8 +214,132 @@ public class QuickcaseSecurityConfig {
     }
 
     @Bean
+    @Conditional(NotReactiveWebApplicationCondition.class)
+    @ConditionalOnProperty(prefix = "quickcase.oidc", name = "mode", havingValue = "hybrid")
+    public HybridAuthenticationConverter createHybridAuthenticationConverter(
+            UserInfoExtractor userInfoExtractor,
+            UserInfoService userInfoService,
+            ClaimNamesProvider claimNamesProvider,
+            OidcConfig oidcConfig
+    ) {
+        return new HybridAuthenticationConverter(
+                new AccessTokenAuthenticationConverter(userInfoExtractor, oidcConfig.getOpenidScope()),
+                new UserInfoAuthenticationConverter(userInfoService, oidcConfig.getOpenidScope()),
+                hybridRequiredClaims(oidcConfig, claimNamesProvider)
+        );
+    }
+
+    static Set<String> hybridRequiredClaims(OidcConfig oidcConfig, ClaimNamesProvider claimNamesProvider) {
+        return oidcConfig.getHybrid()
+                         .getRequiredClaims()
+                         .stream()
+                         .map(claimNamesProvider::resolve)
+                         .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Decoder private to {@link QuickcaseSecurityDsl} rather than a bean, so that neither the application's own
+     * {@link JwtDecoder} nor Spring Boot's resource server decoder are affected.
+     */
+    private JwtDecoder jwtDecoder(OidcConfig oidcConfig,
+                                  ResourceLoader resourceLoader,
+                                  ObjectProvider<AuthenticationMetrics> metrics) throws MalformedURLException {
+        final OidcConfig.Jwks jwks = oidcConfig.getJwks();
+        JWKSource<SecurityContext> jwkSource = null;
+
+        if (jwks.isEnabled()) {
+            final SnapshotJwkSource snapshotJwkSource = snapshotJwkSource(oidcConfig.getJwkSetUri(),
+                                                                          jwks,
+                                                                          resourceLoader);
+            jwksRefreshExecutor().scheduleWithFixedDelay(snapshotJwkSource::refresh,
+                                                         0,
+                                                         jwks.getRefreshInterval().toMillis(),
+                                                         TimeUnit.MILLISECONDS);
+            jwkSource = snapshotJwkSource;
+        }
+
+        JwtDecoder jwtDecoder;
+        Set<String> algorithms;
+
+        if (QUICKCASE_DECODER.equals(oidcConfig.getJwt().getDecoder())) {
+            if (jwkSource == null) {
+                jwkSource = JWKSourceBuilder.create(new URL(oidcConfig.getJwkSetUri())).build();
+            }
+            jwtDecoder = new QuickcaseJwtDecoder(jwkSource);
+            algorithms = QuickcaseJwtDecoder.ALGORITHMS;
+        } else {
+            jwtDecoder = jwkSource != null
+                    ? snapshotJwtDecoder(jwkSource)
+                    : NimbusJwtDecoder.withJwkSetUri(oidcConfig.getJwkSetUri()).build();
+            algorithms = Set.of(JwsAlgorithms.RS256);
+        }
+
+        final OidcConfig.PreValidation preValidation = oidcConfig.getJwt().getPreValidation();
+
+        if (preValidation.isEnabled()) {
+            jwtDecoder = metrics(metrics).preValidation(new PreValidatingJwtDecoder(jwtDecoder,
+                                                                                    algorithms,
+                                                                                    preValidation.getIssuer(),
+                                                                                    preValidation.getClockSkew()));
+        }
+
+        return metrics(metrics).decoder(jwtDecoder);
+    }
+
+    static SnapshotJwkSource snapshotJwkSource(String jwkSetUri, OidcConfig.Jwks jwks, ResourceLoader resourceLoader)
+            throws MalformedURLException {
+        final Resource snapshot = jwks.getSnapshot() != null ? resourceLoader.getResource(jwks.getSnapshot()) : null;
+        final ResourceRetriever retriever = new DefaultResourceRetriever(
+                JWKSourceBuilder.DEFAULT_HTTP_CONNECT_TIMEOUT,
+                JWKSourceBuilder.DEFAULT_HTTP_READ_TIMEOUT,
+                JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT
+        );
+        return new SnapshotJwkSource(new URL(jwkSetUri), retriever, snapshot, jwks.getUnknownKeyRefreshInterval());
+    }
+
+    static JwtDecoder snapshotJwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        final DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims validated by NimbusJwtDecoder, as with NimbusJwtDecoder.withJwkSetUri
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private ScheduledExecutorService jwksRefreshExecutor() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("quickcase-jwks-refresh-");
+        threadFactory.setDaemon(true);
+        return managed(Executors.newSingleThreadScheduledExecutor(threadFactory));
+    }
+
+    @Bean
+    @Conditional(NotReactiveWebApplicationCondition.class)
     public QuickcaseSecurityDsl createSecurityDsl(OidcConfig oidcConfig,
-                                                  QuickcaseAuthenticationConverter authenticationConverter) {
-        return new DefaultQuickcaseSecurityDsl(oidcConfig, authenticationConverter);
+                                                  QuickcaseAuthenticationConverter authenticationConverter,
+                                                  ResourceLoader resourceLoader,
+                                                  ObjectProvider<AuthenticationMetrics> metrics)
+            throws MalformedURLException {
+        final JwtDecoder jwtDecoder = jwtDecoder(oidcConfig, resourceLoader, metrics);
+        final QuickcaseAuthenticationConverter converter = metrics(metrics).converter(authenticationConverter);
+        final OidcConfig.AuthenticationCache cache = oidcConfig.getAuthentication().getCache();
+
+        if (cache.isEnabled()) {
+            final CachingAuthenticationManager authenticationManager = new CachingAuthenticationManager(
+                    jwtDecoder, converter, cache.getMaxSize(), cache.getTtl()
+            );
+            return new DefaultQuickcaseSecurityDsl(jwtDecoder, converter, authenticationManager);
+        }
+
+        return new DefaultQuickcaseSecurityDsl(jwtDecoder, converter);
+    }
+
+    private static AuthenticationMetrics metrics(ObjectProvider<AuthenticationMetrics> metrics) {
+        return metrics.getIfAvailable(() -> AuthenticationMetrics.NONE);
+    }
+
+    @Override
+    public void destroy() {
+        executors.forEach(ExecutorService::shutdownNow);
+        httpClients.forEach(httpClient -> httpClient.close(CloseMode.IMMEDIATE));
     }
 }
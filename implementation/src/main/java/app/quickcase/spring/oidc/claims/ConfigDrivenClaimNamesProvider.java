@@ -10,7 +10,6 @@ import app.quickcase.spring.oidc.OidcConfig;
  * @since 1.0
  */
 public class ConfigDrivenClaimNamesProvider implements ClaimNamesProvider {
-    private final String prefix;
     private final String sub;
     private final String name;
     private final String email;
@@ -22,18 +21,18 @@ public class ConfigDrivenClaimNamesProvider implements ClaimNamesProvider {
     private final String defaultState;
 
     public ConfigDrivenClaimNamesProvider(OidcConfig.Claims claimsConfig) {
-        this.prefix = claimsConfig.getPrefix();
+        final String prefix = claimsConfig.getPrefix();
 
         final OidcConfig.ClaimNames names = claimsConfig.getNames();
         this.sub = names.getSub();
         this.name = names.getName();
         this.email = names.getEmail();
-        this.roles = names.getRoles();
-        this.groups = names.getGroups();
-        this.organisations = names.getOrganisations();
-        this.defaultJurisdiction = names.getDefaultJurisdiction();
-        this.defaultCaseType = names.getDefaultCaseType();
-        this.defaultState = names.getDefaultState();
+        this.roles = prefix + names.getRoles();
+        this.groups = prefix + names.getGroups();
+        this.organisations = prefix + names.getOrganisations();
+        this.defaultJurisdiction = prefix + names.getDefaultJurisdiction();
+        this.defaultCaseType = prefix + names.getDefaultCaseType();
+        this.defaultState = prefix + names.getDefaultState();
     }
 
     @Override
@@ -53,31 +52,31 @@ public class ConfigDrivenClaimNamesProvider implements ClaimNamesProvider {
 
     @Override
     public String roles() {
-        return prefix + roles;
+        return roles;
     }
 
     @Override
     public String groups() {
-        return prefix + groups;
+        return groups;
     }
 
     @Override
     public String organisations() {
-        return prefix + organisations;
+        return organisations;
     }
 
     @Override
     public String defaultJurisdiction() {
-        return prefix + defaultJurisdiction;
+        return defaultJurisdiction;
     }
 
     @Override
     public String defaultCaseType() {
-        return prefix + defaultCaseType;
+        return defaultCaseType;
     }
 
     @Override
     public String defaultState() {
-        return prefix + defaultState;
+        return defaultState;
     }
 }
@@ -0,0 +1,47 @@
+package app.quickcase.spring.oidc.metrics;
+
+import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.jwt.PreValidatingJwtDecoder;
+import app.quickcase.spring.oidc.userinfo.UserInfoExtractor;
+import app.quickcase.spring.oidc.userinfo.UserInfoGateway;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Instrumentation of the stages of the authentication pipeline. Each stage is decorated to record metrics, or left
+ * untouched by {@link #NONE} when no metrics are collected.
+ */
+public interface AuthenticationMetrics {
+    AuthenticationMetrics NONE = new AuthenticationMetrics() {
+    };
+
+    default JwtDecoder decoder(JwtDecoder decoder) {
+        return decoder;
+    }
+
+    /**
+     * @param decoder Decoder rejecting tokens before signature verification, its rejection counts are published
+     */
+    default PreValidatingJwtDecoder preValidation(PreValidatingJwtDecoder decoder) {
+        return decoder;
+    }
+
+    default QuickcaseAuthenticationConverter converter(QuickcaseAuthenticationConverter converter) {
+        return converter;
+    }
+
+    default UserInfoGateway gateway(UserInfoGateway gateway) {
+        return gateway;
+    }
+
+    /**
+     * @param userInfoService Service validating the subject of user info, ie. not caching or coalescing calls
+     */
+    default UserInfoService subjectValidation(UserInfoService userInfoService) {
+        return userInfoService;
+    }
+
+    default UserInfoExtractor extractor(UserInfoExtractor extractor) {
+        return extractor;
+    }
+}
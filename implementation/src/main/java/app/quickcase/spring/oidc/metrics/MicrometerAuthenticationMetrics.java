@@ -0,0 +1,210 @@
+package app.quickcase.spring.oidc.metrics;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseUserAuthentication;
+import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.jwt.PreValidatingJwtDecoder;
+import app.quickcase.spring.oidc.jwt.TokenRejectedException;
+import app.quickcase.spring.oidc.userinfo.SubjectMismatchException;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserInfoExtractor;
+import app.quickcase.spring.oidc.userinfo.UserInfoGateway;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Record authentication pipeline metrics with Micrometer. All meters are tagged with the configured `mode`:
+ * <ul>
+ *     <li><code>quickcase.oidc.jwt.decode</code>: timer, tagged with <code>outcome</code></li>
+ *     <li><code>quickcase.oidc.jwt.rejected</code>: counter of tokens rejected before signature verification, tagged
+ *     with <code>reason</code></li>
+ *     <li><code>quickcase.oidc.authentication.convert</code>: timer, tagged with <code>principal</code>
+ *     (<code>user</code>, <code>client</code> or <code>none</code> on failure) and <code>outcome</code></li>
+ *     <li><code>quickcase.oidc.userinfo.request</code>: timer, tagged with <code>status</code> and <code>outcome</code>
+ *     (<code>SUCCESS</code>, <code>CLIENT_ERROR</code>, <code>SERVER_ERROR</code> or <code>UNKNOWN</code>)</li>
+ *     <li><code>quickcase.oidc.userinfo.subject.validation</code>: counter, tagged with <code>outcome</code>
+ *     (<code>match</code> or <code>mismatch</code>)</li>
+ *     <li><code>quickcase.oidc.userinfo.extract</code>: timer, tagged with <code>outcome</code></li>
+ * </ul>
+ *
+ * <p>
+ * Meters are registered upfront, so that recording does not look them up in the registry. Only requests to the
+ * <code>/userinfo</code> endpoint failing with an unusual HTTP status register their timer when first recorded.
+ */
+public class MicrometerAuthenticationMetrics implements AuthenticationMetrics {
+    static final String JWT_DECODE = "quickcase.oidc.jwt.decode";
+    static final String JWT_REJECTED = "quickcase.oidc.jwt.rejected";
+    static final String CONVERT = "quickcase.oidc.authentication.convert";
+    static final String USER_INFO_REQUEST = "quickcase.oidc.userinfo.request";
+    static final String SUBJECT_VALIDATION = "quickcase.oidc.userinfo.subject.validation";
+    static final String EXTRACT = "quickcase.oidc.userinfo.extract";
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+    private static final String DECODE_DESCRIPTION = "Decoding and validation of access tokens";
+    private static final String CONVERT_DESCRIPTION = "Conversion of access tokens into QuickCase authentications";
+    private static final String USER_INFO_REQUEST_DESCRIPTION = "Requests to the /userinfo endpoint";
+    private static final String EXTRACT_DESCRIPTION = "Extraction of user info from claims";
+    private static final int[] USER_INFO_ERROR_STATUSES = {400, 401, 403, 404, 429, 500, 502, 503, 504};
+
+    private final MeterRegistry registry;
+    private final Tags modeTags;
+    private final Counter subjectMatches;
+    private final Counter subjectMismatches;
+    private final Timer decodeSuccesses;
+    private final Timer decodeFailures;
+    private final Timer userConversions;
+    private final Timer clientConversions;
+    private final Timer failedConversions;
+    private final Timer userInfoSuccesses;
+    private final Timer userInfoIoErrors;
+    private final Timer userInfoUnknownErrors;
+    private final Map<Integer, Timer> userInfoErrors;
+    private final Timer extractSuccesses;
+    private final Timer extractFailures;
+
+    public MicrometerAuthenticationMetrics(MeterRegistry registry, String mode) {
+        this.registry = registry;
+        this.modeTags = Tags.of("mode", mode);
+        this.subjectMatches = Counter.builder(SUBJECT_VALIDATION)
+                                     .description("Validations of the subject of user info against the access token")
+                                     .tags(modeTags.and("outcome", "match"))
+                                     .register(registry);
+        this.subjectMismatches = Counter.builder(SUBJECT_VALIDATION)
+                                        .description("Validations of the subject of user info against the access token")
+                                        .tags(modeTags.and("outcome", "mismatch"))
+                                        .register(registry);
+        this.decodeSuccesses = timer(JWT_DECODE, DECODE_DESCRIPTION, "outcome", SUCCESS);
+        this.decodeFailures = timer(JWT_DECODE, DECODE_DESCRIPTION, "outcome", FAILURE);
+        this.userConversions = timer(CONVERT, CONVERT_DESCRIPTION, "principal", "user", "outcome", SUCCESS);
+        this.clientConversions = timer(CONVERT, CONVERT_DESCRIPTION, "principal", "client", "outcome", SUCCESS);
+        this.failedConversions = timer(CONVERT, CONVERT_DESCRIPTION, "principal", "none", "outcome", FAILURE);
+        this.userInfoSuccesses = userInfoTimer("2xx", "SUCCESS");
+        this.userInfoIoErrors = userInfoTimer("IO_ERROR", "UNKNOWN");
+        this.userInfoUnknownErrors = userInfoTimer("UNKNOWN", "UNKNOWN");
+        this.userInfoErrors = IntStream.of(USER_INFO_ERROR_STATUSES)
+                                       .boxed()
+                                       .collect(Collectors.toUnmodifiableMap(
+                                               Function.identity(),
+                                               status -> userInfoTimer(HttpStatusCode.valueOf(status))
+                                       ));
+        this.extractSuccesses = timer(EXTRACT, EXTRACT_DESCRIPTION, "outcome", SUCCESS);
+        this.extractFailures = timer(EXTRACT, EXTRACT_DESCRIPTION, "outcome", FAILURE);
+    }
+
+    @Override
+    public JwtDecoder decoder(JwtDecoder decoder) {
+        return token -> timed(decodeSuccesses, decodeFailures, decoder::decode, token);
+    }
+
+    @Override
+    public PreValidatingJwtDecoder preValidation(PreValidatingJwtDecoder decoder) {
+        for (TokenRejectedException.Reason reason : TokenRejectedException.Reason.values()) {
+            FunctionCounter.builder(JWT_REJECTED, decoder, d -> d.getRejectionCount(reason))
+                           .description("Access tokens rejected before signature verification")
+                           .tags(modeTags.and("reason", reason.name()))
+                           .register(registry);
+        }
+        return decoder;
+    }
+
+    @Override
+    public QuickcaseAuthenticationConverter converter(QuickcaseAuthenticationConverter converter) {
+        return jwt -> {
+            final Timer.Sample sample = Timer.start(registry);
+            Timer timer = failedConversions;
+            try {
+                final QuickcaseAuthentication authentication = converter.convert(jwt);
+                timer = authentication instanceof QuickcaseUserAuthentication ? userConversions : clientConversions;
+                return authentication;
+            } finally {
+                sample.stop(timer);
+            }
+        };
+    }
+
+    @Override
+    public UserInfoGateway gateway(UserInfoGateway gateway) {
+        return accessToken -> {
+            final Timer.Sample sample = Timer.start(registry);
+            Timer timer = userInfoSuccesses;
+            try {
+                return gateway.getClaims(accessToken);
+            } catch (HttpStatusCodeException e) {
+                timer = userInfoErrors.get(e.getStatusCode().value());
+                if (timer == null) {
+                    timer = userInfoTimer(e.getStatusCode());
+                }
+                throw e;
+            } catch (ResourceAccessException e) {
+                timer = userInfoIoErrors;
+                throw e;
+            } catch (RuntimeException e) {
+                timer = userInfoUnknownErrors;
+                throw e;
+            } finally {
+                sample.stop(timer);
+            }
+        };
+    }
+
+    @Override
+    public UserInfoService subjectValidation(UserInfoService userInfoService) {
+        return (expectedSubject, accessToken) -> {
+            try {
+                final UserInfo userInfo = userInfoService.loadUserInfo(expectedSubject, accessToken);
+                subjectMatches.increment();
+                return userInfo;
+            } catch (SubjectMismatchException e) {
+                subjectMismatches.increment();
+                throw e;
+            }
+        };
+    }
+
+    @Override
+    public UserInfoExtractor extractor(UserInfoExtractor extractor) {
+        return claims -> timed(extractSuccesses, extractFailures, extractor::extract, claims);
+    }
+
+    private <I, T> T timed(Timer successes, Timer failures, Function<I, T> stage, I input) {
+        final Timer.Sample sample = Timer.start(registry);
+        Timer timer = failures;
+        try {
+            final T result = stage.apply(input);
+            timer = successes;
+            return result;
+        } finally {
+            sample.stop(timer);
+        }
+    }
+
+    private Timer userInfoTimer(HttpStatusCode status) {
+        final String outcome = status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+        return userInfoTimer(String.valueOf(status.value()), outcome);
+    }
+
+    private Timer userInfoTimer(String status, String outcome) {
+        return timer(USER_INFO_REQUEST, USER_INFO_REQUEST_DESCRIPTION, "status", status, "outcome", outcome);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                    .description(description)
+                    .tags(modeTags.and(tags))
+                    .register(registry);
+    }
+}
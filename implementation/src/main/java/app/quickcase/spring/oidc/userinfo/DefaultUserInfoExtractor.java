@@ -2,69 +2,106 @@ package app.quickcase.spring.oidc.userinfo;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 import app.quickcase.spring.oidc.OidcException;
 import app.quickcase.spring.oidc.claims.ClaimNamesProvider;
 import app.quickcase.spring.oidc.claims.ClaimsParser;
-import app.quickcase.spring.oidc.organisation.JsonOrganisationProfilesParser;
+import app.quickcase.spring.oidc.organisation.LazyOrganisationProfiles;
 import app.quickcase.spring.oidc.organisation.OrganisationProfile;
 import app.quickcase.spring.oidc.utils.StringUtils;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Extract user info from claims, following an {@link ExtractionPlan} compiled once from the claim names provided.
+ * Each claim is read at most once per extraction.
+ */
 @Slf4j
 public class DefaultUserInfoExtractor implements UserInfoExtractor {
-    private static final JsonOrganisationProfilesParser ORG_PARSER = new JsonOrganisationProfilesParser();
-
-    private final ClaimNamesProvider claimNames;
+    private final ExtractionPlan plan;
 
     public DefaultUserInfoExtractor(ClaimNamesProvider claimNamesProvider) {
-        this.claimNames = claimNamesProvider;
+        this.plan = new ExtractionPlan(claimNamesProvider);
     }
 
     @Override
     public UserInfo extract(ClaimsParser claimsParser) {
-        final String subject = claimsParser.getString(claimNames.sub())
-                                           .orElseThrow(() -> new OidcException("Mandatory subject claim missing: " + claimNames.sub()));
+        final String subject = claimsParser.getStringOrNull(plan.sub);
+        if (subject == null) {
+            throw new OidcException("Mandatory subject claim missing: " + plan.sub);
+        }
 
         final UserInfo.UserInfoBuilder builder = UserInfo.builder(subject);
 
-        claimsParser.getString(claimNames.name()).ifPresent(builder::name);
-        claimsParser.getString(claimNames.email()).ifPresent(builder::email);
+        final String name = claimsParser.getStringOrNull(plan.name);
+        if (name != null) {
+            builder.name(name);
+        }
 
-        claimsParser.getString(claimNames.roles())
-                    .map(StringUtils::fromCommaSeparated)
-                    .ifPresent(builder::authorities);
+        final String email = claimsParser.getStringOrNull(plan.email);
+        if (email != null) {
+            builder.email(email);
+        }
 
-        claimsParser.getString(claimNames.roles())
-                    .map((str) -> StringUtils.fromString(str, ","))
-                    .ifPresent(builder::roles);
+        final String roles = claimsParser.getStringOrNull(plan.roles);
+        if (roles != null) {
+            final Set<String> roleNames = StringUtils.fromString(roles, ",");
+            builder.authorities(StringUtils.authorities(roleNames))
+                   .roles(roleNames);
+        }
 
-        claimsParser.getString(claimNames.groups())
-                    .map((str) -> StringUtils.fromString(str, ","))
-                    .ifPresent(builder::groups);
+        final String groups = claimsParser.getStringOrNull(plan.groups);
+        if (groups != null) {
+            builder.groups(StringUtils.fromString(groups, ","));
+        }
 
         return builder.preferences(extractPreferences(claimsParser))
-                      .organisationProfiles(extractProfiles(subject, claimsParser))
+                      .organisationProfiles(extractProfiles(claimsParser))
                       .build();
     }
 
     private UserPreferences extractPreferences(ClaimsParser claimsParser) {
-        final UserPreferences.UserPreferencesBuilder builder = UserPreferences.builder();
-
-        claimsParser.getString(claimNames.defaultJurisdiction()).ifPresent(builder::defaultJurisdiction);
-        claimsParser.getString(claimNames.defaultCaseType()).ifPresent(builder::defaultCaseType);
-        claimsParser.getString(claimNames.defaultState()).ifPresent(builder::defaultState);
+        return UserPreferences.builder()
+                              .defaultJurisdiction(claimsParser.getStringOrNull(plan.defaultJurisdiction))
+                              .defaultCaseType(claimsParser.getStringOrNull(plan.defaultCaseType))
+                              .defaultState(claimsParser.getStringOrNull(plan.defaultState))
+                              .build();
+    }
 
-        return builder.build();
+    private Map<String, OrganisationProfile> extractProfiles(ClaimsParser claimsParser) {
+        final ObjectNode organisations = claimsParser.getObject(plan.organisations).orElse(null);
+        if (organisations == null) {
+            return Collections.emptyMap();
+        }
+        return new LazyOrganisationProfiles(organisations);
     }
 
-    private Map<String, OrganisationProfile> extractProfiles(String subject, ClaimsParser claimsParser) {
-        log.debug("Extracting organisation profiles for subject `{}`", subject);
-        return claimsParser.getObject(claimNames.organisations())
-                           .map(ORG_PARSER::parse)
-                           .orElseGet(() -> {
-                               log.debug("No organisation profiles extracted for subject `{}`", subject);
-                               return Collections.emptyMap();
-                           });
+    /**
+     * Names of the claims to read, resolved once from the {@link ClaimNamesProvider}.
+     */
+    static final class ExtractionPlan {
+        private final String sub;
+        private final String name;
+        private final String email;
+        private final String roles;
+        private final String groups;
+        private final String organisations;
+        private final String defaultJurisdiction;
+        private final String defaultCaseType;
+        private final String defaultState;
+
+        ExtractionPlan(ClaimNamesProvider claimNames) {
+            this.sub = claimNames.sub();
+            this.name = claimNames.name();
+            this.email = claimNames.email();
+            this.roles = claimNames.roles();
+            this.groups = claimNames.groups();
+            this.organisations = claimNames.organisations();
+            this.defaultJurisdiction = claimNames.defaultJurisdiction();
+            this.defaultCaseType = claimNames.defaultCaseType();
+            this.defaultState = claimNames.defaultState();
+            log.debug("Compiled user info extraction plan for claims: {}", claimNames.all());
+        }
     }
 }
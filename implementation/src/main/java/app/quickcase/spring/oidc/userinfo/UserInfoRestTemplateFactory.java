@@ -0,0 +1,79 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import app.quickcase.spring.oidc.OidcConfig;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Create the {@link RestTemplate} used by {@link DefaultUserInfoGateway}, backed by a pooled Apache HTTP client
+ * configured from `quickcase.oidc.user-info.http` properties.
+ *
+ * <p>
+ * The HTTP client runs a thread evicting idle connections, and must be closed by the caller once no longer used.
+ */
+public class UserInfoRestTemplateFactory {
+    private final OidcConfig.Http config;
+
+    public UserInfoRestTemplateFactory(OidcConfig.Http config) {
+        this.config = config;
+    }
+
+    public RestTemplate create(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    public CloseableHttpClient createHttpClient() {
+        final PoolingHttpClientConnectionManager connectionManager =
+                PoolingHttpClientConnectionManagerBuilder.create()
+                                                         .setMaxConnTotal(config.getMaxConnections())
+                                                         .setMaxConnPerRoute(config.getMaxConnections())
+                                                         .setDefaultConnectionConfig(connectionConfig())
+                                                         .build();
+
+        final HttpClientBuilder clientBuilder = HttpClients.custom()
+                                                           .setConnectionManager(connectionManager)
+                                                           .setDefaultRequestConfig(requestConfig())
+                                                           .evictExpiredConnections()
+                                                           .evictIdleConnections(timeValue(config.getIdleEviction()));
+
+        if (!config.isGzip()) {
+            clientBuilder.disableContentCompression();
+        }
+
+        return clientBuilder.build();
+    }
+
+    private ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                               .setConnectTimeout(timeout(config.getConnectTimeout()))
+                               .setSocketTimeout(timeout(config.getReadTimeout()))
+                               .build();
+    }
+
+    private RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                            .setConnectionRequestTimeout(timeout(config.getConnectionRequestTimeout()))
+                            .setResponseTimeout(timeout(config.getReadTimeout()))
+                            .setConnectionKeepAlive(timeValue(config.getKeepAlive()))
+                            .build();
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
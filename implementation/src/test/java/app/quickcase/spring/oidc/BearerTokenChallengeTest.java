@@ -0,0 +1,99 @@
+package app.quickcase.spring.oidc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Bearer token challenge")
+class BearerTokenChallengeTest {
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\", error_description=";
+
+    @Nested
+    @SpringBootTest(properties = {
+            "quickcase.oidc.mode=jwt-access-token",
+            "quickcase.oidc.jwk-set-uri=https://oidc.provider/jwkset",
+            "quickcase.oidc.user-info-uri=https://oidc.provider/userinfo",
+            "quickcase.oidc.jwt.pre-validation.enabled=true",
+    })
+    @AutoConfigureMockMvc
+    @Import(SecurityConfig.class)
+    @DisplayName("when token pre-validated")
+    class PreValidated {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        @DisplayName("should challenge expired token as invalid token")
+        void shouldChallengeExpiredToken() throws Exception {
+            assertInvalidTokenChallenge(mockMvc);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "quickcase.oidc.mode=jwt-access-token",
+            "quickcase.oidc.jwk-set-uri=https://oidc.provider/jwkset",
+            "quickcase.oidc.user-info-uri=https://oidc.provider/userinfo",
+            "quickcase.oidc.jwt.pre-validation.enabled=true",
+            "quickcase.oidc.authentication.cache.enabled=true",
+    })
+    @AutoConfigureMockMvc
+    @Import(SecurityConfig.class)
+    @DisplayName("when token pre-validated and authentication cached")
+    class PreValidatedAndCached {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        @DisplayName("should challenge expired token as invalid token")
+        void shouldChallengeExpiredToken() throws Exception {
+            assertInvalidTokenChallenge(mockMvc);
+        }
+    }
+
+    private static void assertInvalidTokenChallenge(MockMvc mockMvc) throws Exception {
+        mockMvc.perform(get("/").header(HttpHeaders.AUTHORIZATION, "Bearer " + expiredToken()))
+               .andExpect(status().isUnauthorized())
+               .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, startsWith(INVALID_TOKEN_CHALLENGE)));
+    }
+
+    private static String expiredToken() {
+        final long expiredAt = Instant.now().minusSeconds(3600).getEpochSecond();
+        return encode("{\"alg\":\"RS256\",\"kid\":\"key-1\"}")
+                + "." + encode("{\"sub\":\"user-1\",\"exp\":" + expiredAt + "}")
+                + ".c2lnbmF0dXJl";
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class SecurityConfig {
+        @Bean
+        SecurityFilterChain securityFilterChain(HttpSecurity http, QuickcaseSecurityDsl quickcaseDsl) throws Exception {
+            return quickcaseDsl.withQuickcaseSecurity(http)
+                               .authorizeHttpRequests(requests -> requests.anyRequest().authenticated())
+                               .build();
+        }
+    }
+}
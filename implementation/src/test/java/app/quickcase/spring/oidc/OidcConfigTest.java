@@ -7,9 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
 class OidcConfigTest {
@@ -27,6 +34,7 @@ class OidcConfigTest {
         @DisplayName("should provide root configuration")
         void shouldProvideRootConfiguration() {
             assertAll(
+                    () -> assertThat(oidcConfig.getMode(), equalTo("hybrid")),
                     () -> assertThat(oidcConfig.getJwkSetUri(), equalTo("https://oidc.provider/jwkset")),
                     () -> assertThat(oidcConfig.getUserInfoUri(), equalTo("https://oidc.provider/userinfo")),
                     () -> assertThat(oidcConfig.getOpenidScope(), equalTo("custom-openid"))
@@ -55,6 +63,97 @@ class OidcConfigTest {
             final String prefix = oidcConfig.getClaims().getPrefix();
             assertThat(prefix, equalTo("custom-prefix:"));
         }
+
+        @Test
+        @DisplayName("should provide overridden user info cache")
+        void shouldProvideUserInfoCacheOverrides() {
+            final OidcConfig.Cache cache = oidcConfig.getUserInfo().getCache();
+            assertAll(
+                    () -> assertThat(cache.isEnabled(), equalTo(true)),
+                    () -> assertThat(cache.getMaxSize(), equalTo(500)),
+                    () -> assertThat(cache.getTtl(), equalTo(Duration.ofMinutes(2))),
+                    () -> assertThat(cache.getRefreshAhead(), equalTo(Duration.ofSeconds(30))),
+                    () -> assertThat(cache.getStaleIfError(), equalTo(Duration.ofMinutes(1)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide overridden user info request coalescing")
+        void shouldProvideUserInfoCoalescingOverride() {
+            assertThat(oidcConfig.getUserInfo().isCoalesceRequests(), equalTo(true));
+        }
+
+        @Test
+        @DisplayName("should provide overridden user info HTTP client")
+        void shouldProvideUserInfoHttpOverrides() {
+            final OidcConfig.Http http = oidcConfig.getUserInfo().getHttp();
+            assertAll(
+                    () -> assertThat(http.getMaxConnections(), equalTo(20)),
+                    () -> assertThat(http.getKeepAlive(), equalTo(Duration.ofSeconds(10))),
+                    () -> assertThat(http.getIdleEviction(), equalTo(Duration.ofSeconds(20))),
+                    () -> assertThat(http.getConnectTimeout(), equalTo(Duration.ofSeconds(1))),
+                    () -> assertThat(http.getConnectionRequestTimeout(), equalTo(Duration.ofMillis(500))),
+                    () -> assertThat(http.getReadTimeout(), equalTo(Duration.ofSeconds(3))),
+                    () -> assertThat(http.isGzip(), equalTo(false))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide overridden user info streaming")
+        void shouldProvideUserInfoStreamingOverrides() {
+            final OidcConfig.Streaming streaming = oidcConfig.getUserInfo().getStreaming();
+            assertAll(
+                    () -> assertThat(streaming.isEnabled(), equalTo(true)),
+                    () -> assertThat(streaming.getMaxResponseSize(), equalTo(DataSize.ofKilobytes(64)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide overridden JWT decoding")
+        void shouldProvideJwtOverrides() {
+            final OidcConfig.PreValidation preValidation = oidcConfig.getJwt().getPreValidation();
+            assertAll(
+                    () -> assertThat(oidcConfig.getJwt().getDecoder(), equalTo("quickcase")),
+                    () -> assertThat(preValidation.isEnabled(), equalTo(true)),
+                    () -> assertThat(preValidation.getIssuer(), equalTo("https://oidc.provider")),
+                    () -> assertThat(preValidation.getClockSkew(), equalTo(Duration.ofSeconds(10)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide overridden JWK set")
+        void shouldProvideJwksOverrides() {
+            final OidcConfig.Jwks jwks = oidcConfig.getJwks();
+            assertAll(
+                    () -> assertThat(jwks.isEnabled(), equalTo(true)),
+                    () -> assertThat(jwks.getSnapshot(), equalTo("file:/var/lib/quickcase/jwks.json")),
+                    () -> assertThat(jwks.getRefreshInterval(), equalTo(Duration.ofMinutes(10))),
+                    () -> assertThat(jwks.getUnknownKeyRefreshInterval(), equalTo(Duration.ofMinutes(1)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide overridden role index")
+        void shouldProvideRoleIndexOverrides() {
+            assertThat(oidcConfig.getAuthentication().getRoleIndex(), contains("caseworker", "admin"));
+        }
+
+        @Test
+        @DisplayName("should provide overridden authentication cache")
+        void shouldProvideAuthenticationCacheOverrides() {
+            final OidcConfig.AuthenticationCache cache = oidcConfig.getAuthentication().getCache();
+            assertAll(
+                    () -> assertThat(cache.isEnabled(), equalTo(true)),
+                    () -> assertThat(cache.getMaxSize(), equalTo(1000)),
+                    () -> assertThat(cache.getTtl(), equalTo(Duration.ofMinutes(1)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide overridden hybrid required claims")
+        void shouldProvideHybridOverrides() {
+            assertThat(oidcConfig.getHybrid().getRequiredClaims(), equalTo(List.of("roles", "default-jurisdiction")));
+        }
     }
 
     @Nested
@@ -69,7 +168,10 @@ class OidcConfigTest {
         @Test
         @DisplayName("should provide root configuration")
         void shouldProvideRootConfiguration() {
-            assertThat(oidcConfig.getOpenidScope(), equalTo("openid"));
+            assertAll(
+                    () -> assertThat(oidcConfig.getMode(), equalTo("user-info")),
+                    () -> assertThat(oidcConfig.getOpenidScope(), equalTo("openid"))
+            );
         }
 
         @Test
@@ -94,5 +196,97 @@ class OidcConfigTest {
             final String prefix = oidcConfig.getClaims().getPrefix();
             assertThat(prefix, equalTo(""));
         }
+
+        @Test
+        @DisplayName("should provide default user info cache")
+        void shouldProvideDefaultUserInfoCache() {
+            final OidcConfig.Cache cache = oidcConfig.getUserInfo().getCache();
+            assertAll(
+                    () -> assertThat(cache.isEnabled(), equalTo(false)),
+                    () -> assertThat(cache.getMaxSize(), equalTo(10000)),
+                    () -> assertThat(cache.getTtl(), equalTo(Duration.ofMinutes(5))),
+                    () -> assertThat(cache.getRefreshAhead(), equalTo(Duration.ZERO)),
+                    () -> assertThat(cache.getStaleIfError(), equalTo(Duration.ZERO))
+            );
+        }
+
+        @Test
+        @DisplayName("should not coalesce user info requests by default")
+        void shouldNotCoalesceUserInfoRequestsByDefault() {
+            assertThat(oidcConfig.getUserInfo().isCoalesceRequests(), equalTo(false));
+        }
+
+        @Test
+        @DisplayName("should provide default user info HTTP client")
+        void shouldProvideDefaultUserInfoHttp() {
+            final OidcConfig.Http http = oidcConfig.getUserInfo().getHttp();
+            assertAll(
+                    () -> assertThat(http.getMaxConnections(), equalTo(50)),
+                    () -> assertThat(http.getKeepAlive(), equalTo(Duration.ofSeconds(30))),
+                    () -> assertThat(http.getIdleEviction(), equalTo(Duration.ofSeconds(60))),
+                    () -> assertThat(http.getConnectTimeout(), equalTo(Duration.ofSeconds(5))),
+                    () -> assertThat(http.getConnectionRequestTimeout(), equalTo(Duration.ofSeconds(1))),
+                    () -> assertThat(http.getReadTimeout(), equalTo(Duration.ofSeconds(10))),
+                    () -> assertThat(http.isGzip(), equalTo(true))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide default user info streaming")
+        void shouldProvideDefaultUserInfoStreaming() {
+            final OidcConfig.Streaming streaming = oidcConfig.getUserInfo().getStreaming();
+            assertAll(
+                    () -> assertThat(streaming.isEnabled(), equalTo(false)),
+                    () -> assertThat(streaming.getMaxResponseSize(), equalTo(DataSize.ofMegabytes(1)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide default JWT decoding")
+        void shouldProvideDefaultJwt() {
+            final OidcConfig.PreValidation preValidation = oidcConfig.getJwt().getPreValidation();
+            assertAll(
+                    () -> assertThat(oidcConfig.getJwt().getDecoder(), equalTo("nimbus")),
+                    () -> assertThat(preValidation.isEnabled(), equalTo(false)),
+                    () -> assertThat(preValidation.getIssuer(), nullValue()),
+                    () -> assertThat(preValidation.getClockSkew(), equalTo(Duration.ofSeconds(60)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide default JWK set")
+        void shouldProvideDefaultJwks() {
+            final OidcConfig.Jwks jwks = oidcConfig.getJwks();
+            assertAll(
+                    () -> assertThat(jwks.isEnabled(), equalTo(false)),
+                    () -> assertThat(jwks.getSnapshot(), nullValue()),
+                    () -> assertThat(jwks.getRefreshInterval(), equalTo(Duration.ofMinutes(5))),
+                    () -> assertThat(jwks.getUnknownKeyRefreshInterval(), equalTo(Duration.ofSeconds(30)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide default role index")
+        void shouldProvideDefaultRoleIndex() {
+            assertThat(oidcConfig.getAuthentication().getRoleIndex(), empty());
+        }
+
+        @Test
+        @DisplayName("should provide default authentication cache")
+        void shouldProvideDefaultAuthenticationCache() {
+            final OidcConfig.AuthenticationCache cache = oidcConfig.getAuthentication().getCache();
+            assertAll(
+                    () -> assertThat(cache.isEnabled(), equalTo(false)),
+                    () -> assertThat(cache.getMaxSize(), equalTo(10000)),
+                    () -> assertThat(cache.getTtl(), equalTo(Duration.ofMinutes(5)))
+            );
+        }
+
+        @Test
+        @DisplayName("should provide default hybrid required claims")
+        void shouldProvideDefaultHybrid() {
+            assertThat(oidcConfig.getHybrid().getRequiredClaims(),
+                       equalTo(List.of("roles", "groups", "organisations")));
+        }
     }
 }
\ No newline at end of file
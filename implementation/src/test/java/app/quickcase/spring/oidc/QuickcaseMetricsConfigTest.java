@@ -0,0 +1,42 @@
+package app.quickcase.spring.oidc;
+
+import app.quickcase.spring.oidc.metrics.AuthenticationMetrics;
+import app.quickcase.spring.oidc.metrics.MicrometerAuthenticationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+@DisplayName("QuickcaseMetricsConfig")
+class QuickcaseMetricsConfigTest {
+    private static final String[] PROPERTIES = {
+            "quickcase.oidc.jwk-set-uri=https://oidc.provider/jwkset",
+            "quickcase.oidc.user-info-uri=https://oidc.provider/userinfo",
+    };
+
+    @Test
+    @DisplayName("should record metrics when meter registry provided")
+    void shouldRecordMetricsWithRegistry() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertThat(context.getBean(AuthenticationMetrics.class),
+                                           instanceOf(MicrometerAuthenticationMetrics.class)));
+    }
+
+    @Test
+    @DisplayName("should not instrument pipeline without meter registry")
+    void shouldNotInstrumentWithoutRegistry() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertThat(context.getBean(AuthenticationMetrics.class),
+                                           sameInstance(AuthenticationMetrics.NONE)));
+    }
+}
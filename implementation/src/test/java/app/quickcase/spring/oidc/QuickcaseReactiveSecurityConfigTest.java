@@ -0,0 +1,214 @@
+package app.quickcase.spring.oidc;
+
+import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveAccessTokenAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveHybridAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveQuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.ReactiveUserInfoAuthenticationConverter;
+import app.quickcase.spring.oidc.userinfo.CoalescingReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.DefaultReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.ReactiveUserInfoService;
+import app.quickcase.spring.oidc.userinfo.UserInfoGateway;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("QuickcaseReactiveSecurityConfig")
+class QuickcaseReactiveSecurityConfigTest {
+    private static final String[] PROPERTIES = {
+            "quickcase.oidc.jwk-set-uri=https://oidc.provider/jwkset",
+            "quickcase.oidc.user-info-uri=https://oidc.provider/userinfo",
+    };
+
+    @Test
+    @DisplayName("should provide reactive user-info beans in reactive application")
+    void shouldProvideReactiveUserInfoBeans() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBeansOfType(ReactiveUserInfoService.class).size(), is(1)),
+                        () -> assertThat(context.getBean(ReactiveQuickcaseAuthenticationConverter.class),
+                                         instanceOf(ReactiveUserInfoAuthenticationConverter.class)),
+                        () -> assertThat(context.getBeansOfType(ReactiveQuickcaseSecurityDsl.class).size(), is(1))
+                ));
+    }
+
+    @Test
+    @DisplayName("should provide reactive jwt-access-token beans in reactive application")
+    void shouldProvideReactiveAccessTokenBeans() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.mode=jwt-access-token")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBeansOfType(ReactiveUserInfoService.class).size(), is(0)),
+                        () -> assertThat(context.getBean(ReactiveQuickcaseAuthenticationConverter.class),
+                                         instanceOf(ReactiveAccessTokenAuthenticationConverter.class))
+                ));
+    }
+
+    @Test
+    @DisplayName("should provide reactive hybrid beans in reactive application")
+    void shouldProvideReactiveHybridBeans() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.mode=hybrid")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBeansOfType(ReactiveUserInfoService.class).size(), is(1)),
+                        () -> assertThat(context.getBean(ReactiveQuickcaseAuthenticationConverter.class),
+                                         instanceOf(ReactiveHybridAuthenticationConverter.class))
+                ));
+    }
+
+    @Test
+    @DisplayName("should not provide blocking beans in reactive application")
+    void shouldNotProvideBlockingBeans() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.mode=hybrid")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBeansOfType(UserInfoGateway.class).size(), is(0)),
+                        () -> assertThat(context.getBeansOfType(UserInfoService.class).size(), is(0)),
+                        () -> assertThat(context.getBeansOfType(QuickcaseAuthenticationConverter.class).size(), is(0)),
+                        () -> assertThat(context.getBeansOfType(QuickcaseSecurityDsl.class).size(), is(0))
+                ));
+    }
+
+    @Test
+    @DisplayName("should coalesce reactive user info requests when enabled")
+    void shouldCoalesceReactiveUserInfoRequests() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.user-info.coalesce-requests=true")
+                .run(context -> assertThat(context.getBean(ReactiveUserInfoService.class),
+                                           instanceOf(CoalescingReactiveUserInfoService.class)));
+    }
+
+    @Test
+    @DisplayName("should not coalesce reactive user info requests when disabled")
+    void shouldNotCoalesceReactiveUserInfoRequests() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.user-info.coalesce-requests=false")
+                .run(context -> assertThat(context.getBean(ReactiveUserInfoService.class),
+                                           instanceOf(DefaultReactiveUserInfoService.class)));
+    }
+
+    @Test
+    @DisplayName("should fail startup when user info cache enabled in reactive application")
+    void shouldRejectUserInfoCache() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.user-info.cache.enabled=true")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getStartupFailure(), notNullValue()),
+                        () -> assertThat(rootCause(context.getStartupFailure()).getMessage(),
+                                         containsString("quickcase.oidc.user-info.cache.enabled"))
+                ));
+    }
+
+    @Test
+    @DisplayName("should fail startup when user info streaming enabled in reactive application")
+    void shouldRejectUserInfoStreaming() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.user-info.streaming.enabled=true")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getStartupFailure(), notNullValue()),
+                        () -> assertThat(rootCause(context.getStartupFailure()).getMessage(),
+                                         containsString("quickcase.oidc.user-info.streaming.enabled"))
+                ));
+    }
+
+    @Test
+    @DisplayName("should fail startup when JWK set snapshot enabled in reactive application")
+    void shouldRejectJwks() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.jwks.enabled=true")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getStartupFailure(), notNullValue()),
+                        () -> assertThat(rootCause(context.getStartupFailure()).getMessage(),
+                                         containsString("quickcase.oidc.jwks.enabled"))
+                ));
+    }
+
+    @Test
+    @DisplayName("should fail startup when quickcase decoder selected in reactive application")
+    void shouldRejectQuickcaseDecoder() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.jwt.decoder=quickcase")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getStartupFailure(), notNullValue()),
+                        () -> assertThat(rootCause(context.getStartupFailure()).getMessage(),
+                                         containsString("quickcase.oidc.jwt.decoder=quickcase"))
+                ));
+    }
+
+    @Test
+    @DisplayName("should fail startup when pre-validation enabled in reactive application")
+    void shouldRejectPreValidation() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.jwt.pre-validation.enabled=true")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getStartupFailure(), notNullValue()),
+                        () -> assertThat(rootCause(context.getStartupFailure()).getMessage(),
+                                         containsString("quickcase.oidc.jwt.pre-validation.enabled"))
+                ));
+    }
+
+    @Test
+    @DisplayName("should fail startup when authentication cache enabled in reactive application")
+    void shouldRejectAuthenticationCache() {
+        new ReactiveWebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.authentication.cache.enabled=true")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getStartupFailure(), notNullValue()),
+                        () -> assertThat(rootCause(context.getStartupFailure()).getMessage(),
+                                         containsString("quickcase.oidc.authentication.cache.enabled"))
+                ));
+    }
+
+    @Test
+    @DisplayName("should not provide reactive beans in servlet application")
+    void shouldNotProvideReactiveBeans() {
+        new WebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBeansOfType(ReactiveQuickcaseSecurityDsl.class).size(), is(0)),
+                        () -> assertThat(context.getBeansOfType(QuickcaseSecurityDsl.class).size(), is(1))
+                ));
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
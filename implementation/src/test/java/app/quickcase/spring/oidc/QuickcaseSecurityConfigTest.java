@@ -0,0 +1,140 @@
+package app.quickcase.spring.oidc;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import app.quickcase.spring.oidc.authentication.converter.AccessTokenAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.authentication.converter.UserInfoAuthenticationConverter;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DisplayName("QuickcaseSecurityConfig")
+class QuickcaseSecurityConfigTest {
+    private static final String JWKS_REFRESH_THREAD = "quickcase-jwks-refresh-";
+    private static final String IDLE_CONNECTION_EVICTOR_THREAD = "idle-connection-evictor-";
+    private static final String[] PROPERTIES = {
+            "quickcase.oidc.jwk-set-uri=https://oidc.provider/jwkset",
+            "quickcase.oidc.user-info-uri=https://oidc.provider/userinfo",
+    };
+
+    @Test
+    @DisplayName("should provide blocking beans in non-web application")
+    void shouldProvideBlockingBeansOutsideWebApplication() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBeansOfType(UserInfoService.class).size(), is(1)),
+                        () -> assertThat(context.getBean(QuickcaseAuthenticationConverter.class),
+                                         instanceOf(UserInfoAuthenticationConverter.class)),
+                        () -> assertThat(context.getBeansOfType(QuickcaseSecurityDsl.class).size(), is(1)),
+                        () -> assertThat(context.getBeansOfType(ReactiveQuickcaseSecurityDsl.class).size(), is(0))
+                ));
+    }
+
+    @Test
+    @DisplayName("should provide jwt-access-token beans in non-web application")
+    void shouldProvideAccessTokenBeansOutsideWebApplication() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.mode=jwt-access-token")
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBean(QuickcaseAuthenticationConverter.class),
+                                         instanceOf(AccessTokenAuthenticationConverter.class)),
+                        () -> assertThat(context.getBeansOfType(QuickcaseSecurityDsl.class).size(), is(1))
+                ));
+    }
+
+    @Test
+    @DisplayName("should not expose JWT decoder as bean")
+    void shouldNotExposeJwtDecoder() {
+        new WebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertThat(context.getBeansOfType(JwtDecoder.class).size(), is(0)));
+    }
+
+    @Test
+    @DisplayName("should start alongside application's own JWT decoder")
+    void shouldStartWithApplicationJwtDecoder() {
+        final JwtDecoder applicationDecoder = token -> {
+            throw new BadJwtException("Not used");
+        };
+
+        new WebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withBean(JwtDecoder.class, () -> applicationDecoder)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertAll(
+                        () -> assertThat(context.getBean(JwtDecoder.class), sameInstance(applicationDecoder)),
+                        () -> assertThat(context.getBeansOfType(QuickcaseSecurityDsl.class).size(), is(1))
+                ));
+    }
+
+    @Test
+    @DisplayName("should stop refreshing JWKS when context closed")
+    void shouldStopJwksRefreshOnClose() throws InterruptedException {
+        // Other test contexts may share the JVM, with their own refresh threads
+        final List<Thread> existingThreads = threads(JWKS_REFRESH_THREAD);
+        final AtomicReference<List<Thread>> refreshThreads = new AtomicReference<>();
+
+        new WebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .withPropertyValues("quickcase.oidc.jwks.enabled=true")
+                .run(context -> refreshThreads.set(newThreads(JWKS_REFRESH_THREAD, existingThreads)));
+
+        assertThat(refreshThreads.get(), not(empty()));
+        for (Thread thread : refreshThreads.get()) {
+            thread.join(5000);
+        }
+        assertThat(newThreads(JWKS_REFRESH_THREAD, existingThreads), empty());
+    }
+
+    @Test
+    @DisplayName("should close user info HTTP client when context closed")
+    void shouldCloseUserInfoHttpClientOnClose() throws InterruptedException {
+        final List<Thread> existingThreads = threads(IDLE_CONNECTION_EVICTOR_THREAD);
+        final AtomicReference<List<Thread>> evictorThreads = new AtomicReference<>();
+
+        new WebApplicationContextRunner()
+                .withUserConfiguration(QuickcaseSecurityConfig.class)
+                .withPropertyValues(PROPERTIES)
+                .run(context -> evictorThreads.set(newThreads(IDLE_CONNECTION_EVICTOR_THREAD, existingThreads)));
+
+        assertThat(evictorThreads.get(), not(empty()));
+        for (Thread thread : evictorThreads.get()) {
+            thread.join(5000);
+        }
+        assertThat(newThreads(IDLE_CONNECTION_EVICTOR_THREAD, existingThreads), empty());
+    }
+
+    private static List<Thread> newThreads(String prefix, List<Thread> existingThreads) {
+        return threads(prefix).stream()
+                              .filter(thread -> !existingThreads.contains(thread))
+                              .toList();
+    }
+
+    private static List<Thread> threads(String prefix) {
+        return Thread.getAllStackTraces()
+                     .keySet()
+                     .stream()
+                     .filter(thread -> thread.getName().startsWith(prefix))
+                     .toList();
+    }
+}
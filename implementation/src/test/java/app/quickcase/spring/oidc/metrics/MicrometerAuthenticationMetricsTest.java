@@ -0,0 +1,186 @@
+package app.quickcase.spring.oidc.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import app.quickcase.spring.oidc.authentication.QuickcaseClientAuthentication;
+import app.quickcase.spring.oidc.authentication.QuickcaseUserAuthentication;
+import app.quickcase.spring.oidc.authentication.converter.QuickcaseAuthenticationConverter;
+import app.quickcase.spring.oidc.jwt.PreValidatingJwtDecoder;
+import app.quickcase.spring.oidc.jwt.TokenRejectedException;
+import app.quickcase.spring.oidc.userinfo.SubjectMismatchException;
+import app.quickcase.spring.oidc.userinfo.UserInfo;
+import app.quickcase.spring.oidc.userinfo.UserInfoGateway;
+import app.quickcase.spring.oidc.userinfo.UserInfoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("MicrometerAuthenticationMetrics")
+class MicrometerAuthenticationMetricsTest {
+    private static final Jwt JWT = Jwt.withTokenValue("token")
+                                      .header("alg", "RS256")
+                                      .claim("sub", "user-1")
+                                      .build();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerAuthenticationMetrics metrics = new MicrometerAuthenticationMetrics(registry, "user-info");
+
+    @Test
+    @DisplayName("should time JWT decoding by outcome")
+    void shouldTimeDecoding() {
+        final JwtDecoder decoder = metrics.decoder(token -> {
+            if ("bad".equals(token)) {
+                throw new JwtException("Invalid");
+            }
+            return JWT;
+        });
+
+        decoder.decode("token");
+        assertThrows(JwtException.class, () -> decoder.decode("bad"));
+
+        assertAll(
+                () -> assertThat(count(MicrometerAuthenticationMetrics.JWT_DECODE, "outcome", "success"), is(1L)),
+                () -> assertThat(count(MicrometerAuthenticationMetrics.JWT_DECODE, "outcome", "failure"), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should count pre-validation rejections by reason")
+    void shouldCountRejections() {
+        final PreValidatingJwtDecoder decoder = metrics.preValidation(
+                new PreValidatingJwtDecoder(token -> JWT, Set.of("RS256"), null, Duration.ofSeconds(60)));
+
+        assertThrows(TokenRejectedException.class, () -> decoder.decode("garbage"));
+
+        assertAll(
+                () -> assertThat(registry.get(MicrometerAuthenticationMetrics.JWT_REJECTED)
+                                         .tags("mode", "user-info", "reason", "MALFORMED")
+                                         .functionCounter()
+                                         .count(), is(1.0)),
+                () -> assertThat(registry.get(MicrometerAuthenticationMetrics.JWT_REJECTED)
+                                         .tags("reason", "EXPIRED")
+                                         .functionCounter()
+                                         .count(), is(0.0))
+        );
+    }
+
+    @Test
+    @DisplayName("should time conversion by mode and principal type")
+    void shouldTimeConversion() {
+        final QuickcaseAuthenticationConverter userConverter = metrics.converter(jwt -> new QuickcaseUserAuthentication(
+                "token", Set.of(), UserInfo.builder("user-1").build()));
+        final QuickcaseAuthenticationConverter clientConverter = metrics.converter(
+                jwt -> new QuickcaseClientAuthentication("token", "client-1", Set.of(), Set.of()));
+
+        userConverter.convert(JWT);
+        clientConverter.convert(JWT);
+
+        assertAll(
+                () -> assertThat(registry.get(MicrometerAuthenticationMetrics.CONVERT)
+                                         .tags("mode", "user-info", "principal", "user", "outcome", "success")
+                                         .timer()
+                                         .count(), is(1L)),
+                () -> assertThat(count(MicrometerAuthenticationMetrics.CONVERT, "principal", "client"), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should time user info requests by status and outcome")
+    void shouldTimeUserInfoRequests() {
+        final UserInfoGateway okGateway = metrics.gateway(token -> Map.of());
+        final UserInfoGateway failingGateway = metrics.gateway(token -> {
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        });
+
+        okGateway.getClaims("token");
+        assertThrows(HttpServerErrorException.class, () -> failingGateway.getClaims("token"));
+
+        assertAll(
+                () -> assertThat(count(MicrometerAuthenticationMetrics.USER_INFO_REQUEST, "outcome", "SUCCESS"), is(1L)),
+                () -> assertThat(registry.get(MicrometerAuthenticationMetrics.USER_INFO_REQUEST)
+                                         .tags("status", "502", "outcome", "SERVER_ERROR")
+                                         .timer()
+                                         .count(), is(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("should count subject validations by outcome")
+    void shouldCountSubjectValidations() {
+        final UserInfoService service = metrics.subjectValidation((subject, token) -> {
+            if (!"user-1".equals(subject)) {
+                throw new SubjectMismatchException("Mismatch");
+            }
+            return UserInfo.builder(subject).build();
+        });
+
+        service.loadUserInfo("user-1", "token");
+        assertThrows(SubjectMismatchException.class, () -> service.loadUserInfo("user-2", "token"));
+
+        assertAll(
+                () -> assertThat(counter("match"), is(1.0)),
+                () -> assertThat(counter("mismatch"), is(1.0))
+        );
+    }
+
+    @Test
+    @DisplayName("should time user info extraction")
+    void shouldTimeExtraction() {
+        metrics.extractor(claims -> UserInfo.builder("user-1").build()).extract(null);
+
+        assertThat(registry.get(MicrometerAuthenticationMetrics.EXTRACT)
+                           .tags("mode", "user-info", "outcome", "success")
+                           .timer()
+                           .count(), is(1L));
+    }
+
+    @Test
+    @DisplayName("should register timers before first recording")
+    void shouldPreRegisterTimers() {
+        assertAll(
+                () -> assertThat(count(MicrometerAuthenticationMetrics.JWT_DECODE, "outcome", "failure"), is(0L)),
+                () -> assertThat(count(MicrometerAuthenticationMetrics.CONVERT, "principal", "none"), is(0L)),
+                () -> assertThat(count(MicrometerAuthenticationMetrics.USER_INFO_REQUEST, "status", "503"), is(0L)),
+                () -> assertThat(count(MicrometerAuthenticationMetrics.EXTRACT, "outcome", "failure"), is(0L))
+        );
+    }
+
+    @Test
+    @DisplayName("should time user info requests failing with unusual status")
+    void shouldTimeUnusualUserInfoStatus() {
+        final UserInfoGateway gateway = metrics.gateway(token -> {
+            throw new HttpClientErrorException(HttpStatus.I_AM_A_TEAPOT);
+        });
+
+        assertThrows(HttpClientErrorException.class, () -> gateway.getClaims("token"));
+
+        assertThat(registry.get(MicrometerAuthenticationMetrics.USER_INFO_REQUEST)
+                           .tags("status", "418", "outcome", "CLIENT_ERROR")
+                           .timer()
+                           .count(), is(1L));
+    }
+
+    private long count(String name, String tagKey, String tagValue) {
+        return registry.get(name).tag(tagKey, tagValue).timer().count();
+    }
+
+    private double counter(String outcome) {
+        return registry.get(MicrometerAuthenticationMetrics.SUBJECT_VALIDATION)
+                       .tag("outcome", outcome)
+                       .counter()
+                       .count();
+    }
+}
@@ -2,6 +2,7 @@ package app.quickcase.spring.oidc.userinfo;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import app.quickcase.spring.oidc.OidcException;
 import app.quickcase.spring.oidc.claims.ClaimNamesProvider;
@@ -9,6 +10,7 @@ import app.quickcase.spring.oidc.claims.ClaimsParser;
 import app.quickcase.spring.oidc.claims.JsonClaimsParser;
 import app.quickcase.spring.oidc.organisation.OrganisationProfile;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -116,6 +118,32 @@ class DefaultUserInfoExtractorTest {
         );
     }
 
+    @Test
+    @DisplayName("should read each claim once")
+    void shouldReadEachClaimOnce() {
+        final Map<String, Integer> reads = new HashMap<>();
+        final ClaimsParser claims = new JsonClaimsParser(claimsMap()) {
+            @Override
+            public String getStringOrNull(String claim) {
+                reads.merge(claim, 1, Integer::sum);
+                return super.getStringOrNull(claim);
+            }
+
+            @Override
+            public Optional<ObjectNode> getObject(String claim) {
+                reads.merge(claim, 1, Integer::sum);
+                return super.getObject(claim);
+            }
+        };
+
+        new DefaultUserInfoExtractor(claimNamesProvider()).extract(claims);
+
+        assertAll(
+                () -> assertThat(reads.keySet(), equalTo(claimsMap().keySet())),
+                () -> assertThat(reads.values(), everyItem(equalTo(1)))
+        );
+    }
+
     @Test
     @DisplayName("should throw exception when `sub` claim missing")
     void shouldThrowExceptionWhenNoSubClaim() throws Exception {
@@ -127,6 +155,10 @@ class DefaultUserInfoExtractorTest {
     }
 
     private ClaimsParser claims() {
+        return new JsonClaimsParser(claimsMap());
+    }
+
+    private Map<String, JsonNode> claimsMap() {
         final Map<String, JsonNode> claims = new HashMap<>();
         claims.put(CLAIM_SUB, textNode(USER_ID));
         claims.put(CLAIM_NAME, textNode(USER_NAME));
@@ -137,7 +169,7 @@ class DefaultUserInfoExtractorTest {
         claims.put(CLAIM_DEF_JURISDICTION, textNode(DEFAULT_JURISDICTION));
         claims.put(CLAIM_DEF_CASE_TYPE, textNode(DEFAULT_CASE_TYPE));
         claims.put(CLAIM_DEF_STATE, textNode(DEFAULT_STATE));
-        return new JsonClaimsParser(claims);
+        return claims;
     }
 
     private ClaimsParser minimumClaims() {
@@ -0,0 +1,170 @@
+package app.quickcase.spring.oidc.userinfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import app.quickcase.spring.oidc.OidcConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("UserInfoRestTemplateFactory")
+class UserInfoRestTemplateFactoryTest {
+    private static final String BODY = "{\"sub\":\"user-123\"}";
+
+    private final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+    private HttpServer server;
+    private URI baseUri;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/userinfo", this::respond);
+        server.createContext("/slow", exchange -> {
+            slowRequestReceived.countDown();
+            sleep(Duration.ofSeconds(2));
+            respond(exchange);
+        });
+        server.start();
+        baseUri = URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (httpClient != null) {
+            httpClient.close(CloseMode.IMMEDIATE);
+        }
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("should create rest template backed by pooled client")
+    void shouldUsePooledClient() {
+        final RestTemplate restTemplate = create(http(true, Duration.ofSeconds(5)));
+
+        assertThat(restTemplate.getRequestFactory(), instanceOf(HttpComponentsClientHttpRequestFactory.class));
+    }
+
+    @Test
+    @DisplayName("should transparently decompress gzip responses")
+    void shouldDecompressGzip() {
+        final RestTemplate restTemplate = create(http(true, Duration.ofSeconds(5)));
+
+        final String body = restTemplate.getForObject(baseUri.resolve("/userinfo"), String.class);
+
+        assertThat(body, equalTo(BODY));
+    }
+
+    @Test
+    @DisplayName("should not request compression when gzip disabled")
+    void shouldNotRequestGzip() {
+        final RestTemplate restTemplate = create(http(false, Duration.ofSeconds(5)));
+
+        final String body = restTemplate.getForObject(baseUri.resolve("/userinfo"), String.class);
+
+        assertThat(body, equalTo(BODY));
+    }
+
+    @Test
+    @DisplayName("should time out on slow responses")
+    void shouldTimeOut() {
+        final RestTemplate restTemplate = create(http(true, Duration.ofMillis(200)));
+
+        assertThrows(ResourceAccessException.class,
+                     () -> restTemplate.getForObject(baseUri.resolve("/slow"), String.class));
+    }
+
+    @Test
+    @DisplayName("should time out waiting for pooled connection")
+    void shouldTimeOutWaitingForConnection() throws InterruptedException {
+        final RestTemplate restTemplate = create(http(1, Duration.ofMillis(200), Duration.ofSeconds(5)));
+        final Thread slowRequest = new Thread(() -> restTemplate.getForObject(baseUri.resolve("/slow"), String.class));
+        slowRequest.start();
+        slowRequestReceived.await(5, TimeUnit.SECONDS);
+
+        final ResourceAccessException exception = assertThrows(
+                ResourceAccessException.class,
+                () -> restTemplate.getForObject(baseUri.resolve("/userinfo"), String.class));
+
+        assertThat(exception.getCause(), instanceOf(ConnectionRequestTimeoutException.class));
+        slowRequest.join();
+    }
+
+    private RestTemplate create(OidcConfig.Http http) {
+        final UserInfoRestTemplateFactory factory = new UserInfoRestTemplateFactory(http);
+        httpClient = factory.createHttpClient();
+        return factory.create(httpClient);
+    }
+
+    private OidcConfig.Http http(boolean gzip, Duration readTimeout) {
+        return http(5, Duration.ofSeconds(1), readTimeout, gzip);
+    }
+
+    private OidcConfig.Http http(int maxConnections, Duration connectionRequestTimeout, Duration readTimeout) {
+        return http(maxConnections, connectionRequestTimeout, readTimeout, true);
+    }
+
+    private OidcConfig.Http http(int maxConnections,
+                                 Duration connectionRequestTimeout,
+                                 Duration readTimeout,
+                                 boolean gzip) {
+        return new OidcConfig.Http(maxConnections,
+                                   Duration.ofSeconds(30),
+                                   Duration.ofSeconds(60),
+                                   Duration.ofSeconds(1),
+                                   connectionRequestTimeout,
+                                   readTimeout,
+                                   gzip);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}